@@ -0,0 +1,317 @@
+package com.daniel_araujo.byteringbuffer.benchmarks;
+
+import com.daniel_araujo.byteringbuffer.ByteRingBuffer;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.channels.ScatteringByteChannel;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Covers every operation of ByteRingBuffer. Run with {@code -prof gc} to see the allocation rate of each one.
+ * <p>
+ * Benchmarks that only read leave the buffer untouched, so the layout parameter decides whether they always take the
+ * contiguous path or always take the wrapping path. Benchmarks that write pair each operation with its opposite so the
+ * fill level stays the same. Their data moves around the ring as they run and they take the wrapping path in
+ * proportion to the chunk size.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ByteRingBufferBenchmark {
+    @Param({ "4096", "65536" })
+    public int capacity;
+
+    @Param({ "16", "1024" })
+    public int chunkSize;
+
+    /**
+     * Fraction of the capacity that is used before each benchmark runs. A full buffer makes push reject everything
+     * and makes overrunPush discard old elements.
+     */
+    @Param({ "0.25", "0.75", "1.0" })
+    public double fillLevel;
+
+    /**
+     * Whether the stored elements wrap around the end of the array.
+     */
+    @Param({ "contiguous", "wrapped" })
+    public String layout;
+
+    private ByteRingBuffer buffer;
+
+    /**
+     * Empty buffer that ring-to-ring transfers move bytes into and back out of.
+     */
+    private ByteRingBuffer other;
+
+    private int used;
+
+    private ByteRingBuffer.ShortView shortView;
+
+    private byte[] chunk;
+
+    /**
+     * Wraps chunk for the push callback so that it does not allocate on every call.
+     */
+    private ByteBuffer source;
+
+    private short[] shortChunk;
+
+    private ByteRingBuffer.PeekCallback peekCallback;
+
+    private ByteRingBuffer.PushCallback pushCallback;
+
+    private ChunkConsumer consumeCallback;
+
+    private DiscardingChannel channel;
+
+    @Setup
+    public void setup(final Blackhole blackhole) {
+        buffer = new ByteRingBuffer(capacity);
+        other = new ByteRingBuffer(capacity);
+        shortView = buffer.shortView();
+        chunk = new byte[chunkSize];
+        source = ByteBuffer.wrap(chunk);
+        shortChunk = new short[chunkSize / 2];
+        channel = new DiscardingChannel();
+
+        used = (int) (capacity * fillLevel);
+
+        if ("wrapped".equals(layout)) {
+            // Moves the start so that the elements cross the end of the array in the middle.
+            int offset = capacity - used / 2;
+            buffer.push(new byte[offset]);
+            buffer.drop(offset);
+        }
+
+        buffer.push(new byte[used]);
+
+        peekCallback = new ByteRingBuffer.PeekCallback() {
+            @Override
+            public void borrow(ByteBuffer chunk) {
+                blackhole.consume(chunk.get(chunk.position()));
+            }
+        };
+
+        pushCallback = new ByteRingBuffer.PushCallback() {
+            @Override
+            public void borrow(ByteBuffer chunk) {
+                ((Buffer) source).clear();
+                ((Buffer) source).limit(Math.min(chunk.remaining(), source.capacity()));
+                chunk.put(source);
+            }
+        };
+
+        consumeCallback = new ChunkConsumer(blackhole);
+    }
+
+    @Benchmark
+    public int pushDrop() {
+        int added = buffer.push(chunk, 0, chunkSize);
+        buffer.drop(added);
+        return added;
+    }
+
+    @Benchmark
+    public int overrunPush() {
+        buffer.overrunPush(chunk, 0, chunkSize);
+
+        if (buffer.sizeUsed() != used) {
+            // Nothing was discarded so the buffer grew.
+            buffer.drop(chunkSize);
+        }
+
+        return buffer.sizeUsed();
+    }
+
+    @Benchmark
+    public int popPush() {
+        int removed = buffer.pop(chunk, 0, chunkSize);
+        buffer.push(chunk, 0, removed);
+        return removed;
+    }
+
+    @Benchmark
+    public int popCallbackPush() {
+        consumeCallback.remaining = chunkSize;
+        int removed = buffer.pop(consumeCallback);
+        buffer.push(chunk, 0, removed);
+        return removed;
+    }
+
+    @Benchmark
+    public int pushCallbackDrop() {
+        int added = buffer.push(pushCallback);
+        buffer.drop(added);
+        return added;
+    }
+
+    @Benchmark
+    public int peekArray() {
+        return buffer.peek(chunk, 0, chunkSize);
+    }
+
+    @Benchmark
+    public void peekCallback() {
+        buffer.peek(peekCallback);
+    }
+
+    @Benchmark
+    public ByteBuffer peekContiguous() {
+        return buffer.peekContiguous(chunkSize);
+    }
+
+    @Benchmark
+    public int writeToReadFrom() throws Exception {
+        int written = buffer.writeTo(channel.limit(chunkSize));
+        buffer.readFrom(channel.limit(written));
+        return written;
+    }
+
+    @Benchmark
+    public int transferToAndBack() {
+        int moved = buffer.transferTo(other, chunkSize);
+        other.transferTo(buffer, moved);
+        return moved;
+    }
+
+    @Benchmark
+    public int overrunTransferToAndBack() {
+        int moved = buffer.overrunTransferTo(other, chunkSize);
+        other.transferTo(buffer, moved);
+        return moved;
+    }
+
+    @Benchmark
+    public int shortViewPushPop() {
+        int added = shortView.push(shortChunk, 0, shortChunk.length);
+        return shortView.pop(shortChunk, 0, added);
+    }
+
+    @Benchmark
+    public int shortViewOverrunPushDrop() {
+        shortView.overrunPush(shortChunk, 0, shortChunk.length);
+
+        if (buffer.sizeUsed() != used) {
+            // Nothing was discarded so the buffer grew.
+            shortView.drop(shortChunk.length);
+        }
+
+        return buffer.sizeUsed();
+    }
+
+    @Benchmark
+    public int shortViewPeek() {
+        return shortView.peek(shortChunk, 0, shortChunk.length);
+    }
+
+    /**
+     * Consumes up to a number of bytes from the chunks it borrows.
+     */
+    private static final class ChunkConsumer implements ByteRingBuffer.ConsumeCallback {
+        private final Blackhole blackhole;
+
+        private int remaining;
+
+        ChunkConsumer(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @Override
+        public int borrow(ByteBuffer chunk) {
+            int taking = Math.min(remaining, chunk.remaining());
+
+            if (taking > 0) {
+                blackhole.consume(chunk.get(chunk.position()));
+            }
+
+            remaining -= taking;
+
+            return taking;
+        }
+    }
+
+    /**
+     * Channel that accepts and produces bytes without touching memory beyond the buffers it is given. Each call moves
+     * at most the number of bytes set with the limit method.
+     */
+    private static final class DiscardingChannel implements GatheringByteChannel, ScatteringByteChannel {
+        private long limit;
+
+        public DiscardingChannel limit(long limit) {
+            this.limit = limit;
+            return this;
+        }
+
+        @Override
+        public long write(ByteBuffer[] srcs, int offset, int length) {
+            return transfer(srcs, offset, length);
+        }
+
+        @Override
+        public long write(ByteBuffer[] srcs) {
+            return transfer(srcs, 0, srcs.length);
+        }
+
+        @Override
+        public int write(ByteBuffer src) {
+            return transfer(src, limit);
+        }
+
+        @Override
+        public long read(ByteBuffer[] dsts, int offset, int length) {
+            return transfer(dsts, offset, length);
+        }
+
+        @Override
+        public long read(ByteBuffer[] dsts) {
+            return transfer(dsts, 0, dsts.length);
+        }
+
+        @Override
+        public int read(ByteBuffer dst) {
+            return transfer(dst, limit);
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+
+        private long transfer(ByteBuffer[] buffers, int offset, int length) {
+            long moved = 0;
+
+            for (int i = offset; i < offset + length && moved < limit; i++) {
+                moved += transfer(buffers[i], limit - moved);
+            }
+
+            return moved;
+        }
+
+        private static int transfer(ByteBuffer buffer, long limit) {
+            int n = (int) Math.min(buffer.remaining(), limit);
+            ((Buffer) buffer).position(buffer.position() + n);
+            return n;
+        }
+    }
+}
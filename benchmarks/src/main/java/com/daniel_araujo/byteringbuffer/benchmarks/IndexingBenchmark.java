@@ -0,0 +1,58 @@
+package com.daniel_araujo.byteringbuffer.benchmarks;
+
+import com.daniel_araujo.byteringbuffer.ByteRingBuffer;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Per-sample operations where index arithmetic dominates. Compare a capacity that is a power of two with one that is
+ * not.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IndexingBenchmark {
+    @Param({ "4000", "4096" })
+    public int capacity;
+
+    private ByteRingBuffer buffer;
+
+    private final byte[] sample = new byte[2];
+
+    @Setup
+    public void setup() {
+        buffer = new ByteRingBuffer(capacity);
+    }
+
+    @Benchmark
+    public int pushPopSample() {
+        buffer.push(sample, 0, 2);
+        return buffer.pop(sample, 0, 2);
+    }
+
+    @Benchmark
+    public int overrunPushSample() {
+        buffer.overrunPush(sample, 0, 2);
+        return buffer.sizeUsed();
+    }
+
+    @Benchmark
+    public int pushDropSample() {
+        buffer.push(sample, 0, 2);
+        buffer.drop(2);
+        return buffer.sizeUsed();
+    }
+}
@@ -0,0 +1,312 @@
+package com.daniel_araujo.byteringbuffer.benchmarks;
+
+import com.daniel_araujo.byteringbuffer.ByteRingBuffer;
+import com.daniel_araujo.byteringbuffer.MpscByteRingBuffer;
+import com.daniel_araujo.byteringbuffer.SpscByteRingBuffer;
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Measures end-to-end latency of a producer thread and a consumer thread that talk through a ring buffer.
+ * <p>
+ * The producer sends fixed size messages at a fixed rate. Each message carries the time at which it was supposed to be
+ * sent, not the time at which it was actually sent. When the producer falls behind because the buffer is full, every
+ * message that is late carries its delay into the results. This corrects for coordinated omission.
+ * <p>
+ * Each run prints one JSON object per line. Latencies are in nanoseconds.
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar com.daniel_araujo.byteringbuffer.benchmarks.LatencyHarness \
+ *     --buffers=locked,spsc,mpsc --rates=100000,1000000 --duration=10 --output=latency.jsonl
+ * </pre>
+ */
+public final class LatencyHarness {
+    /**
+     * Percentiles reported for every run.
+     */
+    private static final double[] PERCENTILES = { 50, 90, 99, 99.9, 99.99 };
+
+    /**
+     * The message starts with the timestamp so it can not be shorter than a long.
+     */
+    private static final int TIMESTAMP_SIZE = 8;
+
+    /**
+     * What the producer and the consumer need from a buffer.
+     */
+    interface Transport {
+        int push(byte[] bytes, int index, int length);
+
+        int pop(byte[] bytes, int index, int length);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+
+        String[] buffers = options.get("buffers").split(",");
+        String[] rates = options.get("rates").split(",");
+        int capacity = Integer.parseInt(options.get("capacity"));
+        int messageSize = Integer.parseInt(options.get("message-size"));
+        long duration = TimeUnit.SECONDS.toNanos(Long.parseLong(options.get("duration")));
+        long warmup = TimeUnit.SECONDS.toNanos(Long.parseLong(options.get("warmup")));
+
+        if (messageSize < TIMESTAMP_SIZE) {
+            throw new IllegalArgumentException("Message size must be at least " + TIMESTAMP_SIZE + " bytes.");
+        }
+
+        String output = options.get("output");
+        Writer writer = output == null
+                ? new OutputStreamWriter(System.out, StandardCharsets.UTF_8)
+                : new OutputStreamWriter(new FileOutputStream(output, true), StandardCharsets.UTF_8);
+
+        try {
+            for (String buffer : buffers) {
+                for (String rate : rates) {
+                    Histogram histogram = run(transport(buffer, capacity), Long.parseLong(rate), messageSize, duration,
+                            warmup);
+
+                    writer.write(report(buffer, Long.parseLong(rate), capacity, messageSize, histogram));
+                    writer.write('\n');
+                    writer.flush();
+                }
+            }
+        } finally {
+            if (output != null) {
+                writer.close();
+            }
+        }
+    }
+
+    /**
+     * Runs a producer and a consumer until every message has been delivered.
+     *
+     * @param transport
+     *            Buffer shared by both threads.
+     * @param rate
+     *            How many messages per second the producer offers.
+     * @param messageSize
+     *            How many bytes each message has.
+     * @param duration
+     *            For how many nanoseconds messages are recorded.
+     * @param warmup
+     *            For how many nanoseconds messages are sent before recording starts.
+     *
+     * @return Latencies of the recorded messages.
+     */
+    static Histogram run(final Transport transport, long rate, final int messageSize, long duration, long warmup)
+            throws InterruptedException {
+        final long interval = TimeUnit.SECONDS.toNanos(1) / rate;
+        final long messages = (warmup + duration) / interval;
+        final long start = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100);
+        final long recordFrom = start + warmup;
+        final Histogram histogram = new Histogram(3);
+
+        Thread producer = new Thread("producer") {
+            @Override
+            public void run() {
+                byte[] message = new byte[messageSize];
+
+                for (long i = 0; i < messages; i++) {
+                    long intended = start + i * interval;
+
+                    while (System.nanoTime() < intended) {
+                        // Busy waits so that waking up does not add to the latency.
+                    }
+
+                    putLong(message, intended);
+
+                    int sent = 0;
+                    while (sent < messageSize) {
+                        sent += transport.push(message, sent, messageSize - sent);
+                    }
+                }
+            }
+        };
+
+        Thread consumer = new Thread("consumer") {
+            @Override
+            public void run() {
+                byte[] message = new byte[messageSize];
+
+                for (long i = 0; i < messages; i++) {
+                    int received = 0;
+                    while (received < messageSize) {
+                        received += transport.pop(message, received, messageSize - received);
+                    }
+
+                    long now = System.nanoTime();
+                    long intended = getLong(message);
+
+                    if (intended >= recordFrom) {
+                        histogram.recordValue(now - intended);
+                    }
+                }
+            }
+        };
+
+        consumer.start();
+        producer.start();
+        producer.join();
+        consumer.join();
+
+        return histogram;
+    }
+
+    /**
+     * @param name
+     *            One of locked, spsc or mpsc.
+     * @param capacity
+     *            Capacity of the buffer.
+     *
+     * @return Transport backed by a new buffer.
+     */
+    static Transport transport(String name, int capacity) {
+        if ("locked".equals(name)) {
+            // ByteRingBuffer is not thread safe so every call takes a lock.
+            final ByteRingBuffer buffer = new ByteRingBuffer(capacity);
+
+            return new Transport() {
+                @Override
+                public synchronized int push(byte[] bytes, int index, int length) {
+                    return buffer.push(bytes, index, length);
+                }
+
+                @Override
+                public synchronized int pop(byte[] bytes, int index, int length) {
+                    return buffer.pop(bytes, index, length);
+                }
+            };
+        } else if ("spsc".equals(name)) {
+            final SpscByteRingBuffer buffer = new SpscByteRingBuffer(capacity);
+
+            return new Transport() {
+                @Override
+                public int push(byte[] bytes, int index, int length) {
+                    return buffer.push(bytes, index, length);
+                }
+
+                @Override
+                public int pop(byte[] bytes, int index, int length) {
+                    return buffer.pop(bytes, index, length);
+                }
+            };
+        } else if ("mpsc".equals(name)) {
+            final MpscByteRingBuffer buffer = new MpscByteRingBuffer(capacity);
+
+            return new Transport() {
+                @Override
+                public int push(byte[] bytes, int index, int length) {
+                    return buffer.push(bytes, index, length);
+                }
+
+                @Override
+                public int pop(byte[] bytes, int index, int length) {
+                    return buffer.pop(bytes, index, length);
+                }
+            };
+        } else {
+            throw new IllegalArgumentException("Unknown buffer: " + name);
+        }
+    }
+
+    /**
+     * @return One line of JSON describing a run.
+     */
+    static String report(String buffer, long rate, int capacity, int messageSize, Histogram histogram) {
+        StringBuilder json = new StringBuilder();
+
+        json.append("{\"buffer\":\"").append(buffer).append('"');
+        json.append(",\"rate\":").append(rate);
+        json.append(",\"capacity\":").append(capacity);
+        json.append(",\"messageSize\":").append(messageSize);
+        json.append(",\"count\":").append(histogram.getTotalCount());
+        json.append(",\"unit\":\"ns\"");
+
+        for (double percentile : PERCENTILES) {
+            json.append(",\"p").append(format(percentile)).append("\":")
+                    .append(histogram.getValueAtPercentile(percentile));
+        }
+
+        json.append(",\"max\":").append(histogram.getMaxValue());
+        json.append('}');
+
+        return json.toString();
+    }
+
+    /**
+     * Reads options in the form --name=value and fills in the defaults.
+     */
+    static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        options.put("buffers", "locked,spsc,mpsc");
+        options.put("rates", "100000,1000000");
+        options.put("capacity", "65536");
+        options.put("message-size", "64");
+        options.put("duration", "10");
+        options.put("warmup", "5");
+
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+
+            if (!arg.startsWith("--") || equals == -1) {
+                usage(System.err);
+                throw new IllegalArgumentException("Invalid option: " + arg);
+            }
+
+            String name = arg.substring(2, equals);
+
+            if (!options.containsKey(name) && !"output".equals(name)) {
+                usage(System.err);
+                throw new IllegalArgumentException("Unknown option: " + name);
+            }
+
+            options.put(name, arg.substring(equals + 1));
+        }
+
+        return options;
+    }
+
+    private static void usage(PrintStream out) {
+        out.println("Options:");
+        out.println("  --buffers=locked,spsc,mpsc  Buffers to measure.");
+        out.println("  --rates=100000,1000000      Messages per second offered by the producer.");
+        out.println("  --capacity=65536            Capacity of each buffer in bytes.");
+        out.println("  --message-size=64           Bytes per message. At least 8.");
+        out.println("  --duration=10               Seconds recorded per run.");
+        out.println("  --warmup=5                  Seconds sent before recording starts.");
+        out.println("  --output=FILE               Appends results to a file instead of printing them.");
+    }
+
+    private static String format(double percentile) {
+        if (percentile == Math.rint(percentile)) {
+            return Long.toString((long) percentile);
+        } else {
+            return String.format(Locale.ROOT, "%s", percentile);
+        }
+    }
+
+    private static void putLong(byte[] bytes, long value) {
+        for (int i = TIMESTAMP_SIZE - 1; i >= 0; i--) {
+            bytes[i] = (byte) value;
+            value >>>= 8;
+        }
+    }
+
+    private static long getLong(byte[] bytes) {
+        long value = 0;
+
+        for (int i = 0; i < TIMESTAMP_SIZE; i++) {
+            value = (value << 8) | (bytes[i] & 0xFF);
+        }
+
+        return value;
+    }
+}
@@ -0,0 +1,390 @@
+package com.daniel_araujo.byteringbuffer;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A ring buffer shared by one producer thread and one consumer thread that can wait for data or free space instead of
+ * polling. How threads wait is decided by a {@link WaitStrategy}.
+ * <p>
+ * Only one thread at a time may call the push methods and close, and only one thread at a time may call the peek, pop,
+ * await, drop and clear methods. The size methods can be called from any thread but they only return a snapshot.
+ */
+public final class BlockingByteRingBuffer {
+    /**
+     * Where the elements are stored.
+     */
+    private final SpscByteRingBuffer buffer;
+
+    private final WaitStrategy waitStrategy;
+
+    /**
+     * How many elements the consumer is waiting for. Only used by the consumer.
+     */
+    private int wanted;
+
+    /**
+     * Whether the producer said that it will not push anything else.
+     */
+    private volatile boolean closed;
+
+    /**
+     * Whether the producer can add at least one byte.
+     */
+    private final WaitStrategy.Predicate hasFreeSpace = new WaitStrategy.Predicate() {
+        @Override
+        public boolean test() {
+            return buffer.sizeFree() > 0;
+        }
+    };
+
+    /**
+     * Whether the consumer can remove as many elements as it wants or will never get them.
+     */
+    private final WaitStrategy.Predicate hasWantedElements = new WaitStrategy.Predicate() {
+        @Override
+        public boolean test() {
+            return buffer.sizeUsed() >= wanted || closed;
+        }
+    };
+
+    /**
+     * Creates a blocking ring buffer that can store up to the given number of bytes.
+     *
+     * @param capacity
+     *            How many bytes can be stored in the buffer.
+     * @param waitStrategy
+     *            How threads wait for data or free space.
+     */
+    public BlockingByteRingBuffer(int capacity, WaitStrategy waitStrategy) {
+        Objects.requireNonNull(waitStrategy);
+
+        this.buffer = new SpscByteRingBuffer(capacity);
+        this.waitStrategy = waitStrategy;
+    }
+
+    /**
+     * @return How many bytes are stored in the buffer.
+     */
+    public final int sizeUsed() {
+        return buffer.sizeUsed();
+    }
+
+    /**
+     * @return How many bytes can be stored in the buffer in total.
+     */
+    public final int sizeTotal() {
+        return buffer.sizeTotal();
+    }
+
+    /**
+     * @return How many bytes are free in the buffer.
+     */
+    public final int sizeFree() {
+        return buffer.sizeFree();
+    }
+
+    /**
+     * Adds elements to the end of the buffer without waiting. Must only be called by the producer.
+     *
+     * @param bytes
+     *            Array that contains elements to be added.
+     * @param index
+     *            Where to begin extracting elements.
+     * @param length
+     *            How many elements to extract.
+     *
+     * @return Number of bytes added. It may not insert every element when the buffer has not enough free space.
+     *
+     * @throws IllegalStateException
+     *             If the buffer was closed.
+     */
+    public final int push(byte[] bytes, int index, int length) {
+        if (closed) {
+            throw new IllegalStateException("Buffer is closed.");
+        }
+
+        int added = buffer.push(bytes, index, length);
+
+        if (added > 0) {
+            waitStrategy.signalAll();
+        }
+
+        return added;
+    }
+
+    /**
+     * Adds every element to the end of the buffer, waiting for free space as often as needed. Must only be called by
+     * the producer.
+     *
+     * @param bytes
+     *            Adds entire array to buffer.
+     *
+     * @throws IllegalStateException
+     *             If the buffer was closed.
+     * @throws InterruptedException
+     *             If the thread is interrupted while waiting. Some of the elements may have been added.
+     */
+    public final void pushFully(byte... bytes) throws InterruptedException {
+        Objects.requireNonNull(bytes);
+
+        pushFully(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Adds every element to the end of the buffer, waiting for free space as often as needed. Must only be called by
+     * the producer.
+     *
+     * @param bytes
+     *            Array that contains elements to be added.
+     * @param index
+     *            Where to begin extracting elements.
+     * @param length
+     *            How many elements to extract.
+     *
+     * @throws IllegalStateException
+     *             If the buffer was closed.
+     * @throws InterruptedException
+     *             If the thread is interrupted while waiting. Some of the elements may have been added.
+     */
+    public final void pushFully(byte[] bytes, int index, int length) throws InterruptedException {
+        pushFully(bytes, index, length, Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Adds elements to the end of the buffer, waiting for free space as often as needed until the timeout expires.
+     * Must only be called by the producer.
+     *
+     * @param bytes
+     *            Array that contains elements to be added.
+     * @param index
+     *            Where to begin extracting elements.
+     * @param length
+     *            How many elements to extract.
+     * @param timeout
+     *            How long to wait at most in total.
+     * @param unit
+     *            Unit of the timeout.
+     *
+     * @return Number of bytes added. Less than length if the timeout expired.
+     *
+     * @throws IllegalStateException
+     *             If the buffer was closed.
+     * @throws InterruptedException
+     *             If the thread is interrupted while waiting. Some of the elements may have been added.
+     */
+    public final int pushFully(byte[] bytes, int index, int length, long timeout, TimeUnit unit)
+            throws InterruptedException {
+        Objects.requireNonNull(bytes);
+        Objects.requireNonNull(unit);
+
+        long nanos = unit.toNanos(timeout);
+        long deadline = System.nanoTime() + nanos;
+        int added = push(bytes, index, length);
+
+        while (added < length) {
+            long remaining = nanos == Long.MAX_VALUE ? nanos : deadline - System.nanoTime();
+
+            if (remaining <= 0 || !waitStrategy.await(hasFreeSpace, remaining)) {
+                break;
+            }
+
+            added += push(bytes, index + added, length - added);
+        }
+
+        return added;
+    }
+
+    /**
+     * Retrieves elements from the buffer without waiting. Must only be called by the consumer.
+     *
+     * @param bytes
+     *            Where elements will be stored.
+     * @param index
+     *            Where to start placing elements in the given array.
+     * @param length
+     *            How many elements to copy.
+     *
+     * @return Number of elements that were copied.
+     */
+    public final int peek(byte[] bytes, int index, int length) {
+        return buffer.peek(bytes, index, length);
+    }
+
+    /**
+     * Retrieves elements from the buffer with indirect access without waiting. Must only be called by the consumer.
+     *
+     * @param cb
+     *            The borrow method will be called at least once. It will be called if the buffer is empty.
+     */
+    public final void peek(ByteRingBuffer.PeekCallback cb) {
+        buffer.peek(cb);
+    }
+
+    /**
+     * Moves elements from the buffer to the given array without waiting. Must only be called by the consumer.
+     *
+     * @param bytes
+     *            The destination array.
+     * @param index
+     *            Where to begin placing elements in the array.
+     * @param length
+     *            How many elements to remove.
+     *
+     * @return Number of elements removed.
+     */
+    public final int pop(byte[] bytes, int index, int length) {
+        int removed = buffer.pop(bytes, index, length);
+
+        if (removed > 0) {
+            waitStrategy.signalAll();
+        }
+
+        return removed;
+    }
+
+    /**
+     * Waits until the buffer has at least a minimum number of elements and then moves as many as possible to the given
+     * array. Must only be called by the consumer.
+     *
+     * @param bytes
+     *            The destination array.
+     * @param index
+     *            Where to begin placing elements in the array.
+     * @param minimum
+     *            How many elements must be available before any are removed.
+     * @param length
+     *            The most elements to remove.
+     *
+     * @return Number of elements removed. At least minimum, unless the buffer was closed with fewer elements left.
+     *
+     * @throws IllegalArgumentException
+     *             If minimum is larger than length or than the capacity.
+     * @throws InterruptedException
+     *             If the thread is interrupted while waiting. No elements are removed.
+     */
+    public final int popAtLeast(byte[] bytes, int index, int minimum, int length) throws InterruptedException {
+        return popAtLeast(bytes, index, minimum, length, Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Waits until the buffer has at least a minimum number of elements or the timeout expires and then moves as many
+     * as possible to the given array. Must only be called by the consumer.
+     *
+     * @param bytes
+     *            The destination array.
+     * @param index
+     *            Where to begin placing elements in the array.
+     * @param minimum
+     *            How many elements must be available before any are removed.
+     * @param length
+     *            The most elements to remove.
+     * @param timeout
+     *            How long to wait at most.
+     * @param unit
+     *            Unit of the timeout.
+     *
+     * @return Number of elements removed. Is 0 if the timeout expired, in which case nothing was removed. May be less
+     *         than minimum if the buffer was closed with fewer elements left.
+     *
+     * @throws IllegalArgumentException
+     *             If minimum is larger than length or than the capacity.
+     * @throws InterruptedException
+     *             If the thread is interrupted while waiting. No elements are removed.
+     */
+    public final int popAtLeast(byte[] bytes, int index, int minimum, int length, long timeout, TimeUnit unit)
+            throws InterruptedException {
+        Objects.requireNonNull(bytes);
+
+        if (minimum > length) {
+            throw new IllegalArgumentException("Minimum must not be larger than length.");
+        }
+
+        if (!awaitElements(minimum, timeout, unit)) {
+            return 0;
+        }
+
+        return pop(bytes, index, length);
+    }
+
+    /**
+     * Waits until the buffer has at least a minimum number of elements or is closed. Must only be called by the
+     * consumer.
+     *
+     * @param minimum
+     *            How many elements to wait for.
+     *
+     * @throws IllegalArgumentException
+     *             If minimum is larger than the capacity.
+     * @throws InterruptedException
+     *             If the thread is interrupted while waiting.
+     */
+    public final void awaitElements(int minimum) throws InterruptedException {
+        awaitElements(minimum, Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Waits until the buffer has at least a minimum number of elements, is closed or the timeout expires. Must only be
+     * called by the consumer.
+     *
+     * @param minimum
+     *            How many elements to wait for.
+     * @param timeout
+     *            How long to wait at most.
+     * @param unit
+     *            Unit of the timeout.
+     *
+     * @return Whether the buffer has enough elements or was closed. Is false if the timeout expired.
+     *
+     * @throws IllegalArgumentException
+     *             If minimum is larger than the capacity.
+     * @throws InterruptedException
+     *             If the thread is interrupted while waiting.
+     */
+    public final boolean awaitElements(int minimum, long timeout, TimeUnit unit) throws InterruptedException {
+        Objects.requireNonNull(unit);
+
+        if (minimum > sizeTotal()) {
+            throw new IllegalArgumentException("Minimum must not be larger than capacity.");
+        }
+
+        wanted = minimum;
+
+        return waitStrategy.await(hasWantedElements, unit.toNanos(timeout));
+    }
+
+    /**
+     * Tells the consumer that nothing else will be pushed. A consumer that waits for elements wakes up and gets the
+     * ones that are left. Must only be called by the producer.
+     */
+    public final void close() {
+        closed = true;
+        waitStrategy.signalAll();
+    }
+
+    /**
+     * @return Whether the producer closed the buffer. Elements pushed before that may still be in the buffer.
+     */
+    public final boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Removes elements from the buffer without waiting. Must only be called by the consumer.
+     *
+     * @param elements
+     *            Number of elements to remove.
+     */
+    public final void drop(int elements) {
+        buffer.drop(elements);
+        waitStrategy.signalAll();
+    }
+
+    /**
+     * Removes every element that the producer has published so far. Must only be called by the consumer.
+     */
+    public final void clear() {
+        buffer.clear();
+        waitStrategy.signalAll();
+    }
+}
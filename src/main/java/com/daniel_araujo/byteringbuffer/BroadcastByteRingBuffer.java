@@ -0,0 +1,553 @@
+package com.daniel_araujo.byteringbuffer;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+/**
+ * A ring buffer backed by a byte array that one writer thread fills and that any number of readers consume
+ * independently. Every reader sees every byte that was pushed after it was created, and each one keeps its own position
+ * in the shared array, so bytes are stored once no matter how many readers there are.
+ * <p>
+ * Only one thread at a time may call the push methods. Each reader may be used by a different thread, but only one
+ * thread at a time may use the same reader.
+ */
+public final class BroadcastByteRingBuffer {
+    private static final AtomicLongFieldUpdater<BroadcastByteRingBuffer> TAIL = AtomicLongFieldUpdater
+            .newUpdater(BroadcastByteRingBuffer.class, "tail");
+
+    private static final AtomicLongFieldUpdater<Reader> HEAD = AtomicLongFieldUpdater.newUpdater(Reader.class, "head");
+
+    /**
+     * What the writer does when a reader has not read the bytes it is about to overwrite.
+     */
+    public enum Policy {
+        /**
+         * The writer only uses space that every reader is done with. Push methods add fewer bytes than requested when
+         * the slowest reader falls behind.
+         */
+        WAIT_FOR_SLOWEST_READER,
+
+        /**
+         * The writer always adds every byte. Readers that fall behind skip the bytes that were overwritten and can find
+         * out how many they lost.
+         */
+        OVERWRITE
+    }
+
+    /**
+     * Elements are stored here as bytes.
+     */
+    private final byte[] buffer;
+
+    /**
+     * When the capacity is a power of two, counters are turned into positions with this mask. Otherwise it is -1.
+     */
+    private final int mask;
+
+    private final Policy policy;
+
+    /**
+     * How many bytes have been written since the buffer was created. Only the writer writes to it.
+     */
+    private volatile long tail;
+
+    /**
+     * What tail will be once the push in progress is done. Readers check it after copying to find out whether the
+     * writer got to the bytes while they were being copied. Only used when overwriting.
+     */
+    private volatile long claim;
+
+    /**
+     * Smallest read position of all readers the last time the writer looked.
+     */
+    private long headCache;
+
+    /**
+     * Every reader that has not been closed. Replaced whenever a reader is added or removed.
+     */
+    private volatile Reader[] readers = new Reader[0];
+
+    /**
+     * Creates a broadcast ring buffer that can store up to the given number of bytes.
+     *
+     * @param capacity
+     *            How many bytes can be stored in the buffer.
+     * @param policy
+     *            What the writer does when a reader falls behind.
+     *
+     * @throws IllegalArgumentException
+     *             If the capacity is negative.
+     */
+    public BroadcastByteRingBuffer(int capacity, Policy policy) {
+        Objects.requireNonNull(policy);
+
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity must not be negative.");
+        }
+
+        this.buffer = new byte[capacity];
+        this.mask = capacity > 0 && (capacity & (capacity - 1)) == 0 ? capacity - 1 : -1;
+        this.policy = policy;
+    }
+
+    /**
+     * @return How many bytes can be stored in the buffer in total.
+     */
+    public final int sizeTotal() {
+        return buffer.length;
+    }
+
+    /**
+     * @return What the writer does when a reader falls behind.
+     */
+    public final Policy policy() {
+        return policy;
+    }
+
+    /**
+     * Creates a reader that will see every byte pushed from now on.
+     *
+     * @return A new reader. Close it when it is no longer needed so that it does not hold the writer back.
+     */
+    public final Reader newReader() {
+        synchronized (this) {
+            // Starts where the writer was before the reader is visible to it. The writer can't overwrite anything past
+            // that once it sees the reader, and the fence in slowestHead makes sure that a writer that does not see it
+            // yet only overwrites bytes before the tail that is read below.
+            Reader reader = new Reader(tail);
+            Reader[] readers = Arrays.copyOf(this.readers, this.readers.length + 1);
+            readers[readers.length - 1] = reader;
+            this.readers = readers;
+            reader.head = tail;
+            return reader;
+        }
+    }
+
+    /**
+     * Adds elements to the end of the buffer. Must only be called by the writer.
+     *
+     * @param bytes
+     *            Adds entire array to buffer.
+     *
+     * @return Number of bytes added. When waiting for the slowest reader it may not insert every element.
+     */
+    public final int push(byte... bytes) {
+        Objects.requireNonNull(bytes);
+
+        return push(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Adds elements to the end of the buffer. Must only be called by the writer.
+     *
+     * @param bytes
+     *            Array that contains elements to be added.
+     * @param index
+     *            Where to begin extracting elements.
+     *
+     * @return Number of bytes added. When waiting for the slowest reader it may not insert every element.
+     */
+    public final int push(byte[] bytes, int index) {
+        Objects.requireNonNull(bytes);
+
+        return push(bytes, index, bytes.length - index);
+    }
+
+    /**
+     * Adds elements to the end of the buffer. Must only be called by the writer.
+     *
+     * @param bytes
+     *            Array that contains elements to be added.
+     * @param index
+     *            Where to begin extracting elements.
+     * @param length
+     *            How many elements to extract.
+     *
+     * @return Number of bytes added. When waiting for the slowest reader it may not insert every element.
+     */
+    public final int push(byte[] bytes, int index, int length) {
+        Objects.requireNonNull(bytes);
+
+        if (buffer.length == 0) {
+            return 0;
+        }
+
+        long tail = this.tail;
+
+        if (policy == Policy.OVERWRITE) {
+            // Bytes that would be overwritten by this same push are not written at all.
+            int skip = Math.max(length - buffer.length, 0);
+
+            // Tells readers which bytes are about to be overwritten before touching them.
+            claim = tail + length;
+            // The claim is volatile but that alone does not keep the plain writes below from moving above it.
+            Fences.storeStore();
+            write(tail + skip, bytes, index + skip, length - skip);
+            TAIL.lazySet(this, tail + length);
+
+            return length;
+        }
+
+        long free = buffer.length - (tail - headCache);
+
+        if (free < length) {
+            // Readers may have made room since we last looked.
+            headCache = slowestHead(tail);
+            free = buffer.length - (tail - headCache);
+        }
+
+        int copying = (int) Math.min(length, free);
+
+        if (copying == 0) {
+            return 0;
+        }
+
+        write(tail, bytes, index, copying);
+        TAIL.lazySet(this, tail + copying);
+
+        return copying;
+    }
+
+    /**
+     * Copies bytes into the array, wrapping around the end.
+     *
+     * @param counter
+     *            Where the first byte goes.
+     * @param bytes
+     *            Source.
+     * @param index
+     *            Where to begin extracting elements.
+     * @param length
+     *            How many elements to copy. Must not exceed the capacity.
+     */
+    private final void write(long counter, byte[] bytes, int index, int length) {
+        int offset = offsetOf(counter);
+        int firstHalfSize = Math.min(length, buffer.length - offset);
+
+        System.arraycopy(bytes, index, buffer, offset, firstHalfSize);
+        System.arraycopy(bytes, index + firstHalfSize, buffer, 0, length - firstHalfSize);
+    }
+
+    /**
+     * @param tail
+     *            Current value of tail.
+     *
+     * @return The read position of the reader that is furthest behind or tail if there are no readers.
+     */
+    private final long slowestHead(long tail) {
+        // Orders the last store to tail before the load of the readers. See newReader.
+        Fences.full();
+
+        long slowest = tail;
+
+        for (Reader reader : readers) {
+            slowest = Math.min(slowest, reader.head);
+        }
+
+        return slowest;
+    }
+
+    /**
+     * @param counter
+     *            Value of a read or write position.
+     *
+     * @return Position in the array.
+     */
+    private final int offsetOf(long counter) {
+        if (mask >= 0) {
+            return (int) counter & mask;
+        } else {
+            return (int) (counter % buffer.length);
+        }
+    }
+
+    /**
+     * Reads the bytes of a broadcast ring buffer at its own pace.
+     */
+    public final class Reader implements AutoCloseable {
+        /**
+         * How many bytes this reader has read or skipped since the buffer was created. Only the reader writes to it.
+         */
+        volatile long head;
+
+        /**
+         * How many bytes this reader missed because they were overwritten.
+         */
+        private long lost;
+
+        /**
+         * Where the bytes returned by the last call to peek began.
+         */
+        private long peeked;
+
+        private Reader(long head) {
+            this.head = head;
+        }
+
+        /**
+         * @return How many bytes this reader has not read yet.
+         */
+        public final int sizeUsed() {
+            long tail = BroadcastByteRingBuffer.this.tail;
+
+            return (int) (tail - catchUp(tail));
+        }
+
+        /**
+         * @return How many bytes this reader missed because the writer overwrote them before they were read. Is always
+         *         0 when the writer waits for the slowest reader.
+         */
+        public final long lost() {
+            return lost;
+        }
+
+        /**
+         * Retrieves elements from the buffer.
+         *
+         * @param length
+         *            How many elements to retrieve.
+         *
+         * @return Array of elements retrieved. Length may be less than requested if the reader doesn't have enough
+         *         elements.
+         */
+        public final byte[] peek(int length) {
+            byte[] bytes = new byte[Math.min(length, sizeUsed())];
+            int read = peek(bytes, 0, bytes.length);
+
+            return read == bytes.length ? bytes : Arrays.copyOf(bytes, read);
+        }
+
+        /**
+         * Retrieves elements from the buffer and stores them in another array.
+         *
+         * @param bytes
+         *            Where elements will be stored. The size of the array indicates how many elements will be
+         *            retrieved.
+         *
+         * @return Number of elements that were copied.
+         */
+        public final int peek(byte[] bytes) {
+            Objects.requireNonNull(bytes);
+
+            return peek(bytes, 0, bytes.length);
+        }
+
+        /**
+         * Retrieves elements from the buffer and stores them in another array.
+         *
+         * @param bytes
+         *            Where elements will be stored.
+         * @param index
+         *            Where to start placing elements in the given array.
+         * @param length
+         *            How many elements to copy.
+         *
+         * @return Number of elements that were copied.
+         */
+        public final int peek(byte[] bytes, int index, int length) {
+            Objects.requireNonNull(bytes);
+
+            while (true) {
+                long tail = BroadcastByteRingBuffer.this.tail;
+                long head = catchUp(tail);
+                int copying = (int) Math.min(length, tail - head);
+
+                if (copying == 0) {
+                    return 0;
+                }
+
+                int offset = offsetOf(head);
+                int firstHalfSize = Math.min(copying, buffer.length - offset);
+
+                System.arraycopy(buffer, offset, bytes, index, firstHalfSize);
+                System.arraycopy(buffer, 0, bytes, index + firstHalfSize, copying - firstHalfSize);
+
+                if (intact(head)) {
+                    peeked = head;
+                    return copying;
+                }
+
+                // The writer got to the bytes while they were being copied. Tries again from the oldest byte.
+            }
+        }
+
+        /**
+         * Retrieves elements from the buffer with indirect access. The chunks are read-only because other readers
+         * share them.
+         *
+         * @param cb
+         *            The borrow method will be called at least once. It will be called if there is nothing to read.
+         *
+         * @return False if the writer overwrote some of the bytes while the callback had them, in which case what the
+         *         callback saw must be thrown away. Is always true when the writer waits for the slowest reader.
+         */
+        public final boolean peek(ByteRingBuffer.PeekCallback cb) {
+            Objects.requireNonNull(cb);
+
+            long tail = BroadcastByteRingBuffer.this.tail;
+            long head = catchUp(tail);
+            int size = (int) (tail - head);
+
+            if (size == 0) {
+                cb.borrow(ByteBuffer.wrap(buffer, 0, 0).asReadOnlyBuffer());
+                return true;
+            }
+
+            int offset = offsetOf(head);
+            int firstHalfSize = Math.min(size, buffer.length - offset);
+
+            cb.borrow(ByteBuffer.wrap(buffer, offset, firstHalfSize).asReadOnlyBuffer());
+            if (firstHalfSize != size) {
+                cb.borrow(ByteBuffer.wrap(buffer, 0, size - firstHalfSize).asReadOnlyBuffer());
+            }
+
+            return intact(head);
+        }
+
+        /**
+         * Removes elements from this reader and returns them.
+         *
+         * @param length
+         *            How many elements to remove.
+         *
+         * @return Array of removed elements. May not remove the same number of elements as requested if the reader
+         *         did not have that many to begin with.
+         */
+        public final byte[] pop(int length) {
+            byte[] bytes = peek(length);
+            consume(bytes.length);
+            return bytes;
+        }
+
+        /**
+         * Moves elements from this reader to the given array.
+         *
+         * @param bytes
+         *            The destination array. Its size determines how many elements to remove.
+         *
+         * @return Number of elements removed.
+         */
+        public final int pop(byte[] bytes) {
+            return pop(bytes, 0, bytes.length);
+        }
+
+        /**
+         * Moves elements from this reader to the given array.
+         *
+         * @param bytes
+         *            The destination array.
+         * @param index
+         *            Where to begin placing elements in the array.
+         * @param length
+         *            How many elements to remove.
+         *
+         * @return Number of elements removed.
+         */
+        public final int pop(byte[] bytes, int index, int length) {
+            int read = peek(bytes, index, length);
+            consume(read);
+            return read;
+        }
+
+        /**
+         * Skips elements. Other readers are not affected.
+         *
+         * @param elements
+         *            Number of elements to remove.
+         */
+        public final void drop(int elements) {
+            long tail = BroadcastByteRingBuffer.this.tail;
+            long head = catchUp(tail);
+            long toDrop = Math.min(elements, tail - head);
+
+            if (toDrop > 0) {
+                // Hands the space back to the writer.
+                HEAD.lazySet(this, head + toDrop);
+            }
+        }
+
+        /**
+         * Skips every element that has been pushed so far.
+         */
+        public final void clear() {
+            long tail = BroadcastByteRingBuffer.this.tail;
+            catchUp(tail);
+            HEAD.lazySet(this, tail);
+        }
+
+        /**
+         * Stops this reader from holding the writer back. The reader must not be used afterwards.
+         */
+        @Override
+        public final void close() {
+            synchronized (BroadcastByteRingBuffer.this) {
+                Reader[] readers = BroadcastByteRingBuffer.this.readers;
+
+                for (int i = 0; i < readers.length; i++) {
+                    if (readers[i] == this) {
+                        Reader[] remaining = new Reader[readers.length - 1];
+                        System.arraycopy(readers, 0, remaining, 0, i);
+                        System.arraycopy(readers, i + 1, remaining, i, remaining.length - i);
+                        BroadcastByteRingBuffer.this.readers = remaining;
+                        break;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Moves the read position past bytes that were just peeked.
+         *
+         * @param read
+         *            How many bytes the last call to peek returned.
+         */
+        private final void consume(int read) {
+            if (read > 0) {
+                HEAD.lazySet(this, Math.max(head, peeked + read));
+            }
+        }
+
+        /**
+         * Moves the read position past the bytes that the writer has overwritten or is about to overwrite.
+         *
+         * @param tail
+         *            Value of tail read by the caller.
+         *
+         * @return The read position.
+         */
+        private final long catchUp(long tail) {
+            long head = this.head;
+
+            if (policy == Policy.OVERWRITE) {
+                long oldest = Math.min(claim - buffer.length, tail);
+
+                if (head < oldest) {
+                    lost += oldest - head;
+                    head = oldest;
+                    HEAD.lazySet(this, head);
+                }
+            }
+
+            return head;
+        }
+
+        /**
+         * @param head
+         *            Where the bytes that were just read begin.
+         *
+         * @return Whether the writer has left them alone.
+         */
+        private final boolean intact(long head) {
+            if (policy != Policy.OVERWRITE) {
+                return true;
+            }
+
+            // The bytes were read with plain loads, which could otherwise move below the load of the claim.
+            Fences.loadLoad();
+
+            return head >= claim - buffer.length;
+        }
+    }
+}
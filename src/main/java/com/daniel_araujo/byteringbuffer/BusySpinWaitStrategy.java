@@ -0,0 +1,29 @@
+package com.daniel_araujo.byteringbuffer;
+
+/**
+ * Checks the predicate in a tight loop. Has the lowest latency but keeps a core busy for as long as the thread waits.
+ * Only makes sense when every waiting thread has a core to itself.
+ */
+public final class BusySpinWaitStrategy implements WaitStrategy {
+    @Override
+    public final boolean await(Predicate predicate, long nanos) throws InterruptedException {
+        long deadline = System.nanoTime() + nanos;
+
+        while (!predicate.test()) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+
+            if (nanos != Long.MAX_VALUE && deadline - System.nanoTime() <= 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    @Override
+    public final void signalAll() {
+        // Waiting threads never stop looking.
+    }
+}
@@ -1,17 +1,40 @@
 package com.daniel_araujo.byteringbuffer;
 
+import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.channels.ScatteringByteChannel;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * A ring buffer backed by a byte array. Very memory efficient.
  */
 public final class ByteRingBuffer {
     /**
-     * Elements are stored here as bytes.
+     * Elements are stored here as bytes. It may be longer than the capacity, in which case the extra bytes mirror the
+     * beginning of the buffer.
      */
     private final byte[] buffer;
 
+    /**
+     * How many bytes can be stored in the buffer.
+     */
+    private final int capacity;
+
+    /**
+     * How many bytes at the beginning of the buffer are mirrored past its end.
+     */
+    private final int window;
+
+    /**
+     * When the capacity is a power of two, positions are wrapped around with this mask. Otherwise it is -1.
+     */
+    private final int mask;
+
     /**
      * The index of the first element in buffer.
      */
@@ -22,6 +45,38 @@ public final class ByteRingBuffer {
      */
     private int size;
 
+    /**
+     * How many bytes have been removed or overwritten since the buffer was created. This is the position of the first
+     * element in the stream of every byte that was ever pushed.
+     */
+    private long readPosition;
+
+    /**
+     * Read position saved by mark. Is -1 when there is no mark.
+     */
+    private long mark = -1;
+
+    /**
+     * Bytes popped since the mark was set. They are only counted by the metrics once the read is committed, because a
+     * reset brings them back.
+     */
+    private int markedPopped;
+
+    /**
+     * Bytes dropped since the mark was set. Counted like {@link #markedPopped}.
+     */
+    private int markedDropped;
+
+    /**
+     * Counters updated by every operation. Is null until metrics are enabled.
+     */
+    private ByteRingBufferMetrics metrics;
+
+    /**
+     * Futures waiting for elements or free space. Is null until one of the await methods is called.
+     */
+    private ByteRingBufferWaiters waiters;
+
     /**
      * Creates a ring buffer that can store up to the given number of bytes.
      *
@@ -29,7 +84,57 @@ public final class ByteRingBuffer {
      *            How many bytes can be stored in the buffer.
      */
     public ByteRingBuffer(int capacity) {
-        buffer = new byte[capacity];
+        this(capacity, 0);
+    }
+
+    /**
+     * Creates a ring buffer that can store up to the given number of bytes and that can hand out a contiguous view of
+     * up to window bytes with {@link #peekContiguous(int)}, even when the elements wrap around the end of the buffer.
+     * To do this it allocates window extra bytes that mirror the beginning of the buffer and keeps them up to date.
+     *
+     * @param capacity
+     *            How many bytes can be stored in the buffer.
+     * @param window
+     *            The largest number of bytes that must always be accessible contiguously.
+     *
+     * @throws IllegalArgumentException
+     *             If the capacity is negative or if the window is negative or larger than the capacity.
+     */
+    public ByteRingBuffer(int capacity, int window) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity must not be negative.");
+        }
+
+        if (window < 0 || window > capacity) {
+            throw new IllegalArgumentException("Window must be between 0 and the capacity.");
+        }
+
+        this.buffer = new byte[capacity + window];
+        this.capacity = capacity;
+        this.window = window;
+        this.mask = capacity > 0 && (capacity & (capacity - 1)) == 0 ? capacity - 1 : -1;
+    }
+
+    /**
+     * Creates a ring buffer whose capacity is the given number of bytes rounded up to the next power of two. Positions
+     * in such a buffer are wrapped around with a bit mask, which is the cheapest way to do it.
+     *
+     * @param capacity
+     *            The minimum number of bytes that can be stored in the buffer.
+     *
+     * @return A new ring buffer.
+     *
+     * @throws IllegalArgumentException
+     *             If the capacity rounded up does not fit in an int.
+     */
+    public static ByteRingBuffer withPowerOfTwoCapacity(int capacity) {
+        if (capacity > 1 << 30) {
+            throw new IllegalArgumentException("Capacity is too large to be rounded up to a power of two.");
+        }
+
+        int rounded = capacity <= 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+
+        return new ByteRingBuffer(rounded);
     }
 
     /**
@@ -43,14 +148,280 @@ public final class ByteRingBuffer {
      * @return How many bytes can be stored in the buffer in total.
      */
     public final int sizeTotal() {
-        return buffer.length;
+        return capacity;
     }
 
     /**
-     * @return How many bytes are free in the buffer.
+     * @return How many bytes are free in the buffer. Removed elements held by a mark are not free.
      */
     public final int sizeFree() {
-        return sizeTotal() - sizeUsed();
+        return sizeTotal() - sizeUsed() - held();
+    }
+
+    /**
+     * Remembers the current read position so that elements removed from now on can be brought back with
+     * {@link #reset()}. Until {@link #commitRead()} is called, removed elements keep taking up space and overrunning
+     * pushes can't overwrite anything, so they only add what fits in the free space. Calling it again moves the mark
+     * and commits the elements removed before it.
+     */
+    public final void mark() {
+        countMarked();
+        mark = readPosition;
+    }
+
+    /**
+     * Brings back every element removed since {@link #mark()} was called and moves the read position back to the mark.
+     * The mark is kept, so it can be reset again. Metrics do not count the elements that were brought back.
+     *
+     * @throws IllegalStateException
+     *             If there is no mark.
+     */
+    public final void reset() {
+        if (mark < 0) {
+            throw new IllegalStateException("There is no mark to reset to.");
+        }
+
+        int held = held();
+
+        start = wrap(start - held + capacity);
+        size += held;
+        readPosition = mark;
+        markedPopped = 0;
+        markedDropped = 0;
+        changed();
+    }
+
+    /**
+     * Forgets the mark. Elements removed since {@link #mark()} was called are gone for good and their space can be
+     * reused.
+     */
+    public final void commitRead() {
+        countMarked();
+        mark = -1;
+        changed();
+    }
+
+    /**
+     * @return Whether a mark is held.
+     */
+    public final boolean isMarked() {
+        return mark >= 0;
+    }
+
+    /**
+     * @return Position of the first element in the stream of every byte that was ever pushed. Keeps increasing when the
+     *         buffer is cleared. Only {@link #reset()} moves it back, to the position that was saved by the mark.
+     */
+    public final long readPosition() {
+        return readPosition;
+    }
+
+    /**
+     * @return Position that the next byte pushed will have in the stream of every byte that was ever pushed. Only
+     *         increases.
+     */
+    public final long writePosition() {
+        return readPosition + size;
+    }
+
+    /**
+     * Retrieves elements by their position in the stream of every byte that was ever pushed. Lets a reader resume from
+     * a position it remembered without removing anything.
+     *
+     * @param position
+     *            Position of the first element to retrieve.
+     * @param bytes
+     *            Where elements will be stored.
+     * @param index
+     *            Where to start placing elements in the given array.
+     * @param length
+     *            How many elements to copy.
+     *
+     * @return Number of elements that were copied. May be less than requested if the buffer ends before.
+     *
+     * @throws EvictedPositionException
+     *             If the element at the given position has already been removed or overwritten.
+     * @throws IndexOutOfBoundsException
+     *             If the position has not been written yet.
+     */
+    public final int peekAt(long position, byte[] bytes, int index, int length) {
+        Objects.requireNonNull(bytes);
+
+        return peek(skipTo(position), bytes, index, length);
+    }
+
+    /**
+     * Retrieves a single element by its position in the stream of every byte that was ever pushed.
+     *
+     * @param position
+     *            Position of the element.
+     *
+     * @return The element.
+     *
+     * @throws EvictedPositionException
+     *             If the element has already been removed or overwritten.
+     * @throws IndexOutOfBoundsException
+     *             If the position has not been written yet.
+     */
+    public final byte getByte(long position) {
+        int skip = skipTo(position);
+
+        if (skip == size) {
+            throw new IndexOutOfBoundsException("Position " + position + " has not been written yet.");
+        }
+
+        return buffer[wrap(start + skip)];
+    }
+
+    /**
+     * Retrieves a big-endian short by the position of its first byte in the stream of every byte that was ever pushed.
+     *
+     * @param position
+     *            Position of the first byte.
+     *
+     * @return The short.
+     *
+     * @throws EvictedPositionException
+     *             If the first byte has already been removed or overwritten.
+     * @throws IndexOutOfBoundsException
+     *             If the second byte has not been written yet.
+     */
+    public final short getShort(long position) {
+        return getShort(position, ByteOrder.BIG_ENDIAN);
+    }
+
+    /**
+     * Retrieves a short by the position of its first byte in the stream of every byte that was ever pushed.
+     *
+     * @param position
+     *            Position of the first byte.
+     * @param order
+     *            Byte order of the short.
+     *
+     * @return The short.
+     *
+     * @throws EvictedPositionException
+     *             If the first byte has already been removed or overwritten.
+     * @throws IndexOutOfBoundsException
+     *             If the second byte has not been written yet.
+     */
+    public final short getShort(long position, ByteOrder order) {
+        Objects.requireNonNull(order);
+
+        int skip = skipTo(position);
+
+        if (size - skip < 2) {
+            throw new IndexOutOfBoundsException("Position " + (position + 1) + " has not been written yet.");
+        }
+
+        return (short) getBits(wrap(start + skip), 2, order == ByteOrder.BIG_ENDIAN);
+    }
+
+    /**
+     * Starts counting how many bytes go in and out of the buffer, how many are lost and how full the buffer gets. Until
+     * this is called, operations only pay for a null check.
+     *
+     * @return The metrics of this buffer. Calling this method again returns the same object.
+     */
+    public final ByteRingBufferMetrics enableMetrics() {
+        if (metrics == null) {
+            metrics = new ByteRingBufferMetrics(size);
+        }
+
+        return metrics;
+    }
+
+    /**
+     * @return The metrics of this buffer or null if they have not been enabled.
+     */
+    public final ByteRingBufferMetrics metrics() {
+        return metrics;
+    }
+
+    /**
+     * Same as {@link #awaitReadable(int, Executor)} but completes the future on {@link ForkJoinPool#commonPool()}.
+     *
+     * @param elements
+     *            How many elements the buffer must hold.
+     *
+     * @return Future that completes once the buffer holds at least that many elements.
+     */
+    public final CompletableFuture<Void> awaitReadable(int elements) {
+        return awaitReadable(elements, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Returns a future that completes once the buffer holds at least the given number of elements. No thread waits in
+     * the meantime: the operation that adds the elements hands the completion to the executor, so dependent actions
+     * never run inside a push. The buffer is not thread safe, so this must be called by the thread that uses the
+     * buffer. Cancelling the future stops waiting.
+     *
+     * @param elements
+     *            How many elements the buffer must hold.
+     * @param executor
+     *            Where the future is completed. If it rejects the task, the future completes exceptionally.
+     *
+     * @return Future that completes once the buffer holds at least that many elements. If it already does, the
+     *         future still completes on the executor.
+     *
+     * @throws IllegalArgumentException
+     *             If the number of elements is negative or larger than the capacity.
+     */
+    public final CompletableFuture<Void> awaitReadable(int elements, Executor executor) {
+        Objects.requireNonNull(executor);
+
+        if (elements < 0 || elements > capacity) {
+            throw new IllegalArgumentException("Can't wait for " + elements + " elements in a buffer that holds "
+                    + capacity + ".");
+        }
+
+        CompletableFuture<Void> future = waiters().awaitReadable(elements, executor);
+        changed();
+
+        return future;
+    }
+
+    /**
+     * Same as {@link #awaitWritable(int, Executor)} but completes the future on {@link ForkJoinPool#commonPool()}.
+     *
+     * @param bytes
+     *            How many bytes must be free.
+     *
+     * @return Future that completes once at least that many bytes are free.
+     */
+    public final CompletableFuture<Void> awaitWritable(int bytes) {
+        return awaitWritable(bytes, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Returns a future that completes once at least the given number of bytes are free. No thread waits in the
+     * meantime: the operation that frees the space hands the completion to the executor, so dependent actions never
+     * run inside a pop or a drop. The buffer is not thread safe, so this must be called by the thread that uses the
+     * buffer. Cancelling the future stops waiting.
+     *
+     * @param bytes
+     *            How many bytes must be free.
+     * @param executor
+     *            Where the future is completed. If it rejects the task, the future completes exceptionally.
+     *
+     * @return Future that completes once at least that many bytes are free. If they already are, the future still
+     *         completes on the executor.
+     *
+     * @throws IllegalArgumentException
+     *             If the number of bytes is negative or larger than the capacity.
+     */
+    public final CompletableFuture<Void> awaitWritable(int bytes, Executor executor) {
+        Objects.requireNonNull(executor);
+
+        if (bytes < 0 || bytes > capacity) {
+            throw new IllegalArgumentException("Can't wait for " + bytes + " free bytes in a buffer that holds "
+                    + capacity + ".");
+        }
+
+        CompletableFuture<Void> future = waiters().awaitWritable(bytes, executor);
+        changed();
+
+        return future;
     }
 
     /**
@@ -113,15 +484,43 @@ public final class ByteRingBuffer {
             int copying = Math.min(bytesRemaining, available);
 
             System.arraycopy(bytes, bytesOffset, buffer, offset, copying);
+            mirror(offset, copying);
 
             advance(copying);
             bytesRemaining -= copying;
             bytesOffset += copying;
         } while (bytesRemaining > 0);
 
+        rejected(length, bytesRemaining);
+
         return length - bytesRemaining;
     }
 
+    /**
+     * Adds elements to the end of the buffer by letting the callback write them directly into the free space.
+     *
+     * @param cb
+     *            The borrow method will be called at least once. It will be called if the buffer is full. It is only
+     *            called a second time when the free space wraps around the end of the buffer and the first chunk was
+     *            filled completely.
+     *
+     * @return Number of bytes added.
+     */
+    public final int push(PushCallback cb) {
+        Objects.requireNonNull(cb);
+
+        int free = sizeFree();
+        int offset = nextOffset();
+        int firstHalfSize = Math.min(free, capacity - offset);
+
+        int added = commit(cb, offset, firstHalfSize);
+        if (added == firstHalfSize && firstHalfSize != free) {
+            added += commit(cb, 0, free - firstHalfSize);
+        }
+
+        return added;
+    }
+
     /**
      * This version of the push method will overrun. This means that if the buffer is full then the oldest elements will
      * be overwritten by the newest ones.
@@ -164,22 +563,28 @@ public final class ByteRingBuffer {
     public final void overrunPush(byte[] bytes, int index, int length) {
         Objects.requireNonNull(bytes);
 
-        int bytesRemaining = length;
-        int bytesOffset = index;
-        if (!overflows(length)) {
-            System.arraycopy(bytes, index, buffer, nextOffset(), length);
-            advance(length);
-        } else {
-            do {
-                int offset = nextOffset();
-                int available = buffer.length - offset;
-                int copying = Math.min(bytesRemaining, available);
-                System.arraycopy(bytes, bytesOffset, buffer, offset, copying);
-                advance(copying);
-                bytesRemaining -= copying;
-                bytesOffset += copying;
-            } while (bytesRemaining > 0);
+        if (capacity == 0) {
+            // Just can't do anything.
+            return;
+        }
+
+        if (mark >= 0) {
+            // The marked elements must not be overwritten.
+            push(bytes, index, length);
+            return;
         }
+
+        // Bytes that the same push would overwrite are never copied. What is left fits and wraps around at most once,
+        // so the buffer is updated once and reports a single overrun.
+        int skip = overrunSkip(length);
+        int writing = length - skip;
+        int first = overrunOffset(skip);
+        int firstHalfSize = Math.min(writing, capacity - first);
+
+        System.arraycopy(bytes, index + skip, buffer, first, firstHalfSize);
+        System.arraycopy(bytes, index + skip + firstHalfSize, buffer, 0, writing - firstHalfSize);
+
+        overrunWritten(first, writing, skip);
     }
 
     /**
@@ -194,6 +599,10 @@ public final class ByteRingBuffer {
         int sizeUsed = sizeUsed();
 
         if (length > sizeUsed) {
+            if (sizeUsed == 0) {
+                empty(length);
+            }
+
             length = sizeUsed;
         }
 
@@ -234,12 +643,13 @@ public final class ByteRingBuffer {
         Objects.requireNonNull(bytes);
 
         if (size == 0) {
+            empty(length);
             return 0;
         } else {
             int toRead = Math.min(length, size);
             int offset = nextOffset();
             int firstHalfStart = start;
-            int firstHalfSize = buffer.length - start;
+            int firstHalfSize = capacity - start;
             if (firstHalfSize > size) {
                 firstHalfSize = size;
             }
@@ -255,7 +665,7 @@ public final class ByteRingBuffer {
                 return firstHalfSize;
             } else {
                 int secondHalfStart = offset <= start ? 0 : size;
-                int secondHalfSize = buffer.length - firstHalfSize;
+                int secondHalfSize = capacity - firstHalfSize;
                 if (secondHalfSize >= toRead) {
                     secondHalfSize = toRead;
                 }
@@ -263,11 +673,50 @@ public final class ByteRingBuffer {
                 System.arraycopy(buffer, secondHalfStart, bytes, index + firstHalfSize, secondHalfSize);
                 int var10000 = toIndex + secondHalfSize;
                 toRead -= secondHalfSize;
-                return length - toRead;
+                return firstHalfSize + secondHalfSize;
             }
         }
     }
 
+    /**
+     * Retrieves elements from the middle of the buffer and stores them in another array. The elements that are skipped
+     * are not copied.
+     *
+     * @param skip
+     *            How many elements to leave out from the beginning of the buffer.
+     * @param bytes
+     *            Where elements will be stored.
+     * @param index
+     *            Where to start placing elements in the given array.
+     * @param length
+     *            How many elements to copy.
+     *
+     * @return Number of elements that were copied. Is 0 if the buffer does not have more elements than it skips.
+     *
+     * @throws IllegalArgumentException
+     *             If skip is negative.
+     */
+    public final int peek(int skip, byte[] bytes, int index, int length) {
+        Objects.requireNonNull(bytes);
+
+        if (skip < 0) {
+            throw new IllegalArgumentException("Skip must not be negative.");
+        }
+
+        if (skip >= size) {
+            return 0;
+        }
+
+        int copying = Math.min(length, size - skip);
+        int offset = wrap(start + skip);
+        int firstHalfSize = Math.min(copying, capacity - offset);
+
+        System.arraycopy(buffer, offset, bytes, index, firstHalfSize);
+        System.arraycopy(buffer, 0, bytes, index + firstHalfSize, copying - firstHalfSize);
+
+        return copying;
+    }
+
     /**
      * Retrieves elements from the buffer and places them in a ByteBuffer.
      *
@@ -304,8 +753,12 @@ public final class ByteRingBuffer {
      *            The borrow method will be called at least once. It will be called if the buffer is empty.
      */
     public final void peek(PeekCallback cb) {
+        if (size == 0) {
+            empty(capacity);
+        }
+
         int firstHalfStart = start;
-        int firstHalfSize = buffer.length - start;
+        int firstHalfSize = capacity - start;
         if (firstHalfSize > size) {
             firstHalfSize = size;
         }
@@ -320,6 +773,55 @@ public final class ByteRingBuffer {
         }
     }
 
+    /**
+     * Retrieves elements from the middle of the buffer with indirect access. Only the requested elements are handed to
+     * the callback.
+     *
+     * @param skip
+     *            How many elements to leave out from the beginning of the buffer.
+     * @param length
+     *            How many elements to retrieve.
+     * @param cb
+     *            The borrow method will be called at least once. It will be called with an empty chunk if there is
+     *            nothing to retrieve. It is called a second time when the elements wrap around the end of the buffer.
+     *
+     * @throws IllegalArgumentException
+     *             If skip or length is negative.
+     */
+    public final void peek(int skip, int length, PeekCallback cb) {
+        Objects.requireNonNull(cb);
+
+        if (skip < 0 || length < 0) {
+            throw new IllegalArgumentException("Skip and length must not be negative.");
+        }
+
+        int retrieving = skip >= size ? 0 : Math.min(length, size - skip);
+        int offset = wrap(start + Math.min(skip, size));
+        int firstHalfSize = Math.min(retrieving, capacity - offset);
+
+        cb.borrow(ByteBuffer.wrap(buffer, offset, firstHalfSize));
+        if (firstHalfSize != retrieving) {
+            cb.borrow(ByteBuffer.wrap(buffer, 0, retrieving - firstHalfSize));
+        }
+    }
+
+    /**
+     * Retrieves elements from the buffer without copying them. The elements are returned in a single chunk even when
+     * they wrap around the end of the buffer as long as the requested length does not exceed the window given to the
+     * constructor.
+     *
+     * @param length
+     *            How many elements to retrieve.
+     *
+     * @return A chunk that shares memory with the buffer. Only valid until the buffer is modified. It contains fewer
+     *         elements than requested if the buffer does not have that many or if they are not contiguous.
+     */
+    public final ByteBuffer peekContiguous(int length) {
+        int contiguous = Math.min(Math.min(length, size), buffer.length - start);
+
+        return ByteBuffer.wrap(buffer, start, contiguous).slice();
+    }
+
     /**
      * Removes elements from the buffer and returns them.
      *
@@ -333,6 +835,10 @@ public final class ByteRingBuffer {
         int sizeUsed = sizeUsed();
 
         if (length > sizeUsed) {
+            if (sizeUsed == 0) {
+                empty(length);
+            }
+
             length = sizeUsed;
         }
 
@@ -385,10 +891,39 @@ public final class ByteRingBuffer {
      */
     public final int pop(byte[] bytes, int index, int length) {
         int read = peek(bytes, index, length);
-        drop(read);
+        popped(read);
         return read;
     }
 
+    /**
+     * Removes elements from the buffer with indirect access. Only the elements that the callback reports as consumed
+     * are removed.
+     *
+     * @param cb
+     *            The borrow method will be called at least once. It will be called if the buffer is empty. It is only
+     *            called a second time when the elements wrap around the end of the buffer and the first chunk was
+     *            consumed completely.
+     *
+     * @return Number of elements removed.
+     *
+     * @throws IllegalStateException
+     *             If the callback reports a negative number or more elements than the chunk had. Elements consumed in
+     *             an earlier chunk are still removed.
+     */
+    public final int pop(ConsumeCallback cb) {
+        Objects.requireNonNull(cb);
+
+        int total = size;
+        int firstHalfSize = Math.min(total, capacity - start);
+
+        int consumed = consume(cb, firstHalfSize);
+        if (consumed == firstHalfSize && firstHalfSize != total) {
+            consumed += consume(cb, total - firstHalfSize);
+        }
+
+        return consumed;
+    }
+
     /**
      * Removes elements from the buffer.
      *
@@ -396,127 +931,1900 @@ public final class ByteRingBuffer {
      *            Number of elements to remove.
      */
     public final void drop(int elements) {
+        int dropped = remove(elements);
+
+        if (mark >= 0) {
+            markedDropped += dropped;
+            dropped = 0;
+        }
+
+        if (metrics != null) {
+            metrics.dropped(dropped, size);
+        }
+    }
+
+    /**
+     * Writes elements to a channel and removes the ones that were written. Both parts of the buffer are handed to the
+     * channel in a single call.
+     *
+     * @param channel
+     *            Destination. May be in non-blocking mode.
+     *
+     * @return Number of elements written and removed. May be 0 if the buffer is empty or if the channel could not
+     *         accept any bytes.
+     *
+     * @throws IOException
+     *             If the channel fails. No elements are removed.
+     */
+    public final int writeTo(GatheringByteChannel channel) throws IOException {
+        Objects.requireNonNull(channel);
+
+        if (size == 0) {
+            empty(capacity);
+            return 0;
+        }
+
+        int firstHalfSize = Math.min(size, capacity - start);
+        ByteBuffer first = ByteBuffer.wrap(buffer, start, firstHalfSize);
+
+        long written;
+        if (firstHalfSize == size) {
+            written = channel.write(first);
+        } else {
+            ByteBuffer second = ByteBuffer.wrap(buffer, 0, size - firstHalfSize);
+            written = channel.write(new ByteBuffer[] { first, second });
+        }
+
+        popped((int) written);
+
+        return (int) written;
+    }
+
+    /**
+     * Reads bytes from a channel into the free space of the buffer. Both free parts of the buffer are handed to the
+     * channel in a single call.
+     *
+     * @param channel
+     *            Source. May be in non-blocking mode.
+     *
+     * @return Number of elements added. May be 0 if the buffer is full or if the channel had no bytes available. Is -1
+     *         if the channel has reached end-of-stream.
+     *
+     * @throws IOException
+     *             If the channel fails.
+     */
+    public final int readFrom(ScatteringByteChannel channel) throws IOException {
+        Objects.requireNonNull(channel);
+
+        int free = sizeFree();
+
+        if (free == 0) {
+            return 0;
+        }
+
+        int offset = nextOffset();
+        int firstHalfSize = Math.min(free, capacity - offset);
+        ByteBuffer first = ByteBuffer.wrap(buffer, offset, firstHalfSize);
+
+        long read;
+        if (firstHalfSize == free) {
+            read = channel.read(first);
+        } else {
+            ByteBuffer second = ByteBuffer.wrap(buffer, 0, free - firstHalfSize);
+            read = channel.read(new ByteBuffer[] { first, second });
+        }
+
+        if (read <= 0) {
+            return (int) read;
+        }
+
+        int firstHalfRead = (int) Math.min(read, firstHalfSize);
+        mirror(offset, firstHalfRead);
+        mirror(0, (int) read - firstHalfRead);
+        advance((int) read);
+
+        return (int) read;
+    }
+
+    /**
+     * Moves elements from the beginning of this buffer to the end of another one. Bytes are copied directly between
+     * the two arrays.
+     *
+     * @param destination
+     *            Buffer that receives the elements.
+     * @param maxBytes
+     *            The most elements to move.
+     *
+     * @return Number of elements moved. It is less than maxBytes if this buffer does not have that many elements or
+     *         if the destination does not have enough free space.
+     *
+     * @throws IllegalArgumentException
+     *             If the destination is this buffer.
+     */
+    public final int transferTo(ByteRingBuffer destination, int maxBytes) {
+        Objects.requireNonNull(destination);
+
+        if (destination == this) {
+            throw new IllegalArgumentException("Can't transfer to the same buffer.");
+        }
+
+        int moving = Math.min(Math.min(maxBytes, size), destination.sizeFree());
+        int moved = 0;
+
+        // Each copy stops where either side wraps around, so there are at most three of them.
+        while (moved < moving) {
+            int from = wrap(start + moved);
+            int to = destination.nextOffset();
+            int copying = Math.min(moving - moved, Math.min(capacity - from, destination.capacity - to));
+
+            System.arraycopy(buffer, from, destination.buffer, to, copying);
+            destination.mirror(to, copying);
+            destination.advance(copying);
+
+            moved += copying;
+        }
+
+        popped(moved);
+
+        return moved;
+    }
+
+    /**
+     * Moves elements from the beginning of this buffer to the end of another one. If the destination is full then its
+     * oldest elements will be overwritten. Bytes are copied directly between the two arrays.
+     *
+     * @param destination
+     *            Buffer that receives the elements.
+     * @param maxBytes
+     *            The most elements to move.
+     *
+     * @return Number of elements removed from this buffer. It is less than maxBytes if this buffer does not have that
+     *         many elements.
+     *
+     * @throws IllegalArgumentException
+     *             If the destination is this buffer.
+     */
+    public final int overrunTransferTo(ByteRingBuffer destination, int maxBytes) {
+        Objects.requireNonNull(destination);
+
+        if (destination == this) {
+            throw new IllegalArgumentException("Can't transfer to the same buffer.");
+        }
+
+        if (destination.mark >= 0) {
+            // The marked elements of the destination must not be overwritten.
+            return transferTo(destination, maxBytes);
+        }
+
+        int moving = Math.min(maxBytes, size);
+
+        if (destination.capacity == 0) {
+            // Everything is lost.
+            popped(moving);
+            return moving;
+        }
+
+        // Bytes that the destination would overwrite during this same transfer are not copied at all.
+        int skip = destination.overrunSkip(moving);
+        int first = destination.overrunOffset(skip);
+        int writing = moving - skip;
+        int written = 0;
+
+        while (written < writing) {
+            int from = wrap(start + skip + written);
+            int to = destination.wrap(first + written);
+            int copying = Math.min(writing - written, Math.min(capacity - from, destination.capacity - to));
+
+            System.arraycopy(buffer, from, destination.buffer, to, copying);
+
+            written += copying;
+        }
+
+        destination.overrunWritten(first, writing, skip);
+        popped(moving);
+
+        return moving;
+    }
+
+    /**
+     * Removes every element from the buffer. The buffer will go back to its initial state, except for its read and
+     * write positions which keep counting.
+     */
+    public final void clear() {
+        countMarked();
+
+        if (metrics != null) {
+            metrics.dropped(size, 0);
+        }
+
+        readPosition += size;
+        mark = -1;
+        start = 0;
+        size = 0;
+        changed();
+    }
+
+    /**
+     * Creates a view of this byte buffer that allows you to access its elements as big-endian shorts.
+     */
+    public final ShortView shortView() {
+        return new ShortView();
+    }
+
+    /**
+     * Creates a view of this byte buffer that allows you to access its elements as shorts.
+     *
+     * @param order
+     *            Byte order of each short.
+     */
+    public final ShortView shortView(ByteOrder order) {
+        return new ShortView(order);
+    }
+
+    /**
+     * Creates a view of this byte buffer that allows you to access its elements as big-endian ints.
+     */
+    public final IntView intView() {
+        return new IntView(ByteOrder.BIG_ENDIAN);
+    }
+
+    /**
+     * Creates a view of this byte buffer that allows you to access its elements as ints.
+     *
+     * @param order
+     *            Byte order of each int.
+     */
+    public final IntView intView(ByteOrder order) {
+        return new IntView(order);
+    }
+
+    /**
+     * Creates a view of this byte buffer that allows you to access its elements as big-endian longs.
+     */
+    public final LongView longView() {
+        return new LongView(ByteOrder.BIG_ENDIAN);
+    }
+
+    /**
+     * Creates a view of this byte buffer that allows you to access its elements as longs.
+     *
+     * @param order
+     *            Byte order of each long.
+     */
+    public final LongView longView(ByteOrder order) {
+        return new LongView(order);
+    }
+
+    /**
+     * Creates a view of this byte buffer that allows you to access its elements as big-endian floats.
+     */
+    public final FloatView floatView() {
+        return new FloatView(ByteOrder.BIG_ENDIAN);
+    }
+
+    /**
+     * Creates a view of this byte buffer that allows you to access its elements as floats.
+     *
+     * @param order
+     *            Byte order of each float.
+     */
+    public final FloatView floatView(ByteOrder order) {
+        return new FloatView(order);
+    }
+
+    /**
+     * Creates a view of this byte buffer that allows you to access its elements as big-endian doubles.
+     */
+    public final DoubleView doubleView() {
+        return new DoubleView(ByteOrder.BIG_ENDIAN);
+    }
+
+    /**
+     * Creates a view of this byte buffer that allows you to access its elements as doubles.
+     *
+     * @param order
+     *            Byte order of each double.
+     */
+    public final DoubleView doubleView(ByteOrder order) {
+        return new DoubleView(order);
+    }
+
+    /**
+     * @param position
+     *            Position in the stream of every byte that was ever pushed.
+     *
+     * @return How many elements come before it in the buffer.
+     *
+     * @throws EvictedPositionException
+     *             If the position is before the first element.
+     * @throws IndexOutOfBoundsException
+     *             If the position is after the end of the buffer.
+     */
+    private final int skipTo(long position) {
+        if (position < readPosition) {
+            throw new EvictedPositionException(position, readPosition);
+        }
+
+        if (position > readPosition + size) {
+            throw new IndexOutOfBoundsException("Position " + position + " has not been written yet.");
+        }
+
+        return (int) (position - readPosition);
+    }
+
+    /**
+     * @return How many removed elements are kept because of a mark.
+     */
+    private final int held() {
+        return mark >= 0 ? (int) (readPosition - mark) : 0;
+    }
+
+    /**
+     * Removes elements from the beginning of the buffer.
+     *
+     * @param elements
+     *            Number of elements to remove.
+     *
+     * @return Number of elements removed.
+     */
+    private final int remove(int elements) {
         int toDrop = elements;
         if (elements > size) {
             toDrop = size;
         }
 
-        int newSize = size - toDrop;
-        int diff = size - newSize;
-        start = (start + diff) % buffer.length;
-        size = newSize;
-    }
-
-    /**
-     * Removes every element from the buffer. The buffer will go back to its initial state.
-     */
-    public final void clear() {
-        start = 0;
-        size = 0;
-    }
+        int newSize = size - toDrop;
+        int diff = size - newSize;
+        start = wrap(start + diff);
+        size = newSize;
+        readPosition += diff;
+        changed();
+
+        return toDrop;
+    }
+
+    /**
+     * Removes elements that were read.
+     *
+     * @param elements
+     *            Number of elements to remove.
+     */
+    private final void popped(int elements) {
+        int popped = remove(elements);
+
+        if (mark >= 0) {
+            markedPopped += popped;
+            popped = 0;
+        }
+
+        if (metrics != null) {
+            metrics.popped(popped, size);
+        }
+    }
+
+    /**
+     * Counts the elements removed since the mark was set, now that a reset can no longer bring them back.
+     */
+    private final void countMarked() {
+        if (metrics != null && (markedPopped > 0 || markedDropped > 0)) {
+            metrics.popped(markedPopped, size);
+            metrics.dropped(markedDropped, size);
+        }
+
+        markedPopped = 0;
+        markedDropped = 0;
+    }
+
+    /**
+     * Records bytes that a push could not add.
+     *
+     * @param requested
+     *            How many bytes the push wanted to add.
+     * @param rejected
+     *            How many of them were not added.
+     */
+    private final void rejected(int requested, int rejected) {
+        if (rejected > 0) {
+            ByteRingBufferEvents.full(this, requested, rejected);
+        }
+
+        if (metrics != null) {
+            metrics.rejected(rejected, size);
+        }
+    }
+
+    /**
+     * Records that a consumer found the buffer empty.
+     *
+     * @param requested
+     *            Up to how many bytes the consumer wanted to read.
+     */
+    private final void empty(int requested) {
+        if (requested > 0) {
+            ByteRingBufferEvents.empty(this, requested);
+        }
+    }
+
+    /**
+     * Lends the elements at the beginning of the buffer to a callback and removes the ones it consumed.
+     *
+     * @param cb
+     *            Callback.
+     * @param length
+     *            How many elements to lend. Must not go past the end of the array.
+     *
+     * @return Number of elements removed.
+     */
+    private final int consume(ConsumeCallback cb, int length) {
+        int consumed = cb.borrow(ByteBuffer.wrap(buffer, start, length));
+
+        if (consumed < 0 || consumed > length) {
+            throw new IllegalStateException("Callback consumed " + consumed + " bytes out of " + length + ".");
+        }
+
+        popped(consumed);
+
+        return consumed;
+    }
+
+    /**
+     * Lends a region of free space to a callback and adds the bytes it wrote.
+     *
+     * @param cb
+     *            Callback.
+     * @param offset
+     *            Position of the region in the buffer.
+     * @param length
+     *            Size of the region.
+     *
+     * @return Number of bytes added.
+     */
+    private final int commit(PushCallback cb, int offset, int length) {
+        ByteBuffer chunk = ByteBuffer.wrap(buffer, offset, length).slice();
+
+        cb.borrow(chunk);
+
+        int written = chunk.position();
+        mirror(offset, written);
+        advance(written);
+
+        return written;
+    }
+
+    /**
+     * Copies bytes that were just written to the beginning of the buffer to the region past its end.
+     *
+     * @param offset
+     *            Where the bytes were written.
+     * @param length
+     *            How many bytes were written.
+     */
+    private final void mirror(int offset, int length) {
+        if (offset < window) {
+            System.arraycopy(buffer, offset, buffer, capacity + offset, Math.min(length, window - offset));
+        }
+    }
+
+    /**
+     * Updates the mirror and the size after bytes were placed directly in the buffer.
+     *
+     * @param offset
+     *            Where the bytes begin.
+     * @param length
+     *            How many bytes were placed. Must not exceed the free space.
+     */
+    private final void written(int offset, int length) {
+        int firstHalfSize = Math.min(length, capacity - offset);
+
+        mirror(offset, firstHalfSize);
+        mirror(0, length - firstHalfSize);
+        advance(length);
+    }
+
+    /**
+     * @param length
+     *            How many bytes an overrunning push is going to add.
+     *
+     * @return How many of those bytes would be overwritten by the same push and therefore don't need to be written.
+     */
+    private final int overrunSkip(long length) {
+        return (int) Math.max(length - capacity, 0);
+    }
+
+    /**
+     * @param skip
+     *            Value returned by overrunSkip.
+     *
+     * @return Where an overrunning push must place the first byte that it does not skip.
+     */
+    private final int overrunOffset(int skip) {
+        return (int) (((long) nextOffset() + skip) % capacity);
+    }
+
+    /**
+     * Updates the mirror, the size and the start position after an overrunning push placed bytes directly in the
+     * buffer.
+     *
+     * @param offset
+     *            Value returned by overrunOffset.
+     * @param length
+     *            How many bytes were placed.
+     * @param skip
+     *            Value returned by overrunSkip.
+     */
+    private final void overrunWritten(int offset, int length, int skip) {
+        int firstHalfSize = Math.min(length, capacity - offset);
+
+        mirror(offset, firstHalfSize);
+        mirror(0, length - firstHalfSize);
+
+        if (skip > 0) {
+            // Everything that was in the buffer got overwritten.
+            ByteRingBufferEvents.overrun(this, length + skip, size + skip);
+
+            if (metrics != null) {
+                metrics.pushed(length + skip, size + skip, capacity);
+            }
+
+            readPosition += size + length + skip - capacity;
+            start = offset;
+            size = capacity;
+            changed();
+        } else {
+            advance(length);
+        }
+    }
+
+    /**
+     * Places some of the bytes of a number in the buffer, wrapping around when the end is reached. Does not update the
+     * mirror or the size.
+     *
+     * @param offset
+     *            Where to place the first byte.
+     * @param bits
+     *            The number.
+     * @param width
+     *            How many bytes the number takes.
+     * @param from
+     *            How many of its bytes to leave out from the beginning.
+     * @param bigEndian
+     *            Whether the most significant byte comes first.
+     *
+     * @return Position after the last byte.
+     */
+    private final int putBits(int offset, long bits, int width, int from, boolean bigEndian) {
+        for (int i = from; i < width; i++) {
+            int shift = bigEndian ? (width - 1 - i) * 8 : i * 8;
+            buffer[offset] = (byte) (bits >>> shift);
+            offset = offset + 1 == capacity ? 0 : offset + 1;
+        }
+
+        return offset;
+    }
+
+    /**
+     * Reads a number from the buffer, wrapping around when the end is reached.
+     *
+     * @param offset
+     *            Where the first byte is.
+     * @param width
+     *            How many bytes the number takes.
+     * @param bigEndian
+     *            Whether the most significant byte comes first.
+     *
+     * @return The number. Bits above the width are zero.
+     */
+    private final long getBits(int offset, int width, boolean bigEndian) {
+        long bits = 0;
+
+        for (int i = 0; i < width; i++) {
+            int shift = bigEndian ? (width - 1 - i) * 8 : i * 8;
+            bits |= (buffer[offset] & 0xFFL) << shift;
+            offset = offset + 1 == capacity ? 0 : offset + 1;
+        }
+
+        return bits;
+    }
+
+    /**
+     * Moves end position and updates size and start position. Wraps around when neeeded.
+     *
+     * @param elements
+     *            How many elements to move.
+     */
+    private final void advance(int elements) {
+        int sumSize = size + elements;
+        int overflow = 0;
+        if (sumSize > capacity) {
+            size = capacity;
+            overflow = sumSize - capacity;
+        } else {
+            size = sumSize;
+        }
+
+        start = wrap(start + overflow);
+        readPosition += overflow;
+
+        if (overflow > 0) {
+            ByteRingBufferEvents.overrun(this, elements, overflow);
+        }
+
+        if (metrics != null) {
+            metrics.pushed(elements, overflow, size);
+        }
+
+        changed();
+    }
+
+    /**
+     * @return Futures waiting for elements or free space. Created on first use.
+     */
+    private final ByteRingBufferWaiters waiters() {
+        if (waiters == null) {
+            waiters = new ByteRingBufferWaiters();
+        }
+
+        return waiters;
+    }
+
+    /**
+     * Forgets the futures handed out by the await methods that were cancelled, so that they and their executors are no
+     * longer reachable from the buffer. Cancelled futures are otherwise only removed later.
+     */
+    final void pruneWaiters() {
+        if (waiters != null) {
+            waiters.prune();
+        }
+    }
+
+    /**
+     * Completes the futures that were waiting for the current size. Until an await method is called, operations only
+     * pay for a null check.
+     */
+    private final void changed() {
+        if (waiters != null) {
+            waiters.changed(size, sizeFree());
+        }
+    }
+
+    /**
+     * @return The position from where to start placing new elements into the buffer.
+     */
+    private final int nextOffset() {
+        return wrap(start + size);
+    }
+
+    /**
+     * Turns a position that may have gone past the end of the buffer into a position in the buffer.
+     *
+     * @param position
+     *            Must be less than twice the capacity.
+     *
+     * @return Position in the buffer.
+     */
+    private final int wrap(int position) {
+        if (mask >= 0) {
+            return position & mask;
+        } else if (position >= capacity) {
+            return position - capacity;
+        } else {
+            return position;
+        }
+    }
+
+    /**
+     * @param offset
+     *            Position in the buffer.
+     *
+     * @return How many bytes are free after the given position up to end the of the array or the start position,
+     *         whichever comes first. Elements held by a mark count as being in the buffer.
+     */
+    private final int availableAfter(int offset) {
+        int held = held();
+        int start = wrap(this.start - held + capacity);
+
+        if (start >= offset) {
+            if (size + held > 0) {
+                // The beginning of the ring buffer is in front of us.
+                return start - offset;
+            } else {
+                return capacity - offset;
+            }
+        } else {
+            // The beginning of the ring buffer is behind us. We have everything in front of us
+            // available.
+            return capacity - offset;
+        }
+    }
+
+    /**
+     * Implements the views for elements of a fixed width. A view only converts between its primitive type and the bits
+     * that are stored, so the bookkeeping, the events and the metrics are the same for every type.
+     *
+     * @param <A>
+     *            Array type of the elements.
+     */
+    private abstract class Elements<A> {
+        /**
+         * How many bytes each element takes.
+         */
+        private final int width;
+
+        /**
+         * Whether the most significant byte of each element comes first.
+         */
+        private final boolean bigEndian;
+
+        Elements(int width, ByteOrder order) {
+            Objects.requireNonNull(order);
+
+            this.width = width;
+            this.bigEndian = order == ByteOrder.BIG_ENDIAN;
+        }
+
+        /**
+         * @return Bits of the element at the given index of the array.
+         */
+        abstract long encode(A elements, int index);
+
+        /**
+         * Stores the element made of the given bits at the given index of the array.
+         */
+        abstract void decode(A elements, int index, long bits);
+
+        /**
+         * @return A new array of the given length.
+         */
+        abstract A allocate(int length);
+
+        final ByteOrder order() {
+            return bigEndian ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN;
+        }
+
+        final int push(A elements, int index, int length) {
+            Objects.requireNonNull(elements);
+
+            int available = sizeFree();
+
+            if (length > available) {
+                rejected(length * width, (length - available) * width);
+                length = available;
+            }
+
+            int first = nextOffset();
+            int offset = first;
+            for (int i = 0; i < length; i++) {
+                offset = putBits(offset, encode(elements, index + i), width, 0, bigEndian);
+            }
+
+            written(first, length * width);
+
+            return length;
+        }
+
+        final void overrunPush(A elements, int index, int length) {
+            Objects.requireNonNull(elements);
+
+            if (sizeTotal() < 1) {
+                // Just can't do anything.
+                return;
+            }
+
+            if (mark >= 0) {
+                // The marked elements must not be overwritten.
+                push(elements, index, length);
+                return;
+            }
+
+            int skip = overrunSkip((long) length * width);
+            int first = overrunOffset(skip);
+            int offset = first;
+            for (int i = skip / width; i < length; i++) {
+                offset = putBits(offset, encode(elements, index + i), width, i == skip / width ? skip % width : 0,
+                        bigEndian);
+            }
+
+            overrunWritten(first, length * width - skip, skip);
+        }
+
+        final A peek(int length) {
+            length = available(length);
+
+            A elements = allocate(length);
+
+            peek(elements, 0, length);
+
+            return elements;
+        }
+
+        final int peek(A elements, int index, int length) {
+            Objects.requireNonNull(elements);
+
+            length = available(length);
+
+            int offset = start;
+            for (int i = 0; i < length; i++) {
+                decode(elements, index + i, getBits(offset, width, bigEndian));
+                offset = wrap(offset + width);
+            }
+
+            return length;
+        }
+
+        final A pop(int length) {
+            length = available(length);
+
+            A elements = allocate(length);
+
+            pop(elements, 0, length);
+
+            return elements;
+        }
+
+        final int pop(A elements, int index, int length) {
+            int read = peek(elements, index, length);
+
+            popped(read * width);
+
+            return read;
+        }
+
+        final void drop(int elements) {
+            int available = sizeUsed();
+
+            if (elements > available) {
+                elements = available;
+            }
+
+            ByteRingBuffer.this.drop(elements * width);
+        }
+
+        final int sizeUsed() {
+            return ByteRingBuffer.this.sizeUsed() / width;
+        }
+
+        final int sizeTotal() {
+            return ByteRingBuffer.this.sizeTotal() / width;
+        }
+
+        final int sizeFree() {
+            return ByteRingBuffer.this.sizeFree() / width;
+        }
+
+        /**
+         * Lowers a number of elements to how many are stored. Reports an empty buffer if none are.
+         */
+        private final int available(int length) {
+            int available = sizeUsed();
+
+            if (length > available) {
+                if (available == 0) {
+                    empty(length * width);
+                }
+
+                length = available;
+            }
+
+            return length;
+        }
+    }
+
+    public class ShortView {
+        private final Elements<short[]> elements;
+
+        /**
+         * Creates a view that stores shorts in big-endian byte order.
+         */
+        public ShortView() {
+            this(ByteOrder.BIG_ENDIAN);
+        }
+
+        /**
+         * Creates a view that stores shorts in the given byte order.
+         *
+         * @param order
+         *            Byte order of each short.
+         */
+        private ShortView(ByteOrder order) {
+            elements = new Elements<short[]>(2, order) {
+                @Override
+                long encode(short[] shorts, int index) {
+                    return shorts[index];
+                }
+
+                @Override
+                void decode(short[] shorts, int index, long bits) {
+                    shorts[index] = (short) bits;
+                }
+
+                @Override
+                short[] allocate(int length) {
+                    return new short[length];
+                }
+            };
+        }
+
+        /**
+         * @return Byte order of each short.
+         */
+        public final ByteOrder order() {
+            return elements.order();
+        }
+
+        /**
+         * Adds every element of the array to the end of the buffer.
+         *
+         * @return How many elements were added.
+         */
+        public final int push(short... shorts) {
+            Objects.requireNonNull(shorts);
+
+            return elements.push(shorts, 0, shorts.length);
+        }
+
+        /**
+         * Adds the elements of the array from the given index to the end of the buffer.
+         *
+         * @return How many elements were added.
+         */
+        public final int push(short[] shorts, int index) {
+            Objects.requireNonNull(shorts);
+
+            return elements.push(shorts, index, shorts.length - index);
+        }
+
+        /**
+         * Adds elements to the end of the buffer.
+         *
+         * @param shorts
+         *            Array that contains elements to be added.
+         * @param index
+         *            Where to start copying elements from the array.
+         * @param length
+         *            How many elements to copy.
+         *
+         * @return How many elements were added.
+         */
+        public final int push(short[] shorts, int index, int length) {
+            return elements.push(shorts, index, length);
+        }
+
+        /**
+         * Adds every element of the array to the end of the buffer, overwriting the oldest ones if it is full.
+         */
+        public final void overrunPush(short... shorts) {
+            Objects.requireNonNull(shorts);
+
+            elements.overrunPush(shorts, 0, shorts.length);
+        }
+
+        /**
+         * Adds the elements of the array from the given index to the end of the buffer, overwriting the oldest ones if
+         * it is full.
+         */
+        public final void overrunPush(short[] shorts, int index) {
+            Objects.requireNonNull(shorts);
+
+            elements.overrunPush(shorts, index, shorts.length - index);
+        }
+
+        /**
+         * This version of the push method will overrun. This means that if the buffer is full then the oldest elements
+         * will be overwritten by the newest ones. Nothing is overwritten while a mark is set.
+         *
+         * @param shorts
+         *            Array that contains elements to be added.
+         * @param index
+         *            Where to begin extracting elements.
+         * @param length
+         *            How many elements to extract.
+         */
+        public final void overrunPush(short[] shorts, int index, int length) {
+            elements.overrunPush(shorts, index, length);
+        }
+
+        /**
+         * Retrieves elements from the buffer.
+         *
+         * @param length
+         *            How many elements to retrieve.
+         *
+         * @return Array of elements retrieved. Length may be less than requested if buffer doesn't have enough
+         *         elements.
+         */
+        public final short[] peek(int length) {
+            return elements.peek(length);
+        }
+
+        /**
+         * Retrieves elements from the buffer until the array is full.
+         *
+         * @return How many elements were retrieved.
+         */
+        public final int peek(short[] shorts) {
+            Objects.requireNonNull(shorts);
+
+            return elements.peek(shorts, 0, shorts.length);
+        }
+
+        /**
+         * Retrieves elements from the buffer until the array is full, placing them from the given index.
+         *
+         * @return How many elements were retrieved.
+         */
+        public final int peek(short[] shorts, int index) {
+            Objects.requireNonNull(shorts);
+
+            return elements.peek(shorts, index, shorts.length - index);
+        }
+
+        /**
+         * Retrieves elements from the buffer and places them in a short array.
+         *
+         * @param shorts
+         *            Array of shorts.
+         * @param index
+         *            Index where elements will be placed.
+         * @param length
+         *            How many elements to retrieve.
+         *
+         * @return How many elements were retrieved.
+         */
+        public final int peek(short[] shorts, int index, int length) {
+            return elements.peek(shorts, index, length);
+        }
+
+        /**
+         * Removes elements from the buffer and returns them.
+         *
+         * @param length
+         *            How many elements to remove.
+         *
+         * @return Array of removed elements. May not remove the same number of elements as requested if the buffer did
+         *         not have that many to begin with.
+         */
+        public final short[] pop(int length) {
+            return elements.pop(length);
+        }
+
+        /**
+         * Removes elements from the buffer until the array is full.
+         *
+         * @return Number of removed elements.
+         */
+        public final int pop(short[] shorts) {
+            return elements.pop(shorts, 0, shorts.length);
+        }
+
+        /**
+         * Removes elements from the buffer until the array is full, placing them from the given index.
+         *
+         * @return Number of removed elements.
+         */
+        public final int pop(short[] shorts, int index) {
+            return elements.pop(shorts, index, shorts.length - index);
+        }
+
+        /**
+         * Removes elements from the buffer.
+         *
+         * @param shorts
+         *            Array that will contain removed elements.
+         * @param index
+         *            Index where elements will be placed.
+         * @param length
+         *            How many elements to remove.
+         *
+         * @return Number of removed elements.
+         */
+        public final int pop(short[] shorts, int index, int length) {
+            return elements.pop(shorts, index, length);
+        }
+
+        /**
+         * Removes elements from the buffer.
+         *
+         * @param elements
+         *            Number of elements to remove.
+         */
+        public final void drop(int elements) {
+            this.elements.drop(elements);
+        }
+
+        /**
+         * @return How many complete shorts are stored in the buffer.
+         */
+        public final int sizeUsed() {
+            return elements.sizeUsed();
+        }
+
+        /**
+         * @return How many complete shorts can be stored in the buffer in total.
+         */
+        public final int sizeTotal() {
+            return elements.sizeTotal();
+        }
+
+        /**
+         * @return How many complete shorts are free in the buffer.
+         */
+        public final int sizeFree() {
+            return elements.sizeFree();
+        }
+    }
+
+    public class IntView {
+        private final Elements<int[]> elements;
+
+        /**
+         * Creates a view that stores ints in the given byte order.
+         *
+         * @param order
+         *            Byte order of each int.
+         */
+        private IntView(ByteOrder order) {
+            elements = new Elements<int[]>(4, order) {
+                @Override
+                long encode(int[] ints, int index) {
+                    return ints[index];
+                }
+
+                @Override
+                void decode(int[] ints, int index, long bits) {
+                    ints[index] = (int) bits;
+                }
+
+                @Override
+                int[] allocate(int length) {
+                    return new int[length];
+                }
+            };
+        }
+
+        /**
+         * @return Byte order of each int.
+         */
+        public final ByteOrder order() {
+            return elements.order();
+        }
+
+        /**
+         * Adds every element of the array to the end of the buffer.
+         *
+         * @return How many elements were added.
+         */
+        public final int push(int... ints) {
+            Objects.requireNonNull(ints);
+
+            return elements.push(ints, 0, ints.length);
+        }
+
+        /**
+         * Adds the elements of the array from the given index to the end of the buffer.
+         *
+         * @return How many elements were added.
+         */
+        public final int push(int[] ints, int index) {
+            Objects.requireNonNull(ints);
+
+            return elements.push(ints, index, ints.length - index);
+        }
+
+        /**
+         * Adds elements to the end of the buffer.
+         *
+         * @param ints
+         *            Array that contains elements to be added.
+         * @param index
+         *            Where to start copying elements from the array.
+         * @param length
+         *            How many elements to copy.
+         *
+         * @return How many elements were added.
+         */
+        public final int push(int[] ints, int index, int length) {
+            return elements.push(ints, index, length);
+        }
+
+        /**
+         * Adds every element of the array to the end of the buffer, overwriting the oldest ones if it is full.
+         */
+        public final void overrunPush(int... ints) {
+            Objects.requireNonNull(ints);
+
+            elements.overrunPush(ints, 0, ints.length);
+        }
+
+        /**
+         * Adds the elements of the array from the given index to the end of the buffer, overwriting the oldest ones if
+         * it is full.
+         */
+        public final void overrunPush(int[] ints, int index) {
+            Objects.requireNonNull(ints);
+
+            elements.overrunPush(ints, index, ints.length - index);
+        }
+
+        /**
+         * This version of the push method will overrun. This means that if the buffer is full then the oldest elements
+         * will be overwritten by the newest ones. Nothing is overwritten while a mark is set.
+         *
+         * @param ints
+         *            Array that contains elements to be added.
+         * @param index
+         *            Where to begin extracting elements.
+         * @param length
+         *            How many elements to extract.
+         */
+        public final void overrunPush(int[] ints, int index, int length) {
+            elements.overrunPush(ints, index, length);
+        }
+
+        /**
+         * Retrieves elements from the buffer.
+         *
+         * @param length
+         *            How many elements to retrieve.
+         *
+         * @return Array of elements retrieved. Length may be less than requested if buffer doesn't have enough
+         *         elements.
+         */
+        public final int[] peek(int length) {
+            return elements.peek(length);
+        }
+
+        /**
+         * Retrieves elements from the buffer until the array is full.
+         *
+         * @return How many elements were retrieved.
+         */
+        public final int peek(int[] ints) {
+            Objects.requireNonNull(ints);
+
+            return elements.peek(ints, 0, ints.length);
+        }
+
+        /**
+         * Retrieves elements from the buffer until the array is full, placing them from the given index.
+         *
+         * @return How many elements were retrieved.
+         */
+        public final int peek(int[] ints, int index) {
+            Objects.requireNonNull(ints);
+
+            return elements.peek(ints, index, ints.length - index);
+        }
+
+        /**
+         * Retrieves elements from the buffer and places them in an int array.
+         *
+         * @param ints
+         *            Array of ints.
+         * @param index
+         *            Index where elements will be placed.
+         * @param length
+         *            How many elements to retrieve.
+         *
+         * @return How many elements were retrieved.
+         */
+        public final int peek(int[] ints, int index, int length) {
+            return elements.peek(ints, index, length);
+        }
+
+        /**
+         * Removes elements from the buffer and returns them.
+         *
+         * @param length
+         *            How many elements to remove.
+         *
+         * @return Array of removed elements. May not remove the same number of elements as requested if the buffer did
+         *         not have that many to begin with.
+         */
+        public final int[] pop(int length) {
+            return elements.pop(length);
+        }
+
+        /**
+         * Removes elements from the buffer until the array is full.
+         *
+         * @return Number of removed elements.
+         */
+        public final int pop(int[] ints) {
+            return elements.pop(ints, 0, ints.length);
+        }
+
+        /**
+         * Removes elements from the buffer until the array is full, placing them from the given index.
+         *
+         * @return Number of removed elements.
+         */
+        public final int pop(int[] ints, int index) {
+            return elements.pop(ints, index, ints.length - index);
+        }
+
+        /**
+         * Removes elements from the buffer.
+         *
+         * @param ints
+         *            Array that will contain removed elements.
+         * @param index
+         *            Index where elements will be placed.
+         * @param length
+         *            How many elements to remove.
+         *
+         * @return Number of removed elements.
+         */
+        public final int pop(int[] ints, int index, int length) {
+            return elements.pop(ints, index, length);
+        }
+
+        /**
+         * Removes elements from the buffer.
+         *
+         * @param elements
+         *            Number of elements to remove.
+         */
+        public final void drop(int elements) {
+            this.elements.drop(elements);
+        }
+
+        /**
+         * @return How many complete ints are stored in the buffer.
+         */
+        public final int sizeUsed() {
+            return elements.sizeUsed();
+        }
+
+        /**
+         * @return How many complete ints can be stored in the buffer in total.
+         */
+        public final int sizeTotal() {
+            return elements.sizeTotal();
+        }
+
+        /**
+         * @return How many complete ints are free in the buffer.
+         */
+        public final int sizeFree() {
+            return elements.sizeFree();
+        }
+    }
+
+    public class LongView {
+        private final Elements<long[]> elements;
+
+        /**
+         * Creates a view that stores longs in the given byte order.
+         *
+         * @param order
+         *            Byte order of each long.
+         */
+        private LongView(ByteOrder order) {
+            elements = new Elements<long[]>(8, order) {
+                @Override
+                long encode(long[] longs, int index) {
+                    return longs[index];
+                }
+
+                @Override
+                void decode(long[] longs, int index, long bits) {
+                    longs[index] = bits;
+                }
+
+                @Override
+                long[] allocate(int length) {
+                    return new long[length];
+                }
+            };
+        }
+
+        /**
+         * @return Byte order of each long.
+         */
+        public final ByteOrder order() {
+            return elements.order();
+        }
+
+        /**
+         * Adds every element of the array to the end of the buffer.
+         *
+         * @return How many elements were added.
+         */
+        public final int push(long... longs) {
+            Objects.requireNonNull(longs);
+
+            return elements.push(longs, 0, longs.length);
+        }
+
+        /**
+         * Adds the elements of the array from the given index to the end of the buffer.
+         *
+         * @return How many elements were added.
+         */
+        public final int push(long[] longs, int index) {
+            Objects.requireNonNull(longs);
+
+            return elements.push(longs, index, longs.length - index);
+        }
+
+        /**
+         * Adds elements to the end of the buffer.
+         *
+         * @param longs
+         *            Array that contains elements to be added.
+         * @param index
+         *            Where to start copying elements from the array.
+         * @param length
+         *            How many elements to copy.
+         *
+         * @return How many elements were added.
+         */
+        public final int push(long[] longs, int index, int length) {
+            return elements.push(longs, index, length);
+        }
+
+        /**
+         * Adds every element of the array to the end of the buffer, overwriting the oldest ones if it is full.
+         */
+        public final void overrunPush(long... longs) {
+            Objects.requireNonNull(longs);
+
+            elements.overrunPush(longs, 0, longs.length);
+        }
+
+        /**
+         * Adds the elements of the array from the given index to the end of the buffer, overwriting the oldest ones if
+         * it is full.
+         */
+        public final void overrunPush(long[] longs, int index) {
+            Objects.requireNonNull(longs);
+
+            elements.overrunPush(longs, index, longs.length - index);
+        }
+
+        /**
+         * This version of the push method will overrun. This means that if the buffer is full then the oldest elements
+         * will be overwritten by the newest ones. Nothing is overwritten while a mark is set.
+         *
+         * @param longs
+         *            Array that contains elements to be added.
+         * @param index
+         *            Where to begin extracting elements.
+         * @param length
+         *            How many elements to extract.
+         */
+        public final void overrunPush(long[] longs, int index, int length) {
+            elements.overrunPush(longs, index, length);
+        }
+
+        /**
+         * Retrieves elements from the buffer.
+         *
+         * @param length
+         *            How many elements to retrieve.
+         *
+         * @return Array of elements retrieved. Length may be less than requested if buffer doesn't have enough
+         *         elements.
+         */
+        public final long[] peek(int length) {
+            return elements.peek(length);
+        }
+
+        /**
+         * Retrieves elements from the buffer until the array is full.
+         *
+         * @return How many elements were retrieved.
+         */
+        public final int peek(long[] longs) {
+            Objects.requireNonNull(longs);
+
+            return elements.peek(longs, 0, longs.length);
+        }
+
+        /**
+         * Retrieves elements from the buffer until the array is full, placing them from the given index.
+         *
+         * @return How many elements were retrieved.
+         */
+        public final int peek(long[] longs, int index) {
+            Objects.requireNonNull(longs);
+
+            return elements.peek(longs, index, longs.length - index);
+        }
+
+        /**
+         * Retrieves elements from the buffer and places them in a long array.
+         *
+         * @param longs
+         *            Array of longs.
+         * @param index
+         *            Index where elements will be placed.
+         * @param length
+         *            How many elements to retrieve.
+         *
+         * @return How many elements were retrieved.
+         */
+        public final int peek(long[] longs, int index, int length) {
+            return elements.peek(longs, index, length);
+        }
+
+        /**
+         * Removes elements from the buffer and returns them.
+         *
+         * @param length
+         *            How many elements to remove.
+         *
+         * @return Array of removed elements. May not remove the same number of elements as requested if the buffer did
+         *         not have that many to begin with.
+         */
+        public final long[] pop(int length) {
+            return elements.pop(length);
+        }
+
+        /**
+         * Removes elements from the buffer until the array is full.
+         *
+         * @return Number of removed elements.
+         */
+        public final int pop(long[] longs) {
+            return elements.pop(longs, 0, longs.length);
+        }
+
+        /**
+         * Removes elements from the buffer until the array is full, placing them from the given index.
+         *
+         * @return Number of removed elements.
+         */
+        public final int pop(long[] longs, int index) {
+            return elements.pop(longs, index, longs.length - index);
+        }
+
+        /**
+         * Removes elements from the buffer.
+         *
+         * @param longs
+         *            Array that will contain removed elements.
+         * @param index
+         *            Index where elements will be placed.
+         * @param length
+         *            How many elements to remove.
+         *
+         * @return Number of removed elements.
+         */
+        public final int pop(long[] longs, int index, int length) {
+            return elements.pop(longs, index, length);
+        }
+
+        /**
+         * Removes elements from the buffer.
+         *
+         * @param elements
+         *            Number of elements to remove.
+         */
+        public final void drop(int elements) {
+            this.elements.drop(elements);
+        }
+
+        /**
+         * @return How many complete longs are stored in the buffer.
+         */
+        public final int sizeUsed() {
+            return elements.sizeUsed();
+        }
+
+        /**
+         * @return How many complete longs can be stored in the buffer in total.
+         */
+        public final int sizeTotal() {
+            return elements.sizeTotal();
+        }
+
+        /**
+         * @return How many complete longs are free in the buffer.
+         */
+        public final int sizeFree() {
+            return elements.sizeFree();
+        }
+    }
+
+    public class FloatView {
+        private final Elements<float[]> elements;
+
+        /**
+         * Creates a view that stores floats in the given byte order.
+         *
+         * @param order
+         *            Byte order of each float.
+         */
+        private FloatView(ByteOrder order) {
+            elements = new Elements<float[]>(4, order) {
+                @Override
+                long encode(float[] floats, int index) {
+                    return Float.floatToRawIntBits(floats[index]);
+                }
+
+                @Override
+                void decode(float[] floats, int index, long bits) {
+                    floats[index] = Float.intBitsToFloat((int) bits);
+                }
+
+                @Override
+                float[] allocate(int length) {
+                    return new float[length];
+                }
+            };
+        }
+
+        /**
+         * @return Byte order of each float.
+         */
+        public final ByteOrder order() {
+            return elements.order();
+        }
+
+        /**
+         * Adds every element of the array to the end of the buffer.
+         *
+         * @return How many elements were added.
+         */
+        public final int push(float... floats) {
+            Objects.requireNonNull(floats);
+
+            return elements.push(floats, 0, floats.length);
+        }
+
+        /**
+         * Adds the elements of the array from the given index to the end of the buffer.
+         *
+         * @return How many elements were added.
+         */
+        public final int push(float[] floats, int index) {
+            Objects.requireNonNull(floats);
+
+            return elements.push(floats, index, floats.length - index);
+        }
+
+        /**
+         * Adds elements to the end of the buffer.
+         *
+         * @param floats
+         *            Array that contains elements to be added.
+         * @param index
+         *            Where to start copying elements from the array.
+         * @param length
+         *            How many elements to copy.
+         *
+         * @return How many elements were added.
+         */
+        public final int push(float[] floats, int index, int length) {
+            return elements.push(floats, index, length);
+        }
+
+        /**
+         * Adds every element of the array to the end of the buffer, overwriting the oldest ones if it is full.
+         */
+        public final void overrunPush(float... floats) {
+            Objects.requireNonNull(floats);
+
+            elements.overrunPush(floats, 0, floats.length);
+        }
+
+        /**
+         * Adds the elements of the array from the given index to the end of the buffer, overwriting the oldest ones if
+         * it is full.
+         */
+        public final void overrunPush(float[] floats, int index) {
+            Objects.requireNonNull(floats);
+
+            elements.overrunPush(floats, index, floats.length - index);
+        }
+
+        /**
+         * This version of the push method will overrun. This means that if the buffer is full then the oldest elements
+         * will be overwritten by the newest ones. Nothing is overwritten while a mark is set.
+         *
+         * @param floats
+         *            Array that contains elements to be added.
+         * @param index
+         *            Where to begin extracting elements.
+         * @param length
+         *            How many elements to extract.
+         */
+        public final void overrunPush(float[] floats, int index, int length) {
+            elements.overrunPush(floats, index, length);
+        }
+
+        /**
+         * Retrieves elements from the buffer.
+         *
+         * @param length
+         *            How many elements to retrieve.
+         *
+         * @return Array of elements retrieved. Length may be less than requested if buffer doesn't have enough
+         *         elements.
+         */
+        public final float[] peek(int length) {
+            return elements.peek(length);
+        }
+
+        /**
+         * Retrieves elements from the buffer until the array is full.
+         *
+         * @return How many elements were retrieved.
+         */
+        public final int peek(float[] floats) {
+            Objects.requireNonNull(floats);
+
+            return elements.peek(floats, 0, floats.length);
+        }
+
+        /**
+         * Retrieves elements from the buffer until the array is full, placing them from the given index.
+         *
+         * @return How many elements were retrieved.
+         */
+        public final int peek(float[] floats, int index) {
+            Objects.requireNonNull(floats);
+
+            return elements.peek(floats, index, floats.length - index);
+        }
+
+        /**
+         * Retrieves elements from the buffer and places them in a float array.
+         *
+         * @param floats
+         *            Array of floats.
+         * @param index
+         *            Index where elements will be placed.
+         * @param length
+         *            How many elements to retrieve.
+         *
+         * @return How many elements were retrieved.
+         */
+        public final int peek(float[] floats, int index, int length) {
+            return elements.peek(floats, index, length);
+        }
+
+        /**
+         * Removes elements from the buffer and returns them.
+         *
+         * @param length
+         *            How many elements to remove.
+         *
+         * @return Array of removed elements. May not remove the same number of elements as requested if the buffer did
+         *         not have that many to begin with.
+         */
+        public final float[] pop(int length) {
+            return elements.pop(length);
+        }
+
+        /**
+         * Removes elements from the buffer until the array is full.
+         *
+         * @return Number of removed elements.
+         */
+        public final int pop(float[] floats) {
+            return elements.pop(floats, 0, floats.length);
+        }
 
-    /**
-     * Creates a view of this byte buffer that allows you to access its elements as shorts.
-     */
-    public final ShortView shortView() {
-        return new ShortView();
-    }
+        /**
+         * Removes elements from the buffer until the array is full, placing them from the given index.
+         *
+         * @return Number of removed elements.
+         */
+        public final int pop(float[] floats, int index) {
+            return elements.pop(floats, index, floats.length - index);
+        }
 
-    /**
-     * Checks if its possible to access the given number of bytes without passing the end of the buffer.
-     *
-     * @param size
-     *            Number of elements.
-     *
-     * @return
-     */
-    private final boolean overflows(int size) {
-        return nextOffset() + size > buffer.length;
-    }
+        /**
+         * Removes elements from the buffer.
+         *
+         * @param floats
+         *            Array that will contain removed elements.
+         * @param index
+         *            Index where elements will be placed.
+         * @param length
+         *            How many elements to remove.
+         *
+         * @return Number of removed elements.
+         */
+        public final int pop(float[] floats, int index, int length) {
+            return elements.pop(floats, index, length);
+        }
 
-    /**
-     * Moves end position and updates size and start position. Wraps around when neeeded.
-     *
-     * @param elements
-     *            How many elements to move.
-     */
-    private final void advance(int elements) {
-        int sumSize = size + elements;
-        int overflow = 0;
-        if (sumSize > buffer.length) {
-            size = buffer.length;
-            overflow = sumSize - buffer.length;
-        } else {
-            size = sumSize;
+        /**
+         * Removes elements from the buffer.
+         *
+         * @param elements
+         *            Number of elements to remove.
+         */
+        public final void drop(int elements) {
+            this.elements.drop(elements);
         }
 
-        start = (start + overflow) % buffer.length;
-    }
+        /**
+         * @return How many complete floats are stored in the buffer.
+         */
+        public final int sizeUsed() {
+            return elements.sizeUsed();
+        }
 
-    /**
-     * @return The position from where to start placing new elements into the buffer.
-     */
-    private final int nextOffset() {
-        return (start + size) % buffer.length;
-    }
+        /**
+         * @return How many complete floats can be stored in the buffer in total.
+         */
+        public final int sizeTotal() {
+            return elements.sizeTotal();
+        }
 
-    /**
-     * @param offset
-     *            Position in the buffer.
-     *
-     * @return How many bytes are free after the given position up to end the of the array or the start position,
-     *         whichever comes first.
-     */
-    private final int availableAfter(int offset) {
-        if (start >= offset) {
-            if (size > 0) {
-                // The beginning of the ring buffer is in front of us.
-                return offset - start;
-            } else {
-                return buffer.length - offset;
-            }
-        } else {
-            // The beginning of the ring buffer is behind us. We have everything in front of us
-            // available.
-            return buffer.length - offset;
+        /**
+         * @return How many complete floats are free in the buffer.
+         */
+        public final int sizeFree() {
+            return elements.sizeFree();
         }
     }
 
-    public class ShortView {
+    public class DoubleView {
+        private final Elements<double[]> elements;
+
         /**
-         * Adds elements to the end of the buffer.
+         * Creates a view that stores doubles in the given byte order.
          *
-         * @param shorts
-         *            Array that contains elements to be added. Will attempt to add them all.
+         * @param order
+         *            Byte order of each double.
+         */
+        private DoubleView(ByteOrder order) {
+            elements = new Elements<double[]>(8, order) {
+                @Override
+                long encode(double[] doubles, int index) {
+                    return Double.doubleToRawLongBits(doubles[index]);
+                }
+
+                @Override
+                void decode(double[] doubles, int index, long bits) {
+                    doubles[index] = Double.longBitsToDouble(bits);
+                }
+
+                @Override
+                double[] allocate(int length) {
+                    return new double[length];
+                }
+            };
+        }
+
+        /**
+         * @return Byte order of each double.
+         */
+        public final ByteOrder order() {
+            return elements.order();
+        }
+
+        /**
+         * Adds every element of the array to the end of the buffer.
          *
          * @return How many elements were added.
          */
-        public final int push(short... shorts) {
-            Objects.requireNonNull(shorts);
+        public final int push(double... doubles) {
+            Objects.requireNonNull(doubles);
 
-            return push(shorts, 0, shorts.length);
+            return elements.push(doubles, 0, doubles.length);
         }
 
         /**
-         * Adds elements to the end of the buffer.
-         *
-         * @param shorts
-         *            Array that contains elements to be added.
-         * @param index
-         *            Where to start copying elements from the array.
+         * Adds the elements of the array from the given index to the end of the buffer.
          *
          * @return How many elements were added.
          */
-        public final int push(short[] shorts, int index) {
-            Objects.requireNonNull(shorts);
+        public final int push(double[] doubles, int index) {
+            Objects.requireNonNull(doubles);
 
-            return push(shorts, index, shorts.length - index);
+            return elements.push(doubles, index, doubles.length - index);
         }
 
         /**
          * Adds elements to the end of the buffer.
          *
-         * @param shorts
+         * @param doubles
          *            Array that contains elements to be added.
          * @param index
          *            Where to start copying elements from the array.
@@ -525,76 +2833,42 @@ public final class ByteRingBuffer {
          *
          * @return How many elements were added.
          */
-        public final int push(short[] shorts, int index, int length) {
-            // TODO: This is experimental. Memory usage needs to be improved later.
-
-            Objects.requireNonNull(shorts);
-
-            int available = sizeFree();
-
-            if (length > available) {
-                length = available;
-            }
-
-            java.nio.ByteBuffer bb = java.nio.ByteBuffer.allocate(length * 2);
-            bb.asShortBuffer().put(shorts, index, length);
-
-            return ByteRingBuffer.this.push(bb.array(), bb.arrayOffset(), bb.limit()) / 2;
+        public final int push(double[] doubles, int index, int length) {
+            return elements.push(doubles, index, length);
         }
 
         /**
-         * This version of the push method will overrun. This means that if the buffer is full then the oldest elements
-         * will be overwritten by the newest ones.
-         *
-         * @param shorts
-         *            Adds entire array to buffer.
+         * Adds every element of the array to the end of the buffer, overwriting the oldest ones if it is full.
          */
-        public final void overrunPush(short... shorts) {
-            Objects.requireNonNull(shorts);
+        public final void overrunPush(double... doubles) {
+            Objects.requireNonNull(doubles);
 
-            overrunPush(shorts, 0, shorts.length);
+            elements.overrunPush(doubles, 0, doubles.length);
         }
 
         /**
-         * This version of the push method will overrun. This means that if the buffer is full then the oldest elements
-         * will be overwritten by the newest ones.
-         *
-         * @param shorts
-         *            Adds entire array to buffer.
-         * @param index
-         *            Where to begin extracting elements.
+         * Adds the elements of the array from the given index to the end of the buffer, overwriting the oldest ones if
+         * it is full.
          */
-        public final void overrunPush(short[] shorts, int index) {
-            Objects.requireNonNull(shorts);
+        public final void overrunPush(double[] doubles, int index) {
+            Objects.requireNonNull(doubles);
 
-            overrunPush(shorts, index, shorts.length - index);
+            elements.overrunPush(doubles, index, doubles.length - index);
         }
 
         /**
          * This version of the push method will overrun. This means that if the buffer is full then the oldest elements
-         * will be overwritten by the newest ones.
+         * will be overwritten by the newest ones. Nothing is overwritten while a mark is set.
          *
-         * @param shorts
-         *            Adds entire array to buffer.
+         * @param doubles
+         *            Array that contains elements to be added.
          * @param index
          *            Where to begin extracting elements.
          * @param length
          *            How many elements to extract.
          */
-        public final void overrunPush(short[] shorts, int index, int length) {
-            // TODO: This is experimental. Memory usage needs to be improved later.
-
-            Objects.requireNonNull(shorts);
-
-            if (sizeTotal() < 1) {
-                // Just can't do anything.
-                return;
-            }
-
-            java.nio.ByteBuffer bb = java.nio.ByteBuffer.allocate(length * 2);
-            bb.asShortBuffer().put(shorts, index, length);
-
-            ByteRingBuffer.this.overrunPush(bb.array(), bb.arrayOffset(), bb.limit());
+        public final void overrunPush(double[] doubles, int index, int length) {
+            elements.overrunPush(doubles, index, length);
         }
 
         /**
@@ -606,55 +2880,37 @@ public final class ByteRingBuffer {
          * @return Array of elements retrieved. Length may be less than requested if buffer doesn't have enough
          *         elements.
          */
-        public final short[] peek(int length) {
-            int sizeUsed = sizeUsed();
-
-            if (length > sizeUsed) {
-                length = sizeUsed;
-            }
-
-            short[] shorts = new short[length];
-
-            peek(shorts);
-
-            return shorts;
+        public final double[] peek(int length) {
+            return elements.peek(length);
         }
 
         /**
-         * Retrieves elements from the buffer and places them in a short array.
-         *
-         * @param shorts
-         *            Array of shorts. Will try to fill array.
+         * Retrieves elements from the buffer until the array is full.
          *
          * @return How many elements were retrieved.
          */
-        public final int peek(short[] shorts) {
-            Objects.requireNonNull(shorts);
+        public final int peek(double[] doubles) {
+            Objects.requireNonNull(doubles);
 
-            return peek(shorts, 0, shorts.length);
+            return elements.peek(doubles, 0, doubles.length);
         }
 
         /**
-         * Retrieves elements from the buffer and places them in a short array.
-         *
-         * @param shorts
-         *            Array of shorts. Will try to fill array.
-         * @param index
-         *            Index where elements will be placed.
+         * Retrieves elements from the buffer until the array is full, placing them from the given index.
          *
          * @return How many elements were retrieved.
          */
-        public final int peek(short[] shorts, int index) {
-            Objects.requireNonNull(shorts);
+        public final int peek(double[] doubles, int index) {
+            Objects.requireNonNull(doubles);
 
-            return peek(shorts, index, shorts.length - index);
+            return elements.peek(doubles, index, doubles.length - index);
         }
 
         /**
-         * Retrieves elements from the buffer and places them in a short array.
+         * Retrieves elements from the buffer and places them in a double array.
          *
-         * @param shorts
-         *            Array of shorts.
+         * @param doubles
+         *            Array of doubles.
          * @param index
          *            Index where elements will be placed.
          * @param length
@@ -662,24 +2918,8 @@ public final class ByteRingBuffer {
          *
          * @return How many elements were retrieved.
          */
-        public final int peek(short[] shorts, int index, int length) {
-            // TODO: This is experimental. Memory usage needs to be improved later.
-
-            Objects.requireNonNull(shorts);
-
-            int available = sizeUsed();
-
-            if (length > available) {
-                length = available;
-            }
-
-            java.nio.ByteBuffer bb = java.nio.ByteBuffer.allocate(length * 2);
-
-            int read = ByteRingBuffer.this.peek(bb.array(), bb.arrayOffset() + bb.position(), bb.limit());
-
-            bb.asShortBuffer().get(shorts, index, length);
-
-            return read / 2;
+        public final int peek(double[] doubles, int index, int length) {
+            return elements.peek(doubles, index, length);
         }
 
         /**
@@ -691,76 +2931,42 @@ public final class ByteRingBuffer {
          * @return Array of removed elements. May not remove the same number of elements as requested if the buffer did
          *         not have that many to begin with.
          */
-        public final short[] pop(int length) {
-            int sizeUsed = sizeUsed();
-
-            if (length > sizeUsed) {
-                length = sizeUsed;
-            }
-
-            short[] shorts = new short[length];
-
-            pop(shorts);
-
-            return shorts;
+        public final double[] pop(int length) {
+            return elements.pop(length);
         }
 
         /**
-         * Removes elements from the buffer.
-         *
-         * @param shorts
-         *            Array that will contain removed elements. Its length determines how many elements will be removed.
+         * Removes elements from the buffer until the array is full.
          *
          * @return Number of removed elements.
          */
-        public final int pop(short[] shorts) {
-            return pop(shorts, 0, shorts.length);
+        public final int pop(double[] doubles) {
+            return elements.pop(doubles, 0, doubles.length);
         }
 
         /**
-         * Removes elements from the buffer.
-         *
-         * @param shorts
-         *            Array that will contain removed elements. Its length determines how many elements will be removed.
-         * @param index
-         *            Index where elements will be placed.
+         * Removes elements from the buffer until the array is full, placing them from the given index.
          *
          * @return Number of removed elements.
          */
-        public final int pop(short[] shorts, int index) {
-            return pop(shorts, index, shorts.length - index);
+        public final int pop(double[] doubles, int index) {
+            return elements.pop(doubles, index, doubles.length - index);
         }
 
         /**
          * Removes elements from the buffer.
          *
-         * @param shorts
+         * @param doubles
          *            Array that will contain removed elements.
          * @param index
          *            Index where elements will be placed.
          * @param length
          *            How many elements to remove.
          *
-         * @return
+         * @return Number of removed elements.
          */
-        public final int pop(short[] shorts, int index, int length) {
-            // TODO: This is experimental. Memory usage needs to be improved later.
-
-            Objects.requireNonNull(shorts);
-
-            int available = sizeUsed();
-
-            if (length > available) {
-                length = available;
-            }
-
-            java.nio.ByteBuffer bb = java.nio.ByteBuffer.allocate(length * 2);
-
-            int read = ByteRingBuffer.this.pop(bb.array(), bb.arrayOffset() + bb.position(), bb.limit());
-
-            bb.asShortBuffer().get(shorts, index, length);
-
-            return read / 2;
+        public final int pop(double[] doubles, int index, int length) {
+            return elements.pop(doubles, index, length);
         }
 
         /**
@@ -770,34 +2976,28 @@ public final class ByteRingBuffer {
          *            Number of elements to remove.
          */
         public final void drop(int elements) {
-            int available = sizeUsed();
-
-            if (elements > available) {
-                elements = available;
-            }
-
-            ByteRingBuffer.this.drop(elements * 2);
+            this.elements.drop(elements);
         }
 
         /**
-         * @return How many complete shorts are stored in the buffer.
+         * @return How many complete doubles are stored in the buffer.
          */
         public final int sizeUsed() {
-            return ByteRingBuffer.this.sizeUsed() / 2;
+            return elements.sizeUsed();
         }
 
         /**
-         * @return How many complete shorts can be stored in the buffer in total.
+         * @return How many complete doubles can be stored in the buffer in total.
          */
         public final int sizeTotal() {
-            return ByteRingBuffer.this.sizeTotal() / 2;
+            return elements.sizeTotal();
         }
 
         /**
-         * @return How many complete shorts are free in the buffer.
+         * @return How many complete doubles are free in the buffer.
          */
         public final int sizeFree() {
-            return ByteRingBuffer.this.sizeFree() / 2;
+            return elements.sizeFree();
         }
     }
 
@@ -814,4 +3014,36 @@ public final class ByteRingBuffer {
          */
         void borrow(ByteBuffer chunk);
     }
+
+    /**
+     * For adding elements to the buffer without an intermediate array.
+     */
+    public interface PushCallback {
+        /**
+         * Receives a chunk of free space. Elements written to it starting from position 0 are added to the buffer
+         * once the method returns. Its position tells how many were written. You are not allowed to modify the
+         * buffer.
+         *
+         * @param chunk
+         *            A chunk of free space. You can only use this object while the method is running.
+         */
+        void borrow(ByteBuffer chunk);
+    }
+
+    /**
+     * For removing elements from the buffer without an intermediate array.
+     */
+    public interface ConsumeCallback {
+        /**
+         * Receives a chunk of elements and tells how many of them were used up. Those are removed from the buffer
+         * once the method returns. You are not allowed to modify the buffer.
+         *
+         * @param chunk
+         *            A chunk of elements. You can only use this object while the method is running.
+         *
+         * @return How many elements from the beginning of the chunk were consumed. Returning less than the size of the
+         *         chunk means no more chunks are wanted for now.
+         */
+        int borrow(ByteBuffer chunk);
+    }
 }
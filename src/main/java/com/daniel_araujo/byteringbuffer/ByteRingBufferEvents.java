@@ -0,0 +1,47 @@
+package com.daniel_araujo.byteringbuffer;
+
+/**
+ * Reports conditions that are worth seeing in a profiler. This version does nothing. On Java 11 and later it is
+ * replaced by a version that emits Java Flight Recorder events.
+ */
+final class ByteRingBufferEvents {
+    private ByteRingBufferEvents() {
+    }
+
+    /**
+     * A push could not add every byte because the buffer was full.
+     *
+     * @param buffer
+     *            The buffer.
+     * @param requested
+     *            How many bytes the push wanted to add.
+     * @param rejected
+     *            How many of them were not added.
+     */
+    static void full(Object buffer, int requested, int rejected) {
+    }
+
+    /**
+     * An overrunning push discarded bytes that had not been read.
+     *
+     * @param buffer
+     *            The buffer.
+     * @param pushed
+     *            How many bytes the push added.
+     * @param lost
+     *            How many bytes were discarded.
+     */
+    static void overrun(Object buffer, int pushed, int lost) {
+    }
+
+    /**
+     * A consumer wanted to read but the buffer was empty.
+     *
+     * @param buffer
+     *            The buffer.
+     * @param requested
+     *            How many bytes the consumer wanted to read.
+     */
+    static void empty(Object buffer, int requested) {
+    }
+}
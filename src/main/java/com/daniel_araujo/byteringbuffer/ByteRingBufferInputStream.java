@@ -0,0 +1,251 @@
+package com.daniel_araujo.byteringbuffer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+/**
+ * Reads the elements of a ring buffer as an {@link InputStream}. Bytes that are read are removed from the buffer.
+ * <p>
+ * Over a {@link ByteRingBuffer} the stream is a snapshot, like a {@link java.io.ByteArrayInputStream}: it never waits
+ * and it ends as soon as the buffer is empty. It suits code that fills the buffer first and then hands it to a parser.
+ * Bytes pushed after the end was reported can still be read, but code that saw -1 will usually not ask again, so use a
+ * {@link ByteRingBufferReadableChannel} to poll a buffer that is still being filled. Over a
+ * {@link BlockingByteRingBuffer} it behaves like a pipe: reads wait for the producer and the stream only ends after
+ * the producer closes the buffer and every byte was read.
+ * <p>
+ * Bulk reads, {@link #skip(long)} and {@link #transferTo(OutputStream)} copy straight from the array of the buffer.
+ */
+public final class ByteRingBufferInputStream extends InputStream {
+    /**
+     * Source when the stream does not wait. Is null otherwise.
+     */
+    private final ByteRingBuffer buffer;
+
+    /**
+     * Source when the stream waits. Is null otherwise.
+     */
+    private final BlockingByteRingBuffer blocking;
+
+    /**
+     * Used by read() so that reading one byte does not allocate.
+     */
+    private final byte[] single = new byte[1];
+
+    private boolean closed;
+
+    /**
+     * Creates a stream that ends when the buffer is empty.
+     *
+     * @param buffer
+     *            Where bytes are read from.
+     */
+    public ByteRingBufferInputStream(ByteRingBuffer buffer) {
+        this.buffer = Objects.requireNonNull(buffer);
+        this.blocking = null;
+    }
+
+    /**
+     * Creates a stream that waits for bytes and ends when the buffer is closed and empty. It must be the only consumer
+     * of the buffer.
+     *
+     * @param buffer
+     *            Where bytes are read from.
+     */
+    public ByteRingBufferInputStream(BlockingByteRingBuffer buffer) {
+        this.buffer = null;
+        this.blocking = Objects.requireNonNull(buffer);
+    }
+
+    /**
+     * Reads one byte. Over a {@link BlockingByteRingBuffer} it waits for it.
+     *
+     * @return The byte, or -1 if the buffer is empty. A blocking buffer must also be closed.
+     */
+    @Override
+    public final int read() throws IOException {
+        int read = read(single, 0, 1);
+
+        return read == -1 ? -1 : single[0] & 0xFF;
+    }
+
+    /**
+     * Reads up to the given number of bytes. Over a {@link BlockingByteRingBuffer} it waits for at least one.
+     *
+     * @return Number of bytes read. Is 0 only if length is 0. Is -1 if the buffer is empty. A blocking buffer must also
+     *         be closed.
+     */
+    @Override
+    public final int read(byte[] bytes, int index, int length) throws IOException {
+        Objects.requireNonNull(bytes);
+        ensureOpen();
+
+        if (index < 0 || length < 0 || length > bytes.length - index) {
+            throw new IndexOutOfBoundsException();
+        }
+
+        if (length == 0) {
+            return 0;
+        }
+
+        int read;
+        if (buffer != null) {
+            read = buffer.pop(bytes, index, length);
+        } else {
+            try {
+                // Returns without a byte only when closed and empty.
+                read = blocking.popAtLeast(bytes, index, 1, length);
+            } catch (InterruptedException e) {
+                throw interrupted();
+            }
+        }
+
+        return read == 0 ? -1 : read;
+    }
+
+    /**
+     * @return How many bytes can be read without waiting.
+     */
+    @Override
+    public final int available() throws IOException {
+        ensureOpen();
+
+        return buffer != null ? buffer.sizeUsed() : blocking.sizeUsed();
+    }
+
+    /**
+     * Drops bytes from the buffer without waiting for more.
+     *
+     * @return Number of bytes skipped. May be less than requested if the buffer does not have that many.
+     */
+    @Override
+    public final long skip(long n) throws IOException {
+        ensureOpen();
+
+        if (n <= 0) {
+            return 0;
+        }
+
+        int skipping = (int) Math.min(n, available());
+
+        if (buffer != null) {
+            buffer.drop(skipping);
+        } else {
+            blocking.drop(skipping);
+        }
+
+        return skipping;
+    }
+
+    /**
+     * Writes every remaining byte to the given stream. The stream is given the array of the buffer directly, so no
+     * bytes are copied in between. Overrides InputStream.transferTo on Java 9 and later.
+     *
+     * @param out
+     *            Destination.
+     *
+     * @return Number of bytes transferred.
+     *
+     * @throws IOException
+     *             If the destination fails. Bytes written before that are removed from the buffer.
+     */
+    public final long transferTo(final OutputStream out) throws IOException {
+        Objects.requireNonNull(out);
+        ensureOpen();
+
+        if (buffer != null) {
+            try {
+                return buffer.pop(new ByteRingBuffer.ConsumeCallback() {
+                    @Override
+                    public int borrow(ByteBuffer chunk) {
+                        write(out, chunk);
+                        return chunk.remaining();
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+
+        Writer writer = new Writer(out);
+        long transferred = 0;
+
+        try {
+            while (true) {
+                blocking.awaitElements(1);
+
+                if (blocking.sizeUsed() == 0) {
+                    // Closed and empty.
+                    return transferred;
+                }
+
+                blocking.peek(writer);
+                blocking.drop(writer.written);
+                transferred += writer.written;
+                writer.written = 0;
+            }
+        } catch (InterruptedException e) {
+            throw interrupted();
+        } catch (UncheckedIOException e) {
+            blocking.drop(writer.written);
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Further reads throw an exception. The buffer keeps the bytes that were not read.
+     */
+    @Override
+    public final void close() {
+        closed = true;
+    }
+
+    private final void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed.");
+        }
+    }
+
+    /**
+     * Keeps the interrupt so that the caller can still see it.
+     */
+    private static InterruptedIOException interrupted() {
+        Thread.currentThread().interrupt();
+
+        return new InterruptedIOException("Interrupted while waiting for bytes.");
+    }
+
+    /**
+     * Writes a chunk of the buffer to a stream. Callbacks can't throw IOException so it is wrapped.
+     */
+    private static void write(OutputStream out, ByteBuffer chunk) {
+        try {
+            out.write(chunk.array(), chunk.arrayOffset() + chunk.position(), chunk.remaining());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Writes the chunks it borrows to a stream and counts them.
+     */
+    private static final class Writer implements ByteRingBuffer.PeekCallback {
+        private final OutputStream out;
+
+        private int written;
+
+        Writer(OutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public void borrow(ByteBuffer chunk) {
+            write(out, chunk);
+            written += chunk.remaining();
+        }
+    }
+}
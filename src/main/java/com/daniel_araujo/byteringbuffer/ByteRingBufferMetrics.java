@@ -0,0 +1,253 @@
+package com.daniel_araujo.byteringbuffer;
+
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+/**
+ * Counters kept by a {@link ByteRingBuffer} after {@link ByteRingBuffer#enableMetrics()} is called.
+ * <p>
+ * Only the thread that uses the buffer updates the counters, so updating them costs a few plain stores. They can be
+ * read from any thread, for instance by registering this object with an MBean server, but a reader may see values that
+ * are slightly behind. {@link #resetHighWaterMark()} may also be called from any thread: it only leaves a request that
+ * the buffer carries out on its next operation.
+ */
+public final class ByteRingBufferMetrics implements ByteRingBufferMetricsMBean {
+    private static final AtomicLongFieldUpdater<ByteRingBufferMetrics> PUSHED = AtomicLongFieldUpdater
+            .newUpdater(ByteRingBufferMetrics.class, "pushed");
+
+    private static final AtomicLongFieldUpdater<ByteRingBufferMetrics> POPPED = AtomicLongFieldUpdater
+            .newUpdater(ByteRingBufferMetrics.class, "popped");
+
+    private static final AtomicLongFieldUpdater<ByteRingBufferMetrics> DROPPED = AtomicLongFieldUpdater
+            .newUpdater(ByteRingBufferMetrics.class, "dropped");
+
+    private static final AtomicLongFieldUpdater<ByteRingBufferMetrics> OVERRUN = AtomicLongFieldUpdater
+            .newUpdater(ByteRingBufferMetrics.class, "overrun");
+
+    private static final AtomicLongFieldUpdater<ByteRingBufferMetrics> REJECTED = AtomicLongFieldUpdater
+            .newUpdater(ByteRingBufferMetrics.class, "rejected");
+
+    private static final AtomicIntegerFieldUpdater<ByteRingBufferMetrics> HIGH_WATER_MARK = AtomicIntegerFieldUpdater
+            .newUpdater(ByteRingBufferMetrics.class, "highWaterMark");
+
+    private volatile long pushed;
+
+    private volatile long popped;
+
+    private volatile long dropped;
+
+    private volatile long overrun;
+
+    private volatile long rejected;
+
+    private volatile int highWaterMark;
+
+    /**
+     * Set by resetHighWaterMark and cleared by the thread that uses the buffer when it restarts the high-water mark.
+     * This keeps that thread the only writer of the counters.
+     */
+    private volatile boolean resetRequested;
+
+    /**
+     * @param size
+     *            How many bytes the buffer holds now.
+     */
+    ByteRingBufferMetrics(int size) {
+        this.highWaterMark = size;
+    }
+
+    @Override
+    public final long getBytesPushed() {
+        return pushed;
+    }
+
+    @Override
+    public final long getBytesPopped() {
+        return popped;
+    }
+
+    @Override
+    public final long getBytesDropped() {
+        return dropped;
+    }
+
+    @Override
+    public final long getBytesOverrun() {
+        return overrun;
+    }
+
+    @Override
+    public final long getBytesRejected() {
+        return rejected;
+    }
+
+    @Override
+    public final int getHighWaterMark() {
+        return highWaterMark;
+    }
+
+    /**
+     * Takes effect on the next operation of the buffer. The high-water mark then starts again from the number of bytes
+     * the buffer holds after that operation. Until then the old value is reported.
+     */
+    @Override
+    public final void resetHighWaterMark() {
+        resetRequested = true;
+    }
+
+    /**
+     * Copies every counter so they can be compared with each other.
+     *
+     * @return Values of the counters at this moment.
+     */
+    public final Snapshot snapshot() {
+        return new Snapshot(pushed, popped, dropped, overrun, rejected, highWaterMark);
+    }
+
+    /**
+     * @param length
+     *            How many bytes were added.
+     * @param lost
+     *            How many bytes that had not been read were discarded to make room.
+     * @param size
+     *            How many bytes the buffer holds now.
+     */
+    final void pushed(int length, int lost, int size) {
+        PUSHED.lazySet(this, pushed + length);
+
+        if (lost > 0) {
+            OVERRUN.lazySet(this, overrun + lost);
+        }
+
+        track(size);
+    }
+
+    /**
+     * @param length
+     *            How many bytes a push could not add.
+     * @param size
+     *            How many bytes the buffer holds now.
+     */
+    final void rejected(int length, int size) {
+        if (length > 0) {
+            REJECTED.lazySet(this, rejected + length);
+        }
+
+        track(size);
+    }
+
+    /**
+     * @param length
+     *            How many bytes were read and removed.
+     * @param size
+     *            How many bytes the buffer holds now.
+     */
+    final void popped(int length, int size) {
+        POPPED.lazySet(this, popped + length);
+
+        track(size);
+    }
+
+    /**
+     * @param length
+     *            How many bytes were removed without being read.
+     * @param size
+     *            How many bytes the buffer holds now.
+     */
+    final void dropped(int length, int size) {
+        DROPPED.lazySet(this, dropped + length);
+
+        track(size);
+    }
+
+    /**
+     * Raises the high-water mark, or restarts it if a reset was requested.
+     *
+     * @param size
+     *            How many bytes the buffer holds now.
+     */
+    private final void track(int size) {
+        if (resetRequested) {
+            // A request that arrives between the read and this store is covered by this reset.
+            resetRequested = false;
+            HIGH_WATER_MARK.lazySet(this, size);
+        } else if (size > highWaterMark) {
+            HIGH_WATER_MARK.lazySet(this, size);
+        }
+    }
+
+    /**
+     * Values of the counters at one moment.
+     */
+    public static final class Snapshot {
+        private final long bytesPushed;
+
+        private final long bytesPopped;
+
+        private final long bytesDropped;
+
+        private final long bytesOverrun;
+
+        private final long bytesRejected;
+
+        private final int highWaterMark;
+
+        Snapshot(long bytesPushed, long bytesPopped, long bytesDropped, long bytesOverrun, long bytesRejected,
+                int highWaterMark) {
+            this.bytesPushed = bytesPushed;
+            this.bytesPopped = bytesPopped;
+            this.bytesDropped = bytesDropped;
+            this.bytesOverrun = bytesOverrun;
+            this.bytesRejected = bytesRejected;
+            this.highWaterMark = highWaterMark;
+        }
+
+        /**
+         * @return Total number of bytes added to the buffer.
+         */
+        public final long getBytesPushed() {
+            return bytesPushed;
+        }
+
+        /**
+         * @return Total number of bytes removed from the buffer by pop methods and by writing to a channel.
+         */
+        public final long getBytesPopped() {
+            return bytesPopped;
+        }
+
+        /**
+         * @return Total number of bytes removed from the buffer without being read by drop and clear.
+         */
+        public final long getBytesDropped() {
+            return bytesDropped;
+        }
+
+        /**
+         * @return Total number of bytes that overrunning pushes discarded before they were read.
+         */
+        public final long getBytesOverrun() {
+            return bytesOverrun;
+        }
+
+        /**
+         * @return Total number of bytes that push methods could not add because the buffer was full.
+         */
+        public final long getBytesRejected() {
+            return bytesRejected;
+        }
+
+        /**
+         * @return The largest number of bytes that have been stored in the buffer at the same time.
+         */
+        public final int getHighWaterMark() {
+            return highWaterMark;
+        }
+
+        @Override
+        public String toString() {
+            return "pushed=" + bytesPushed + ", popped=" + bytesPopped + ", dropped=" + bytesDropped + ", overrun="
+                    + bytesOverrun + ", rejected=" + bytesRejected + ", highWaterMark=" + highWaterMark;
+        }
+    }
+}
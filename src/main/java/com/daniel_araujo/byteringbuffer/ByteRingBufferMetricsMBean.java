@@ -0,0 +1,41 @@
+package com.daniel_araujo.byteringbuffer;
+
+/**
+ * Management interface of {@link ByteRingBufferMetrics}. Lets the metrics be registered as a standard MBean.
+ */
+public interface ByteRingBufferMetricsMBean {
+    /**
+     * @return Total number of bytes added to the buffer.
+     */
+    long getBytesPushed();
+
+    /**
+     * @return Total number of bytes removed from the buffer by pop methods and by writing to a channel.
+     */
+    long getBytesPopped();
+
+    /**
+     * @return Total number of bytes removed from the buffer without being read by drop and clear.
+     */
+    long getBytesDropped();
+
+    /**
+     * @return Total number of bytes that overrunning pushes discarded before they were read.
+     */
+    long getBytesOverrun();
+
+    /**
+     * @return Total number of bytes that push methods could not add because the buffer was full.
+     */
+    long getBytesRejected();
+
+    /**
+     * @return The largest number of bytes that have been stored in the buffer at the same time.
+     */
+    int getHighWaterMark();
+
+    /**
+     * Starts tracking the high-water mark again from the number of bytes currently stored in the buffer.
+     */
+    void resetHighWaterMark();
+}
@@ -0,0 +1,109 @@
+package com.daniel_araujo.byteringbuffer;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.Objects;
+
+/**
+ * Adds bytes written to an {@link OutputStream} to a ring buffer.
+ * <p>
+ * Over a {@link ByteRingBuffer} the stream never waits: a write that does not fit in the free space throws an exception
+ * and adds nothing. Over a {@link BlockingByteRingBuffer} it behaves like a pipe: writes wait for free space and
+ * closing the stream closes the buffer, which tells the consumer that no more bytes are coming.
+ */
+public final class ByteRingBufferOutputStream extends OutputStream {
+    /**
+     * Destination when the stream does not wait. Is null otherwise.
+     */
+    private final ByteRingBuffer buffer;
+
+    /**
+     * Destination when the stream waits. Is null otherwise.
+     */
+    private final BlockingByteRingBuffer blocking;
+
+    /**
+     * Used by write(int) so that writing one byte does not allocate.
+     */
+    private final byte[] single = new byte[1];
+
+    private boolean closed;
+
+    /**
+     * Creates a stream that fails when the buffer has no room.
+     *
+     * @param buffer
+     *            Where bytes are added.
+     */
+    public ByteRingBufferOutputStream(ByteRingBuffer buffer) {
+        this.buffer = Objects.requireNonNull(buffer);
+        this.blocking = null;
+    }
+
+    /**
+     * Creates a stream that waits for free space. It must be the only producer of the buffer.
+     *
+     * @param buffer
+     *            Where bytes are added.
+     */
+    public ByteRingBufferOutputStream(BlockingByteRingBuffer buffer) {
+        this.buffer = null;
+        this.blocking = Objects.requireNonNull(buffer);
+    }
+
+    @Override
+    public final void write(int b) throws IOException {
+        single[0] = (byte) b;
+
+        write(single, 0, 1);
+    }
+
+    /**
+     * @throws IOException
+     *             If the stream does not wait and the buffer does not have room for every byte. Nothing is added in
+     *             that case.
+     * @throws InterruptedIOException
+     *             If the thread is interrupted while waiting. Some of the bytes may have been added.
+     */
+    @Override
+    public final void write(byte[] bytes, int index, int length) throws IOException {
+        Objects.requireNonNull(bytes);
+
+        if (closed) {
+            throw new IOException("Stream closed.");
+        }
+
+        if (index < 0 || length < 0 || length > bytes.length - index) {
+            throw new IndexOutOfBoundsException();
+        }
+
+        if (buffer != null) {
+            if (length > buffer.sizeFree()) {
+                throw new IOException("Buffer has room for " + buffer.sizeFree() + " bytes but " + length
+                        + " were written.");
+            }
+
+            buffer.push(bytes, index, length);
+        } else {
+            try {
+                blocking.pushFully(bytes, index, length);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for free space.");
+            }
+        }
+    }
+
+    /**
+     * Further writes throw an exception. When the stream waits, the buffer is closed too.
+     */
+    @Override
+    public final void close() {
+        if (!closed && blocking != null) {
+            blocking.close();
+        }
+
+        closed = true;
+    }
+}
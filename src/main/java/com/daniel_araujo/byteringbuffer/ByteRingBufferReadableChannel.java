@@ -0,0 +1,157 @@
+package com.daniel_araujo.byteringbuffer;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Objects;
+
+/**
+ * Reads the elements of a ring buffer through a {@link ReadableByteChannel}. Bytes that are read are removed from the
+ * buffer and copied straight from its array into the destination.
+ * <p>
+ * Over a {@link ByteRingBuffer} the channel behaves like a channel in non-blocking mode: reading from an empty buffer
+ * returns 0. Over a {@link BlockingByteRingBuffer} reads wait for at least one byte and return -1 after the producer
+ * closes the buffer and every byte was read.
+ */
+public final class ByteRingBufferReadableChannel implements ReadableByteChannel {
+    /**
+     * Source when the channel does not wait. Is null otherwise.
+     */
+    private final ByteRingBuffer buffer;
+
+    /**
+     * Source when the channel waits. Is null otherwise.
+     */
+    private final BlockingByteRingBuffer blocking;
+
+    /**
+     * Copies the chunks it borrows into the destination of the current read.
+     */
+    private final Copier copier = new Copier();
+
+    /**
+     * Removes the bytes that the copier copied.
+     */
+    private final ByteRingBuffer.ConsumeCallback consumer = new ByteRingBuffer.ConsumeCallback() {
+        @Override
+        public int borrow(ByteBuffer chunk) {
+            return copier.copy(chunk);
+        }
+    };
+
+    private boolean open = true;
+
+    /**
+     * Creates a channel that never waits.
+     *
+     * @param buffer
+     *            Where bytes are read from.
+     */
+    public ByteRingBufferReadableChannel(ByteRingBuffer buffer) {
+        this.buffer = Objects.requireNonNull(buffer);
+        this.blocking = null;
+    }
+
+    /**
+     * Creates a channel that waits for bytes. It must be the only consumer of the buffer.
+     *
+     * @param buffer
+     *            Where bytes are read from.
+     */
+    public ByteRingBufferReadableChannel(BlockingByteRingBuffer buffer) {
+        this.buffer = null;
+        this.blocking = Objects.requireNonNull(buffer);
+    }
+
+    /**
+     * @return Number of bytes read. Is -1 if the buffer was closed by the producer and is empty. Is 0 if the channel
+     *         does not wait and the buffer is empty, or if the destination has no room.
+     *
+     * @throws ClosedByInterruptException
+     *             If the thread is interrupted while waiting. The channel is closed.
+     */
+    @Override
+    public final int read(ByteBuffer dst) throws IOException {
+        Objects.requireNonNull(dst);
+
+        if (!open) {
+            throw new ClosedChannelException();
+        }
+
+        if (!dst.hasRemaining()) {
+            return 0;
+        }
+
+        copier.dst = dst;
+        copier.copied = 0;
+
+        try {
+            if (buffer != null) {
+                buffer.pop(consumer);
+            } else {
+                try {
+                    blocking.awaitElements(1);
+                } catch (InterruptedException e) {
+                    open = false;
+                    Thread.currentThread().interrupt();
+                    throw new ClosedByInterruptException();
+                }
+
+                if (blocking.sizeUsed() == 0) {
+                    // Closed and empty.
+                    return -1;
+                }
+
+                blocking.peek(copier);
+                blocking.drop(copier.copied);
+            }
+
+            return copier.copied;
+        } finally {
+            copier.dst = null;
+        }
+    }
+
+    @Override
+    public final boolean isOpen() {
+        return open;
+    }
+
+    /**
+     * Further reads throw an exception. The buffer keeps the bytes that were not read.
+     */
+    @Override
+    public final void close() {
+        open = false;
+    }
+
+    /**
+     * Copies chunks into a destination until it is full.
+     */
+    private static final class Copier implements ByteRingBuffer.PeekCallback {
+        private ByteBuffer dst;
+
+        private int copied;
+
+        @Override
+        public void borrow(ByteBuffer chunk) {
+            copy(chunk);
+        }
+
+        /**
+         * @return Number of bytes copied from the chunk.
+         */
+        final int copy(ByteBuffer chunk) {
+            int copying = Math.min(chunk.remaining(), dst.remaining());
+
+            ((Buffer) chunk).limit(chunk.position() + copying);
+            dst.put(chunk);
+            copied += copying;
+
+            return copying;
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.daniel_araujo.byteringbuffer;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Futures handed out by {@link ByteRingBuffer#awaitReadable(int, Executor)} and
+ * {@link ByteRingBuffer#awaitWritable(int, Executor)} that have not completed yet.
+ * <p>
+ * The buffer tells this object whenever its size changes. To keep that cheap, the smallest amount that any future waits
+ * for is remembered, so nothing is looked at until at least one future can complete.
+ * <p>
+ * Cancelled futures are removed when the buffer looks at the waiters, and when adding a waiter finds that the list has
+ * doubled since it was last pruned. A caller that keeps cancelling its futures while the buffer does not change can't
+ * make the lists grow without bound.
+ */
+final class ByteRingBufferWaiters {
+    /**
+     * Lists are not pruned before they reach this size.
+     */
+    private static final int PRUNE_SIZE = 16;
+
+    private final List<Waiter> readers = new ArrayList<>();
+
+    private final List<Waiter> writers = new ArrayList<>();
+
+    /**
+     * Smallest number of elements that a reader waits for. Is Integer.MAX_VALUE when there are no readers.
+     */
+    private int minimumReadable = Integer.MAX_VALUE;
+
+    /**
+     * Smallest number of free bytes that a writer waits for. Is Integer.MAX_VALUE when there are no writers.
+     */
+    private int minimumWritable = Integer.MAX_VALUE;
+
+    /**
+     * Size at which the readers are pruned before adding another one.
+     */
+    private int pruneReaders = PRUNE_SIZE;
+
+    /**
+     * Size at which the writers are pruned before adding another one.
+     */
+    private int pruneWriters = PRUNE_SIZE;
+
+    /**
+     * @param elements
+     *            How many elements the buffer must hold.
+     * @param executor
+     *            Where to complete the future.
+     *
+     * @return Future that completes when the buffer holds enough elements.
+     */
+    final CompletableFuture<Void> awaitReadable(int elements, Executor executor) {
+        Waiter waiter = new Waiter(elements, executor);
+
+        if (readers.size() >= pruneReaders) {
+            minimumReadable = prune(readers);
+            pruneReaders = Math.max(readers.size() * 2, PRUNE_SIZE);
+        }
+
+        readers.add(waiter);
+        minimumReadable = Math.min(minimumReadable, elements);
+
+        return waiter.future;
+    }
+
+    /**
+     * @param bytes
+     *            How many bytes must be free.
+     * @param executor
+     *            Where to complete the future.
+     *
+     * @return Future that completes when the buffer has enough free space.
+     */
+    final CompletableFuture<Void> awaitWritable(int bytes, Executor executor) {
+        Waiter waiter = new Waiter(bytes, executor);
+
+        if (writers.size() >= pruneWriters) {
+            minimumWritable = prune(writers);
+            pruneWriters = Math.max(writers.size() * 2, PRUNE_SIZE);
+        }
+
+        writers.add(waiter);
+        minimumWritable = Math.min(minimumWritable, bytes);
+
+        return waiter.future;
+    }
+
+    /**
+     * Completes every future that no longer has to wait.
+     *
+     * @param used
+     *            How many elements the buffer holds now.
+     * @param free
+     *            How many bytes are free now.
+     */
+    final void changed(int used, int free) {
+        if (used >= minimumReadable) {
+            minimumReadable = complete(readers, used);
+        }
+
+        if (free >= minimumWritable) {
+            minimumWritable = complete(writers, free);
+        }
+    }
+
+    /**
+     * Removes every waiter whose future was cancelled, however long the lists are.
+     */
+    final void prune() {
+        minimumReadable = prune(readers);
+        minimumWritable = prune(writers);
+    }
+
+    /**
+     * @return How many futures are kept, including cancelled ones that were not removed yet.
+     */
+    final int pending() {
+        return readers.size() + writers.size();
+    }
+
+    /**
+     * Removes the waiters whose futures were cancelled.
+     *
+     * @param waiters
+     *            Readers or writers.
+     *
+     * @return Smallest amount that the remaining waiters wait for.
+     */
+    private static int prune(List<Waiter> waiters) {
+        int minimum = Integer.MAX_VALUE;
+
+        for (Iterator<Waiter> it = waiters.iterator(); it.hasNext();) {
+            Waiter waiter = it.next();
+
+            if (waiter.future.isDone()) {
+                it.remove();
+            } else {
+                minimum = Math.min(minimum, waiter.amount);
+            }
+        }
+
+        return minimum;
+    }
+
+    /**
+     * @param waiters
+     *            Readers or writers.
+     * @param available
+     *            What the buffer has now.
+     *
+     * @return Smallest amount that the remaining waiters wait for.
+     */
+    private static int complete(List<Waiter> waiters, int available) {
+        int minimum = Integer.MAX_VALUE;
+
+        for (Iterator<Waiter> it = waiters.iterator(); it.hasNext();) {
+            Waiter waiter = it.next();
+
+            if (waiter.future.isDone()) {
+                // Was cancelled.
+                it.remove();
+            } else if (waiter.amount <= available) {
+                it.remove();
+                waiter.complete();
+            } else {
+                minimum = Math.min(minimum, waiter.amount);
+            }
+        }
+
+        return minimum;
+    }
+
+    /**
+     * A future and what it waits for.
+     */
+    private static final class Waiter implements Runnable {
+        private final int amount;
+
+        private final Executor executor;
+
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        Waiter(int amount, Executor executor) {
+            this.amount = amount;
+            this.executor = executor;
+        }
+
+        /**
+         * Hands the completion to the executor so that callbacks never run inside a buffer operation.
+         */
+        final void complete() {
+            try {
+                executor.execute(this);
+            } catch (RuntimeException e) {
+                future.completeExceptionally(e);
+            }
+        }
+
+        @Override
+        public final void run() {
+            future.complete(null);
+        }
+    }
+}
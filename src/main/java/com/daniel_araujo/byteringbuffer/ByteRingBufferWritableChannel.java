@@ -0,0 +1,153 @@
+package com.daniel_araujo.byteringbuffer;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.WritableByteChannel;
+import java.util.Objects;
+
+/**
+ * Adds bytes written to a {@link WritableByteChannel} to a ring buffer.
+ * <p>
+ * Over a {@link ByteRingBuffer} the channel behaves like a channel in non-blocking mode: it adds as many bytes as fit
+ * in the free space, copying them straight into the array of the buffer, and returns how many that was. Over a
+ * {@link BlockingByteRingBuffer} writes wait until every byte was added and closing the channel closes the buffer,
+ * which tells the consumer that no more bytes are coming.
+ */
+public final class ByteRingBufferWritableChannel implements WritableByteChannel {
+    /**
+     * Bytes of a direct source are copied to the blocking buffer through an array of up to this size.
+     */
+    private static final int TRANSFER_SIZE = 8192;
+
+    /**
+     * Destination when the channel does not wait. Is null otherwise.
+     */
+    private final ByteRingBuffer buffer;
+
+    /**
+     * Destination when the channel waits. Is null otherwise.
+     */
+    private final BlockingByteRingBuffer blocking;
+
+    /**
+     * Copies from the source of the current write into the free space.
+     */
+    private final ByteRingBuffer.PushCallback copier = new ByteRingBuffer.PushCallback() {
+        @Override
+        public void borrow(ByteBuffer chunk) {
+            int copying = Math.min(chunk.remaining(), src.remaining());
+            int limit = src.limit();
+
+            ((Buffer) src).limit(src.position() + copying);
+            chunk.put(src);
+            ((Buffer) src).limit(limit);
+        }
+    };
+
+    /**
+     * Source of the current write. Only set during write.
+     */
+    private ByteBuffer src;
+
+    /**
+     * Array used to copy direct sources to the blocking buffer. Is null until it is needed.
+     */
+    private byte[] transfer;
+
+    private boolean open = true;
+
+    /**
+     * Creates a channel that never waits.
+     *
+     * @param buffer
+     *            Where bytes are added.
+     */
+    public ByteRingBufferWritableChannel(ByteRingBuffer buffer) {
+        this.buffer = Objects.requireNonNull(buffer);
+        this.blocking = null;
+    }
+
+    /**
+     * Creates a channel that waits for free space. It must be the only producer of the buffer.
+     *
+     * @param buffer
+     *            Where bytes are added.
+     */
+    public ByteRingBufferWritableChannel(BlockingByteRingBuffer buffer) {
+        this.buffer = null;
+        this.blocking = Objects.requireNonNull(buffer);
+    }
+
+    /**
+     * @return Number of bytes written. When the channel does not wait it may be less than the remaining bytes of the
+     *         source, or even 0, if the buffer does not have enough free space.
+     *
+     * @throws ClosedByInterruptException
+     *             If the thread is interrupted while waiting. The channel is closed. Some of the bytes may have been
+     *             added.
+     */
+    @Override
+    public final int write(ByteBuffer src) throws IOException {
+        Objects.requireNonNull(src);
+
+        if (!open) {
+            throw new ClosedChannelException();
+        }
+
+        if (buffer != null) {
+            this.src = src;
+
+            try {
+                return buffer.push(copier);
+            } finally {
+                this.src = null;
+            }
+        }
+
+        int length = src.remaining();
+
+        try {
+            if (src.hasArray()) {
+                blocking.pushFully(src.array(), src.arrayOffset() + src.position(), length);
+                ((Buffer) src).position(src.limit());
+            } else {
+                if (transfer == null) {
+                    transfer = new byte[Math.min(TRANSFER_SIZE, blocking.sizeTotal())];
+                }
+
+                while (src.hasRemaining()) {
+                    int copying = Math.min(src.remaining(), transfer.length);
+
+                    src.get(transfer, 0, copying);
+                    blocking.pushFully(transfer, 0, copying);
+                }
+            }
+        } catch (InterruptedException e) {
+            open = false;
+            Thread.currentThread().interrupt();
+            throw new ClosedByInterruptException();
+        }
+
+        return length;
+    }
+
+    @Override
+    public final boolean isOpen() {
+        return open;
+    }
+
+    /**
+     * Further writes throw an exception. When the channel waits, the buffer is closed too.
+     */
+    @Override
+    public final void close() {
+        if (open && blocking != null) {
+            blocking.close();
+        }
+
+        open = false;
+    }
+}
@@ -0,0 +1,583 @@
+package com.daniel_araujo.byteringbuffer;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.channels.ScatteringByteChannel;
+import java.util.Objects;
+
+/**
+ * A ring buffer backed by a direct ByteBuffer. Elements are stored outside of the Java heap so chunks handed out by
+ * {@link #peek(ByteRingBuffer.PeekCallback)} can be written to NIO channels without an intermediate copy.
+ */
+public final class DirectByteRingBuffer {
+    /**
+     * Elements are stored here as bytes. Its position and limit are never touched.
+     */
+    private final ByteBuffer buffer;
+
+    /**
+     * Views of buffer that are handed out as chunks. They are reused by every call so that reading and writing do not
+     * allocate. There are two because the elements and the free space may be split in two parts.
+     */
+    private final ByteBuffer firstView;
+
+    private final ByteBuffer secondView;
+
+    /**
+     * Both views, for gathering and scattering channel calls.
+     */
+    private final ByteBuffer[] views;
+
+    /**
+     * How many bytes can be stored in total.
+     */
+    private final int capacity;
+
+    /**
+     * The index of the first element in buffer.
+     */
+    private int start;
+
+    /**
+     * Number of used bytes in buffer.
+     */
+    private int size;
+
+    /**
+     * Creates a ring buffer that can store up to the given number of bytes in newly allocated direct memory.
+     *
+     * @param capacity
+     *            How many bytes can be stored in the buffer.
+     */
+    public DirectByteRingBuffer(int capacity) {
+        this(ByteBuffer.allocateDirect(capacity));
+    }
+
+    /**
+     * Creates a ring buffer that stores its elements in the given direct buffer. The bytes between its position and
+     * its limit will be used. The buffer must not be modified by anyone else while the ring buffer is in use.
+     *
+     * @param storage
+     *            A direct buffer.
+     *
+     * @throws IllegalArgumentException
+     *             If the buffer is not direct.
+     */
+    public DirectByteRingBuffer(ByteBuffer storage) {
+        Objects.requireNonNull(storage);
+
+        if (!storage.isDirect()) {
+            throw new IllegalArgumentException("Buffer must be direct.");
+        }
+
+        buffer = storage.slice();
+        capacity = buffer.capacity();
+        firstView = buffer.duplicate();
+        secondView = buffer.duplicate();
+        views = new ByteBuffer[] { firstView, secondView };
+    }
+
+    /**
+     * Creates a ring buffer over memory that already contains elements.
+     *
+     * @param storage
+     *            A direct buffer.
+     * @param start
+     *            The index of the first element in the storage.
+     * @param size
+     *            Number of elements in the storage.
+     */
+    DirectByteRingBuffer(ByteBuffer storage, int start, int size) {
+        this(storage);
+
+        this.start = start;
+        this.size = size;
+    }
+
+    /**
+     * @return The index of the first element in the storage.
+     */
+    final int start() {
+        return start;
+    }
+
+    /**
+     * @return How many bytes are stored in the buffer.
+     */
+    public final int sizeUsed() {
+        return size;
+    }
+
+    /**
+     * @return How many bytes can be stored in the buffer in total.
+     */
+    public final int sizeTotal() {
+        return capacity;
+    }
+
+    /**
+     * @return How many bytes are free in the buffer.
+     */
+    public final int sizeFree() {
+        return sizeTotal() - sizeUsed();
+    }
+
+    /**
+     * Adds elements to the end of the buffer.
+     *
+     * @param bytes
+     *            Adds entire array to buffer.
+     *
+     * @return Number of bytes added. It may not insert every element when the buffer has not enough free space.
+     */
+    public final int push(byte... bytes) {
+        Objects.requireNonNull(bytes);
+
+        return push(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Adds elements to the end of the buffer.
+     *
+     * @param bytes
+     *            Array that contains elements to be added.
+     * @param index
+     *            Where to begin extracting elements.
+     *
+     * @return Number of bytes added. It may not insert every element when the buffer has not enough free space.
+     */
+    public final int push(byte[] bytes, int index) {
+        Objects.requireNonNull(bytes);
+
+        return push(bytes, index, bytes.length - index);
+    }
+
+    /**
+     * Adds elements to the end of the buffer.
+     *
+     * @param bytes
+     *            Array that contains elements to be added.
+     * @param index
+     *            Where to begin extracting elements.
+     * @param length
+     *            How many elements to extract.
+     *
+     * @return Number of bytes added. It may not insert every element when the buffer has not enough free space.
+     */
+    public final int push(byte[] bytes, int index, int length) {
+        Objects.requireNonNull(bytes);
+
+        int copying = Math.min(length, sizeFree());
+
+        if (copying == 0) {
+            return 0;
+        }
+
+        write(nextOffset(), bytes, index, copying);
+        size += copying;
+
+        return copying;
+    }
+
+    /**
+     * This version of the push method will overrun. This means that if the buffer is full then the oldest elements will
+     * be overwritten by the newest ones.
+     *
+     * @param bytes
+     *            Adds entire array to buffer.
+     */
+    public final void overrunPush(byte... bytes) {
+        Objects.requireNonNull(bytes);
+
+        overrunPush(bytes, 0, bytes.length);
+    }
+
+    /**
+     * This version of the push method will overrun. This means that if the buffer is full then the oldest elements will
+     * be overwritten by the newest ones.
+     *
+     * @param bytes
+     *            Array that contains elements to be added.
+     * @param index
+     *            Where to begin extracting elements.
+     */
+    public final void overrunPush(byte[] bytes, int index) {
+        Objects.requireNonNull(bytes);
+
+        overrunPush(bytes, index, bytes.length - index);
+    }
+
+    /**
+     * This version of the push method will overrun. This means that if the buffer is full then the oldest elements will
+     * be overwritten by the newest ones.
+     *
+     * @param bytes
+     *            Array that contains elements to be added.
+     * @param index
+     *            Where to begin extracting elements.
+     * @param length
+     *            How many elements to extract.
+     */
+    public final void overrunPush(byte[] bytes, int index, int length) {
+        Objects.requireNonNull(bytes);
+
+        if (capacity == 0 || length == 0) {
+            return;
+        }
+
+        // Elements that would be overwritten by the same call are never written.
+        int skip = Math.max(length - capacity, 0);
+        int writing = length - skip;
+        int offset = (int) (((long) nextOffset() + skip) % capacity);
+
+        write(offset, bytes, index + skip, writing);
+
+        int newSize = Math.min(size + writing, capacity);
+        start = (int) (((long) offset + writing - newSize + capacity) % capacity);
+        size = newSize;
+    }
+
+    /**
+     * Retrieves elements from the buffer.
+     *
+     * @param length
+     *            How many elements to retrieve.
+     *
+     * @return Array of elements retrieved. Length may be less than requested if buffer doesn't have enough elements.
+     */
+    public final byte[] peek(int length) {
+        int sizeUsed = sizeUsed();
+
+        if (length > sizeUsed) {
+            length = sizeUsed;
+        }
+
+        byte[] bytes = new byte[length];
+
+        peek(bytes);
+
+        return bytes;
+    }
+
+    /**
+     * Retrieves elements from the buffer and stores them in another array.
+     *
+     * @param bytes
+     *            Where elements will be stored. The size of the array indicates how many elements will be retrieved.
+     *
+     * @return Number of elements that were copied.
+     */
+    public final int peek(byte[] bytes) {
+        Objects.requireNonNull(bytes);
+
+        return peek(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Retrieves elements from the buffer and stores them in another array.
+     *
+     * @param bytes
+     *            Where elements will be stored.
+     * @param index
+     *            Where to start placing elements in the given array.
+     * @param length
+     *            How many elements to copy.
+     *
+     * @return Number of elements that were copied.
+     */
+    public final int peek(byte[] bytes, int index, int length) {
+        Objects.requireNonNull(bytes);
+
+        int copying = Math.min(length, size);
+
+        if (copying == 0) {
+            return 0;
+        }
+
+        int firstHalfSize = Math.min(copying, capacity - start);
+
+        view(firstView, start, firstHalfSize).get(bytes, index, firstHalfSize);
+        if (firstHalfSize != copying) {
+            view(secondView, 0, copying - firstHalfSize).get(bytes, index + firstHalfSize, copying - firstHalfSize);
+        }
+
+        return copying;
+    }
+
+    /**
+     * Retrieves elements from the buffer and places them in a ByteBuffer.
+     *
+     * @param byteBuffer
+     *            Destination. The remaining size of the buffer indicates how many elements to retrieved.
+     *
+     * @return Number of elements placed into the given ByteBuffer object.
+     */
+    public final int peek(ByteBuffer byteBuffer) {
+        int length = byteBuffer.limit() - byteBuffer.position();
+        return peek(byteBuffer, length);
+    }
+
+    /**
+     * Retrieves elements from the buffer and places them in a ByteBuffer. The position of the ByteBuffer is not
+     * changed.
+     *
+     * @param byteBuffer
+     *            Destination.
+     * @param length
+     *            How many elements to retrieve.
+     *
+     * @return Number of elements placed into the given ByteBuffer object.
+     */
+    public final int peek(ByteBuffer byteBuffer, int length) {
+        int copying = Math.min(length, size);
+        int position = byteBuffer.position();
+        int firstHalfSize = Math.min(copying, capacity - start);
+
+        byteBuffer.put(view(firstView, start, firstHalfSize));
+        if (firstHalfSize != copying) {
+            byteBuffer.put(view(secondView, 0, copying - firstHalfSize));
+        }
+
+        ((Buffer) byteBuffer).position(position);
+
+        return copying;
+    }
+
+    /**
+     * Retrieves elements from the buffer with indirect access. The chunks are direct buffers that share memory with the
+     * ring buffer. They are reused by later calls, so they must not be kept after borrow returns and the callback must
+     * not call the ring buffer.
+     *
+     * @param cb
+     *            The borrow method will be called at least once. It will be called if the buffer is empty.
+     */
+    public final void peek(ByteRingBuffer.PeekCallback cb) {
+        int firstHalfSize = Math.min(size, capacity - start);
+
+        cb.borrow(view(firstView, start, firstHalfSize));
+        if (firstHalfSize != size) {
+            cb.borrow(view(secondView, 0, size - firstHalfSize));
+        }
+    }
+
+    /**
+     * Removes elements from the buffer and returns them.
+     *
+     * @param length
+     *            How many elements to remove.
+     *
+     * @return Array of removed elements. May not remove the same number of elements as requested if the buffer did not
+     *         have that many to begin with.
+     */
+    public final byte[] pop(int length) {
+        int sizeUsed = sizeUsed();
+
+        if (length > sizeUsed) {
+            length = sizeUsed;
+        }
+
+        byte[] bytes = new byte[length];
+
+        pop(bytes);
+
+        return bytes;
+    }
+
+    /**
+     * Moves elements from the buffer to the given array.
+     *
+     * @param bytes
+     *            The destination array. Its size determines how many elements to remove.
+     *
+     * @return Number of elements removed. It may be less than the size of the given array if the buffer does not have
+     *         enough elements to fill the array.
+     */
+    public final int pop(byte[] bytes) {
+        return pop(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Moves elements from the buffer to the given array.
+     *
+     * @param bytes
+     *            The destination array. Its size determines how many elements to remove.
+     * @param index
+     *            Where to begin placing elements in the array.
+     *
+     * @return Number of elements removed.
+     */
+    public final int pop(byte[] bytes, int index) {
+        return pop(bytes, index, bytes.length - index);
+    }
+
+    /**
+     * Moves elements from the buffer to the given array.
+     *
+     * @param bytes
+     *            The destination array.
+     * @param index
+     *            Where to begin placing elements in the array.
+     * @param length
+     *            How many elements to remove.
+     *
+     * @return Number of elements removed. It may be less than the size of the provided length if the buffer does not
+     *         have enough elements to fill the array.
+     */
+    public final int pop(byte[] bytes, int index, int length) {
+        int read = peek(bytes, index, length);
+        drop(read);
+        return read;
+    }
+
+    /**
+     * Removes elements from the buffer.
+     *
+     * @param elements
+     *            Number of elements to remove.
+     */
+    public final void drop(int elements) {
+        int toDrop = Math.min(elements, size);
+
+        if (toDrop <= 0) {
+            return;
+        }
+
+        start = (int) (((long) start + toDrop) % capacity);
+        size -= toDrop;
+    }
+
+    /**
+     * Writes elements to a channel and removes the ones that were written. Both parts of the buffer are handed to the
+     * channel in a single call.
+     *
+     * @param channel
+     *            Destination. May be in non-blocking mode.
+     *
+     * @return Number of elements written and removed. May be 0 if the buffer is empty or if the channel could not
+     *         accept any bytes.
+     *
+     * @throws IOException
+     *             If the channel fails. No elements are removed.
+     */
+    public final int writeTo(GatheringByteChannel channel) throws IOException {
+        Objects.requireNonNull(channel);
+
+        if (size == 0) {
+            return 0;
+        }
+
+        int firstHalfSize = Math.min(size, capacity - start);
+        ByteBuffer first = view(firstView, start, firstHalfSize);
+
+        long written;
+        if (firstHalfSize == size) {
+            written = channel.write(first);
+        } else {
+            view(secondView, 0, size - firstHalfSize);
+            written = channel.write(views);
+        }
+
+        drop((int) written);
+
+        return (int) written;
+    }
+
+    /**
+     * Reads bytes from a channel into the free space of the buffer. Both free parts of the buffer are handed to the
+     * channel in a single call.
+     *
+     * @param channel
+     *            Source. May be in non-blocking mode.
+     *
+     * @return Number of elements added. May be 0 if the buffer is full or if the channel had no bytes available. Is -1
+     *         if the channel has reached end-of-stream.
+     *
+     * @throws IOException
+     *             If the channel fails.
+     */
+    public final int readFrom(ScatteringByteChannel channel) throws IOException {
+        Objects.requireNonNull(channel);
+
+        int free = sizeFree();
+
+        if (free == 0) {
+            return 0;
+        }
+
+        int offset = nextOffset();
+        int firstHalfSize = Math.min(free, capacity - offset);
+        ByteBuffer first = view(firstView, offset, firstHalfSize);
+
+        long read;
+        if (firstHalfSize == free) {
+            read = channel.read(first);
+        } else {
+            view(secondView, 0, free - firstHalfSize);
+            read = channel.read(views);
+        }
+
+        if (read > 0) {
+            size += (int) read;
+        }
+
+        return (int) read;
+    }
+
+    /**
+     * Removes every element from the buffer. The buffer will go back to its initial state.
+     */
+    public final void clear() {
+        start = 0;
+        size = 0;
+    }
+
+    /**
+     * Copies elements into the buffer, wrapping around when the end is reached. Does not update start or size.
+     *
+     * @param offset
+     *            Where to start placing elements in the buffer.
+     * @param bytes
+     *            Array that contains elements to be added.
+     * @param index
+     *            Where to begin extracting elements.
+     * @param length
+     *            How many elements to copy. Must not be greater than the capacity.
+     */
+    private final void write(int offset, byte[] bytes, int index, int length) {
+        int firstHalfSize = Math.min(length, capacity - offset);
+
+        view(firstView, offset, firstHalfSize).put(bytes, index, firstHalfSize);
+        if (firstHalfSize != length) {
+            view(secondView, 0, length - firstHalfSize).put(bytes, index + firstHalfSize, length - firstHalfSize);
+        }
+    }
+
+    /**
+     * Points one of the views at a region of the buffer.
+     *
+     * @param view
+     *            Either firstView or secondView.
+     * @param offset
+     *            Position in the buffer.
+     * @param length
+     *            Number of bytes.
+     *
+     * @return The view, with its position and limit around the given region.
+     */
+    private final ByteBuffer view(ByteBuffer view, int offset, int length) {
+        // The casts keep the bytecode compatible with Java 7 and 8, where these methods return Buffer.
+        ((Buffer) view).limit(offset + length);
+        ((Buffer) view).position(offset);
+
+        return view;
+    }
+
+    /**
+     * @return The position from where to start placing new elements into the buffer.
+     */
+    private final int nextOffset() {
+        return (int) (((long) start + size) % capacity);
+    }
+}
@@ -0,0 +1,284 @@
+package com.daniel_araujo.byteringbuffer;
+
+import java.util.Objects;
+
+/**
+ * A ring buffer that starts small and grows when a push does not fit, up to a maximum capacity. It shrinks again after
+ * it has been almost empty for a while. When and by how much is decided by a {@link ResizePolicy}.
+ * <p>
+ * Resizing allocates a new {@link ByteRingBuffer} and copies the elements to the beginning of it, so they no longer
+ * wrap around. Shrinking is only considered when elements are removed and when {@link #trim()} is called. A buffer that
+ * nobody touches keeps its capacity, so call trim from time to time if that matters.
+ */
+public final class ElasticByteRingBuffer {
+    /**
+     * The buffer never shrinks below this.
+     */
+    private final int initialCapacity;
+
+    /**
+     * The buffer never grows above this.
+     */
+    private final int maximumCapacity;
+
+    private final ResizePolicy policy;
+
+    /**
+     * Where the elements are stored. Replaced on every resize.
+     */
+    private ByteRingBuffer buffer;
+
+    /**
+     * Creates a buffer that doubles its capacity when needed and halves it after it has been at most a quarter full
+     * for one second.
+     *
+     * @param initialCapacity
+     *            Capacity to start with. The buffer never shrinks below it.
+     * @param maximumCapacity
+     *            The buffer never grows above it.
+     *
+     * @throws IllegalArgumentException
+     *             If the initial capacity is larger than the maximum capacity.
+     */
+    public ElasticByteRingBuffer(int initialCapacity, int maximumCapacity) {
+        this(initialCapacity, maximumCapacity, new GeometricResizePolicy());
+    }
+
+    /**
+     * @param initialCapacity
+     *            Capacity to start with. The buffer never shrinks below it.
+     * @param maximumCapacity
+     *            The buffer never grows above it.
+     * @param policy
+     *            Decides when and by how much the capacity changes. Must not be shared with other buffers.
+     *
+     * @throws IllegalArgumentException
+     *             If the initial capacity is larger than the maximum capacity.
+     */
+    public ElasticByteRingBuffer(int initialCapacity, int maximumCapacity, ResizePolicy policy) {
+        Objects.requireNonNull(policy);
+
+        if (initialCapacity > maximumCapacity) {
+            throw new IllegalArgumentException("Initial capacity must not be larger than maximum capacity.");
+        }
+
+        this.buffer = new ByteRingBuffer(initialCapacity);
+        this.initialCapacity = initialCapacity;
+        this.maximumCapacity = maximumCapacity;
+        this.policy = policy;
+    }
+
+    /**
+     * @return How many bytes are stored in the buffer.
+     */
+    public final int sizeUsed() {
+        return buffer.sizeUsed();
+    }
+
+    /**
+     * @return How many bytes can be stored in the buffer before it has to grow.
+     */
+    public final int sizeTotal() {
+        return buffer.sizeTotal();
+    }
+
+    /**
+     * @return How many bytes are free in the buffer before it has to grow.
+     */
+    public final int sizeFree() {
+        return buffer.sizeFree();
+    }
+
+    /**
+     * @return How many bytes the buffer can grow to.
+     */
+    public final int sizeMaximum() {
+        return maximumCapacity;
+    }
+
+    /**
+     * Adds elements to the end of the buffer, growing it if they do not fit.
+     *
+     * @param bytes
+     *            Adds entire array to buffer.
+     *
+     * @return Number of bytes added. It is less than the length of the array only if the buffer can't grow enough.
+     */
+    public final int push(byte... bytes) {
+        Objects.requireNonNull(bytes);
+
+        return push(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Adds elements to the end of the buffer, growing it if they do not fit.
+     *
+     * @param bytes
+     *            Array that contains elements to be added.
+     * @param index
+     *            Where to begin extracting elements.
+     * @param length
+     *            How many elements to extract.
+     *
+     * @return Number of bytes added. It is less than length only if the buffer can't grow enough.
+     *
+     * @throws IndexOutOfBoundsException
+     *             If index and length do not describe a range of the array. The buffer does not grow in that case.
+     */
+    public final int push(byte[] bytes, int index, int length) {
+        checkRange(bytes, index, length);
+        ensureFree(length);
+
+        return buffer.push(bytes, index, length);
+    }
+
+    /**
+     * Adds elements to the end of the buffer, growing it if they do not fit. If the buffer can't grow enough then the
+     * oldest elements will be overwritten.
+     *
+     * @param bytes
+     *            Array that contains elements to be added.
+     * @param index
+     *            Where to begin extracting elements.
+     * @param length
+     *            How many elements to extract.
+     *
+     * @throws IndexOutOfBoundsException
+     *             If index and length do not describe a range of the array. The buffer does not grow in that case.
+     */
+    public final void overrunPush(byte[] bytes, int index, int length) {
+        checkRange(bytes, index, length);
+        ensureFree(length);
+
+        buffer.overrunPush(bytes, index, length);
+    }
+
+    /**
+     * Retrieves elements from the buffer.
+     *
+     * @param bytes
+     *            Where elements will be stored.
+     * @param index
+     *            Where to start placing elements in the given array.
+     * @param length
+     *            How many elements to copy.
+     *
+     * @return Number of elements that were copied.
+     */
+    public final int peek(byte[] bytes, int index, int length) {
+        return buffer.peek(bytes, index, length);
+    }
+
+    /**
+     * Retrieves elements from the buffer with indirect access.
+     *
+     * @param cb
+     *            The borrow method will be called at least once. It will be called if the buffer is empty.
+     */
+    public final void peek(ByteRingBuffer.PeekCallback cb) {
+        buffer.peek(cb);
+    }
+
+    /**
+     * Moves elements from the buffer to the given array and considers shrinking the buffer.
+     *
+     * @param bytes
+     *            The destination array.
+     * @param index
+     *            Where to begin placing elements in the array.
+     * @param length
+     *            How many elements to remove.
+     *
+     * @return Number of elements removed.
+     */
+    public final int pop(byte[] bytes, int index, int length) {
+        int removed = buffer.pop(bytes, index, length);
+
+        trim();
+
+        return removed;
+    }
+
+    /**
+     * Removes elements from the buffer and considers shrinking the buffer.
+     *
+     * @param elements
+     *            Number of elements to remove.
+     */
+    public final void drop(int elements) {
+        buffer.drop(elements);
+
+        trim();
+    }
+
+    /**
+     * Removes every element from the buffer and considers shrinking the buffer.
+     */
+    public final void clear() {
+        buffer.clear();
+
+        trim();
+    }
+
+    /**
+     * Asks the resize policy whether the buffer should shrink and shrinks it if so.
+     */
+    public final void trim() {
+        int capacity = buffer.sizeTotal();
+
+        if (capacity <= initialCapacity) {
+            // Can't shrink, so the policy is not asked. That spares it from reading the clock on every pop.
+            return;
+        }
+
+        int used = buffer.sizeUsed();
+        int shrunk = Math.max(Math.max(policy.shrink(capacity, used), initialCapacity), used);
+
+        if (shrunk < capacity) {
+            resize(shrunk);
+        }
+    }
+
+    /**
+     * Makes sure that a push reads only from the given array.
+     */
+    private static void checkRange(byte[] bytes, int index, int length) {
+        Objects.requireNonNull(bytes);
+
+        if (index < 0 || length < 0 || length > bytes.length - index) {
+            throw new IndexOutOfBoundsException();
+        }
+    }
+
+    /**
+     * Grows the buffer if it does not have the given number of free bytes.
+     *
+     * @param length
+     *            How many bytes are about to be pushed.
+     */
+    private final void ensureFree(int length) {
+        int capacity = buffer.sizeTotal();
+
+        if (length <= buffer.sizeFree() || capacity >= maximumCapacity) {
+            return;
+        }
+
+        int required = (int) Math.min((long) buffer.sizeUsed() + length, maximumCapacity);
+        int grown = Math.min(Math.max(policy.grow(capacity, required), required), maximumCapacity);
+
+        resize(grown);
+    }
+
+    /**
+     * Moves every element to a new buffer. They end up at the beginning of it, so they no longer wrap around.
+     *
+     * @param capacity
+     *            Capacity of the new buffer. Must fit every element.
+     */
+    private final void resize(int capacity) {
+        ByteRingBuffer resized = new ByteRingBuffer(capacity);
+
+        buffer.transferTo(resized, buffer.sizeUsed());
+        buffer = resized;
+    }
+}
@@ -0,0 +1,40 @@
+package com.daniel_araujo.byteringbuffer;
+
+/**
+ * Thrown when reading a position whose byte has already been removed from the buffer or overwritten by an overrunning
+ * push.
+ */
+public final class EvictedPositionException extends IndexOutOfBoundsException {
+    private static final long serialVersionUID = 1L;
+
+    private final long position;
+
+    private final long oldestPosition;
+
+    /**
+     * @param position
+     *            The position that was requested.
+     * @param oldestPosition
+     *            The oldest position that was still available.
+     */
+    public EvictedPositionException(long position, long oldestPosition) {
+        super("Position " + position + " has been evicted. The oldest available position is " + oldestPosition + ".");
+        this.position = position;
+        this.oldestPosition = oldestPosition;
+    }
+
+    /**
+     * @return The position that was requested.
+     */
+    public final long position() {
+        return position;
+    }
+
+    /**
+     * @return The oldest position that was still available. How many bytes were missed is the difference between this
+     *         and the requested position.
+     */
+    public final long oldestPosition() {
+        return oldestPosition;
+    }
+}
@@ -0,0 +1,74 @@
+package com.daniel_araujo.byteringbuffer;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+
+/**
+ * Memory fences for code that reads bytes while they may be overwritten and for code that wakes up waiting threads.
+ * Java 8 has no public API for them, so this version calls the fences of sun.misc.Unsafe. On Java 9 and later it is
+ * replaced by a version that uses VarHandle.
+ */
+final class Fences {
+    private static final MethodHandle STORE_FENCE;
+
+    private static final MethodHandle LOAD_FENCE;
+
+    private static final MethodHandle FULL_FENCE;
+
+    static {
+        try {
+            Class<?> type = Class.forName("sun.misc.Unsafe");
+            Field field = type.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            Object unsafe = field.get(null);
+
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            MethodType fence = MethodType.methodType(void.class);
+            STORE_FENCE = lookup.findVirtual(type, "storeFence", fence).bindTo(unsafe);
+            LOAD_FENCE = lookup.findVirtual(type, "loadFence", fence).bindTo(unsafe);
+            FULL_FENCE = lookup.findVirtual(type, "fullFence", fence).bindTo(unsafe);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private Fences() {
+    }
+
+    /**
+     * Stores before the fence are not reordered with stores after it.
+     */
+    static void storeStore() {
+        try {
+            STORE_FENCE.invokeExact();
+        } catch (Throwable e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    /**
+     * Loads before the fence are not reordered with loads after it.
+     */
+    static void loadLoad() {
+        try {
+            LOAD_FENCE.invokeExact();
+        } catch (Throwable e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    /**
+     * Loads and stores before the fence are not reordered with loads and stores after it. A wait strategy calls it
+     * between the change to the buffer and looking for waiters. A waiter registers itself and then checks the buffer,
+     * so either the waiter sees the change or the strategy sees the waiter.
+     */
+    static void full() {
+        try {
+            FULL_FENCE.invokeExact();
+        } catch (Throwable e) {
+            throw new AssertionError(e);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.daniel_araujo.byteringbuffer;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Multiplies the capacity by a factor until a push fits and divides it by the same factor once the buffer has been
+ * almost empty for a while.
+ */
+public final class GeometricResizePolicy implements ResizePolicy {
+    private final int factor;
+
+    /**
+     * Occupancy at or below which the buffer counts as almost empty, from 0 to 1.
+     */
+    private final double lowOccupancy;
+
+    /**
+     * How long the buffer must stay almost empty before it shrinks.
+     */
+    private final long idleNanos;
+
+    /**
+     * Whether the buffer was almost empty the last time it was looked at.
+     */
+    private boolean low;
+
+    /**
+     * When the buffer became almost empty. Only meaningful while low is true.
+     */
+    private long lowSince;
+
+    /**
+     * Doubles the capacity when needed and halves it after it has been at most a quarter full for one second.
+     */
+    public GeometricResizePolicy() {
+        this(2, 0.25, 1, TimeUnit.SECONDS);
+    }
+
+    /**
+     * @param factor
+     *            By how much the capacity is multiplied when growing and divided when shrinking.
+     * @param lowOccupancy
+     *            Fraction of the capacity at or below which the buffer counts as almost empty.
+     * @param idle
+     *            How long the buffer must stay almost empty before it shrinks.
+     * @param unit
+     *            Unit of idle.
+     *
+     * @throws IllegalArgumentException
+     *             If factor is less than 2, lowOccupancy is not between 0 and 1 or idle is negative.
+     */
+    public GeometricResizePolicy(int factor, double lowOccupancy, long idle, TimeUnit unit) {
+        Objects.requireNonNull(unit);
+
+        if (factor < 2) {
+            throw new IllegalArgumentException("Factor must be at least 2.");
+        }
+
+        if (!(lowOccupancy >= 0 && lowOccupancy <= 1)) {
+            throw new IllegalArgumentException("Low occupancy must be between 0 and 1.");
+        }
+
+        if (idle < 0) {
+            throw new IllegalArgumentException("Idle period must not be negative.");
+        }
+
+        this.factor = factor;
+        this.lowOccupancy = lowOccupancy;
+        this.idleNanos = unit.toNanos(idle);
+    }
+
+    @Override
+    public final int grow(int capacity, int required) {
+        long grown = Math.max(capacity, 1);
+
+        while (grown < required) {
+            grown *= factor;
+        }
+
+        low = false;
+
+        return (int) Math.min(grown, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public final int shrink(int capacity, int used) {
+        if (used > capacity * lowOccupancy) {
+            low = false;
+            return capacity;
+        }
+
+        long now = System.nanoTime();
+
+        if (!low) {
+            low = true;
+            lowSince = now;
+            return capacity;
+        }
+
+        if (now - lowSince < idleNanos) {
+            return capacity;
+        }
+
+        // Another period has to pass before shrinking again.
+        lowSince = now;
+
+        return capacity / factor;
+    }
+}
@@ -0,0 +1,63 @@
+package com.daniel_araujo.byteringbuffer;
+
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Waits on a condition of a lock. Uses no CPU while waiting. Only takes the lock to signal when a thread is waiting.
+ */
+public final class LockingWaitStrategy implements WaitStrategy {
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Condition changed = lock.newCondition();
+
+    /**
+     * How many threads are waiting. Only changed while holding the lock.
+     */
+    private volatile int waiters;
+
+    @Override
+    public final boolean await(Predicate predicate, long nanos) throws InterruptedException {
+        if (predicate.test()) {
+            return true;
+        }
+
+        lock.lockInterruptibly();
+
+        try {
+            waiters++;
+
+            while (!predicate.test()) {
+                if (nanos == Long.MAX_VALUE) {
+                    changed.await();
+                } else if (nanos <= 0) {
+                    return false;
+                } else {
+                    nanos = changed.awaitNanos(nanos);
+                }
+            }
+
+            return true;
+        } finally {
+            waiters--;
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public final void signalAll() {
+        Fences.full();
+
+        if (waiters == 0) {
+            return;
+        }
+
+        lock.lock();
+
+        try {
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,555 @@
+package com.daniel_araujo.byteringbuffer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+/**
+ * A ring buffer stored in a memory-mapped file. The elements survive the process being restarted or crashing.
+ * <p>
+ * Every operation only writes to memory. The operating system writes the file eventually, which is enough to survive
+ * the process crashing. Call {@link #force()} at the points where the contents must also survive the machine losing
+ * power.
+ * <p>
+ * The file starts with a small header that records where the elements are. The header has two slots that are updated
+ * alternately and carry a sequence number and a checksum, so a slot that was only partially written when a crash
+ * happened is ignored and the previous state is used instead. A new file is written under a temporary name and renamed
+ * into place once its header is complete, so a crash while creating it never leaves a file that can't be opened.
+ */
+public final class MappedByteRingBuffer implements Closeable {
+    /**
+     * Identifies files created by this class.
+     */
+    private static final int MAGIC = 0x42524231;
+
+    /**
+     * Where the capacity is stored in the header.
+     */
+    private static final int CAPACITY_OFFSET = 4;
+
+    /**
+     * Where the first slot begins in the header.
+     */
+    private static final int SLOTS_OFFSET = 8;
+
+    /**
+     * Size of a slot: sequence number, start, size and checksum.
+     */
+    private static final int SLOT_SIZE = 24;
+
+    /**
+     * Number of bytes before the elements.
+     */
+    private static final int HEADER_SIZE = 64;
+
+    private final FileChannel channel;
+
+    /**
+     * The whole file.
+     */
+    private final MappedByteBuffer map;
+
+    /**
+     * Does the actual work on the part of the file that stores elements.
+     */
+    private final DirectByteRingBuffer ring;
+
+    /**
+     * Sequence number of the last slot that was written.
+     */
+    private long sequence;
+
+    /**
+     * Whether close was called. The mapping must not be used after that.
+     */
+    private boolean closed;
+
+    /**
+     * Opens the ring buffer stored in the given file. If the file is empty or does not exist, it is created with the
+     * given capacity. Otherwise the elements that were in it are available again.
+     *
+     * @param file
+     *            Path to the file.
+     * @param capacity
+     *            How many bytes can be stored in the buffer. Must match the capacity of an existing file.
+     *
+     * @throws IOException
+     *             If the file cannot be opened or does not contain a ring buffer.
+     * @throws IllegalArgumentException
+     *             If the file was created with a different capacity.
+     */
+    public MappedByteRingBuffer(Path file, int capacity) throws IOException {
+        Objects.requireNonNull(file);
+
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity must not be negative.");
+        }
+
+        if (Files.notExists(file) || Files.size(file) == 0) {
+            create(file, capacity);
+        }
+
+        channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        try {
+            // Checked before mapping because mapping would grow the file.
+            ByteBuffer header = ByteBuffer.allocate(SLOTS_OFFSET);
+            channel.read(header, 0);
+
+            if (header.position() != SLOTS_OFFSET || header.getInt(0) != MAGIC) {
+                throw new IOException("File does not contain a ring buffer.");
+            }
+
+            if (header.getInt(CAPACITY_OFFSET) != capacity) {
+                throw new IllegalArgumentException("File was created with a capacity of "
+                        + header.getInt(CAPACITY_OFFSET) + " bytes.");
+            }
+
+            map = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) HEADER_SIZE + capacity);
+
+            ByteBuffer storage = map.duplicate();
+            ((Buffer) storage).position(HEADER_SIZE);
+
+            int slot = latestSlot(capacity);
+            if (slot < 0) {
+                throw new IOException("Header of ring buffer is corrupted.");
+            }
+
+            int offset = slotOffset(slot);
+            sequence = map.getLong(offset);
+            ring = new DirectByteRingBuffer(storage, map.getInt(offset + 8), map.getInt(offset + 12));
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return How many bytes are stored in the buffer.
+     */
+    public final int sizeUsed() {
+        return ring.sizeUsed();
+    }
+
+    /**
+     * @return How many bytes can be stored in the buffer in total.
+     */
+    public final int sizeTotal() {
+        return ring.sizeTotal();
+    }
+
+    /**
+     * @return How many bytes are free in the buffer.
+     */
+    public final int sizeFree() {
+        return ring.sizeFree();
+    }
+
+    /**
+     * Adds elements to the end of the buffer.
+     *
+     * @param bytes
+     *            Adds entire array to buffer.
+     *
+     * @return Number of bytes added. It may not insert every element when the buffer has not enough free space.
+     */
+    public final int push(byte... bytes) {
+        Objects.requireNonNull(bytes);
+
+        return push(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Adds elements to the end of the buffer.
+     *
+     * @param bytes
+     *            Array that contains elements to be added.
+     * @param index
+     *            Where to begin extracting elements.
+     *
+     * @return Number of bytes added. It may not insert every element when the buffer has not enough free space.
+     */
+    public final int push(byte[] bytes, int index) {
+        Objects.requireNonNull(bytes);
+
+        return push(bytes, index, bytes.length - index);
+    }
+
+    /**
+     * Adds elements to the end of the buffer.
+     *
+     * @param bytes
+     *            Array that contains elements to be added.
+     * @param index
+     *            Where to begin extracting elements.
+     * @param length
+     *            How many elements to extract.
+     *
+     * @return Number of bytes added. It may not insert every element when the buffer has not enough free space.
+     */
+    public final int push(byte[] bytes, int index, int length) {
+        ensureOpen();
+
+        int added = ring.push(bytes, index, length);
+
+        if (added > 0) {
+            persist();
+        }
+
+        return added;
+    }
+
+    /**
+     * This version of the push method will overrun. This means that if the buffer is full then the oldest elements will
+     * be overwritten by the newest ones.
+     *
+     * @param bytes
+     *            Adds entire array to buffer.
+     */
+    public final void overrunPush(byte... bytes) {
+        Objects.requireNonNull(bytes);
+
+        overrunPush(bytes, 0, bytes.length);
+    }
+
+    /**
+     * This version of the push method will overrun. This means that if the buffer is full then the oldest elements will
+     * be overwritten by the newest ones.
+     *
+     * @param bytes
+     *            Array that contains elements to be added.
+     * @param index
+     *            Where to begin extracting elements.
+     */
+    public final void overrunPush(byte[] bytes, int index) {
+        Objects.requireNonNull(bytes);
+
+        overrunPush(bytes, index, bytes.length - index);
+    }
+
+    /**
+     * This version of the push method will overrun. This means that if the buffer is full then the oldest elements will
+     * be overwritten by the newest ones.
+     * <p>
+     * Elements that get overwritten are lost even if the process crashes before the header is updated.
+     *
+     * @param bytes
+     *            Array that contains elements to be added.
+     * @param index
+     *            Where to begin extracting elements.
+     * @param length
+     *            How many elements to extract.
+     */
+    public final void overrunPush(byte[] bytes, int index, int length) {
+        ensureOpen();
+        ring.overrunPush(bytes, index, length);
+        persist();
+    }
+
+    /**
+     * Retrieves elements from the buffer.
+     *
+     * @param length
+     *            How many elements to retrieve.
+     *
+     * @return Array of elements retrieved. Length may be less than requested if buffer doesn't have enough elements.
+     */
+    public final byte[] peek(int length) {
+        ensureOpen();
+
+        return ring.peek(length);
+    }
+
+    /**
+     * Retrieves elements from the buffer and stores them in another array.
+     *
+     * @param bytes
+     *            Where elements will be stored. The size of the array indicates how many elements will be retrieved.
+     *
+     * @return Number of elements that were copied.
+     */
+    public final int peek(byte[] bytes) {
+        ensureOpen();
+
+        return ring.peek(bytes);
+    }
+
+    /**
+     * Retrieves elements from the buffer and stores them in another array.
+     *
+     * @param bytes
+     *            Where elements will be stored.
+     * @param index
+     *            Where to start placing elements in the given array.
+     * @param length
+     *            How many elements to copy.
+     *
+     * @return Number of elements that were copied.
+     */
+    public final int peek(byte[] bytes, int index, int length) {
+        ensureOpen();
+
+        return ring.peek(bytes, index, length);
+    }
+
+    /**
+     * Retrieves elements from the buffer with indirect access. The chunks share memory with the mapped file. They are
+     * reused by later calls, so they must not be kept after borrow returns and the callback must not call the buffer.
+     *
+     * @param cb
+     *            The borrow method will be called at least once. It will be called if the buffer is empty.
+     */
+    public final void peek(ByteRingBuffer.PeekCallback cb) {
+        ensureOpen();
+        ring.peek(cb);
+    }
+
+    /**
+     * Removes elements from the buffer and returns them.
+     *
+     * @param length
+     *            How many elements to remove.
+     *
+     * @return Array of removed elements. May not remove the same number of elements as requested if the buffer did not
+     *         have that many to begin with.
+     */
+    public final byte[] pop(int length) {
+        int sizeUsed = sizeUsed();
+
+        if (length > sizeUsed) {
+            length = sizeUsed;
+        }
+
+        byte[] bytes = new byte[length];
+
+        pop(bytes);
+
+        return bytes;
+    }
+
+    /**
+     * Moves elements from the buffer to the given array.
+     *
+     * @param bytes
+     *            The destination array. Its size determines how many elements to remove.
+     *
+     * @return Number of elements removed. It may be less than the size of the given array if the buffer does not have
+     *         enough elements to fill the array.
+     */
+    public final int pop(byte[] bytes) {
+        return pop(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Moves elements from the buffer to the given array.
+     *
+     * @param bytes
+     *            The destination array. Its size determines how many elements to remove.
+     * @param index
+     *            Where to begin placing elements in the array.
+     *
+     * @return Number of elements removed.
+     */
+    public final int pop(byte[] bytes, int index) {
+        return pop(bytes, index, bytes.length - index);
+    }
+
+    /**
+     * Moves elements from the buffer to the given array.
+     *
+     * @param bytes
+     *            The destination array.
+     * @param index
+     *            Where to begin placing elements in the array.
+     * @param length
+     *            How many elements to remove.
+     *
+     * @return Number of elements removed. It may be less than the size of the provided length if the buffer does not
+     *         have enough elements to fill the array.
+     */
+    public final int pop(byte[] bytes, int index, int length) {
+        int read = peek(bytes, index, length);
+        drop(read);
+        return read;
+    }
+
+    /**
+     * Removes elements from the buffer.
+     *
+     * @param elements
+     *            Number of elements to remove.
+     */
+    public final void drop(int elements) {
+        ensureOpen();
+
+        int sizeUsed = sizeUsed();
+
+        ring.drop(elements);
+
+        if (sizeUsed != sizeUsed()) {
+            persist();
+        }
+    }
+
+    /**
+     * Removes every element from the buffer. The buffer will go back to its initial state.
+     */
+    public final void clear() {
+        ensureOpen();
+        ring.clear();
+        persist();
+    }
+
+    /**
+     * Writes every change made so far to the storage device. Returns once they are durable.
+     */
+    public final void force() {
+        ensureOpen();
+        map.force();
+    }
+
+    /**
+     * Closes the file. Changes that were not forced are still written eventually by the operating system. Every other
+     * method except the size methods throws an IllegalStateException afterwards.
+     *
+     * @throws IOException
+     *             If the file cannot be closed.
+     */
+    @Override
+    public final void close() throws IOException {
+        closed = true;
+        channel.close();
+    }
+
+    private final void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("Buffer is closed.");
+        }
+    }
+
+    /**
+     * Writes the header of an empty buffer to a temporary file next to the given one and renames it into place, so the
+     * file either does not exist or has a complete header.
+     *
+     * @param file
+     *            Path to the file. Replaced if it exists.
+     * @param capacity
+     *            How many bytes can be stored in the buffer.
+     */
+    private static void create(Path file, int capacity) throws IOException {
+        Path absolute = file.toAbsolutePath();
+        Path temp = Files.createTempFile(absolute.getParent(), absolute.getFileName().toString(), ".tmp");
+
+        try {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(0, MAGIC);
+            header.putInt(CAPACITY_OFFSET, capacity);
+            // The empty state, recorded as the first persist would: sequence number 1 in the second slot. The first
+            // slot is left invalid.
+            header.putLong(slotOffset(1), 1);
+            header.putLong(slotOffset(1) + 16, checksum(1, 0, 0));
+
+            try (FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                while (header.hasRemaining()) {
+                    out.write(header);
+                }
+
+                out.force(true);
+            }
+
+            Files.move(temp, absolute, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Records the current state in the slot that was not written last.
+     */
+    private final void persist() {
+        sequence++;
+
+        int offset = slotOffset((int) (sequence & 1));
+        int start = ring.start();
+        int size = ring.sizeUsed();
+
+        map.putLong(offset, sequence);
+        map.putInt(offset + 8, start);
+        map.putInt(offset + 12, size);
+        map.putLong(offset + 16, checksum(sequence, start, size));
+    }
+
+    /**
+     * @param capacity
+     *            Capacity of the buffer.
+     *
+     * @return Index of the valid slot with the highest sequence number or -1 if neither slot is valid.
+     */
+    private final int latestSlot(int capacity) {
+        int latest = -1;
+        long latestSequence = Long.MIN_VALUE;
+
+        for (int slot = 0; slot < 2; slot++) {
+            int offset = slotOffset(slot);
+            long sequence = map.getLong(offset);
+            int start = map.getInt(offset + 8);
+            int size = map.getInt(offset + 12);
+
+            if (map.getLong(offset + 16) != checksum(sequence, start, size)) {
+                continue;
+            }
+
+            if (start < 0 || size < 0 || size > capacity || (start >= capacity && capacity > 0)) {
+                continue;
+            }
+
+            if (sequence > latestSequence) {
+                latest = slot;
+                latestSequence = sequence;
+            }
+        }
+
+        return latest;
+    }
+
+    /**
+     * @param slot
+     *            0 or 1.
+     *
+     * @return Where the slot begins in the file.
+     */
+    private static int slotOffset(int slot) {
+        return SLOTS_OFFSET + slot * SLOT_SIZE;
+    }
+
+    /**
+     * Mixes the fields of a slot. Any torn write changes the result with overwhelming probability.
+     */
+    private static long checksum(long sequence, int start, int size) {
+        long hash = MAGIC;
+        hash = mix(hash ^ sequence);
+        hash = mix(hash ^ start);
+        hash = mix(hash ^ size);
+        return hash;
+    }
+
+    /**
+     * The finalization step of MurmurHash3.
+     */
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
@@ -0,0 +1,435 @@
+package com.daniel_araujo.byteringbuffer;
+
+import java.nio.ByteBuffer;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+/**
+ * Padding that keeps the claim counter away from whatever comes before this object in memory.
+ */
+abstract class MpscByteRingBufferPad0 {
+    long p00, p01, p02, p03, p04, p05, p06, p07;
+}
+
+/**
+ * Fields that producers compete for.
+ */
+abstract class MpscByteRingBufferClaimFields extends MpscByteRingBufferPad0 {
+    /**
+     * How many bytes have been claimed by producers since the buffer was created.
+     */
+    volatile long tail;
+}
+
+/**
+ * Padding that keeps the claim counter and the commit counter in separate cache lines.
+ */
+abstract class MpscByteRingBufferPad1 extends MpscByteRingBufferClaimFields {
+    long p10, p11, p12, p13, p14, p15, p16, p17;
+}
+
+/**
+ * Fields written by producers once they have finished copying.
+ */
+abstract class MpscByteRingBufferCommitFields extends MpscByteRingBufferPad1 {
+    /**
+     * How many bytes have been made visible to the consumer since the buffer was created.
+     */
+    volatile long committed;
+}
+
+/**
+ * Padding that keeps the commit counter and the consumer's fields in separate cache lines.
+ */
+abstract class MpscByteRingBufferPad2 extends MpscByteRingBufferCommitFields {
+    long p20, p21, p22, p23, p24, p25, p26, p27;
+}
+
+/**
+ * Fields owned by the consumer thread.
+ */
+abstract class MpscByteRingBufferConsumerFields extends MpscByteRingBufferPad2 {
+    /**
+     * How many bytes have been read since the buffer was created. Only the consumer writes to it.
+     */
+    volatile long head;
+
+    /**
+     * Last value of committed seen by the consumer. Saves the consumer from reading the producers' cache line on
+     * every call.
+     */
+    long tailCache;
+}
+
+/**
+ * Padding that keeps the consumer's fields away from whatever comes after this object in memory.
+ */
+abstract class MpscByteRingBufferPad3 extends MpscByteRingBufferConsumerFields {
+    long p30, p31, p32, p33, p34, p35, p36, p37;
+}
+
+/**
+ * A ring buffer backed by a byte array that can be shared by any number of producer threads and one consumer thread.
+ * <p>
+ * Producers claim a range of bytes by moving the claim counter with a compare-and-set, copy their bytes into the
+ * claimed range in parallel and then commit it. Commits happen in the same order as claims so the consumer only ever
+ * sees ranges that have been completely written.
+ * <p>
+ * Any thread may call the push methods. Only one thread at a time may call the peek, pop, drop and clear methods. The
+ * size methods can be called from any thread but they only return a snapshot.
+ */
+public final class MpscByteRingBuffer extends MpscByteRingBufferPad3 {
+    private static final AtomicLongFieldUpdater<MpscByteRingBufferClaimFields> TAIL = AtomicLongFieldUpdater
+            .newUpdater(MpscByteRingBufferClaimFields.class, "tail");
+
+    private static final AtomicLongFieldUpdater<MpscByteRingBufferCommitFields> COMMITTED = AtomicLongFieldUpdater
+            .newUpdater(MpscByteRingBufferCommitFields.class, "committed");
+
+    private static final AtomicLongFieldUpdater<MpscByteRingBufferConsumerFields> HEAD = AtomicLongFieldUpdater
+            .newUpdater(MpscByteRingBufferConsumerFields.class, "head");
+
+    /**
+     * Elements are stored here as bytes.
+     */
+    private final byte[] buffer;
+
+    /**
+     * When the capacity is a power of two, counters are turned into positions with this mask. Otherwise it is -1.
+     */
+    private final int mask;
+
+    /**
+     * Creates a ring buffer that can store up to the given number of bytes.
+     *
+     * @param capacity
+     *            How many bytes can be stored in the buffer.
+     */
+    public MpscByteRingBuffer(int capacity) {
+        buffer = new byte[capacity];
+        mask = capacity > 0 && (capacity & (capacity - 1)) == 0 ? capacity - 1 : -1;
+    }
+
+    /**
+     * @return How many committed bytes are stored in the buffer.
+     */
+    public final int sizeUsed() {
+        // Head must be read first. Committed can only move forward so the difference is never negative.
+        long head = this.head;
+        long committed = this.committed;
+
+        return (int) Math.min(committed - head, buffer.length);
+    }
+
+    /**
+     * @return How many bytes can be stored in the buffer in total.
+     */
+    public final int sizeTotal() {
+        return buffer.length;
+    }
+
+    /**
+     * @return How many bytes are neither committed nor claimed by a producer.
+     */
+    public final int sizeFree() {
+        long head = this.head;
+        long tail = this.tail;
+
+        return (int) Math.max(buffer.length - (tail - head), 0);
+    }
+
+    /**
+     * Adds elements to the end of the buffer. Can be called by any thread.
+     *
+     * @param bytes
+     *            Adds entire array to buffer.
+     *
+     * @return Number of bytes added. It may not insert every element when the buffer has not enough free space.
+     */
+    public final int push(byte... bytes) {
+        Objects.requireNonNull(bytes);
+
+        return push(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Adds elements to the end of the buffer. Can be called by any thread.
+     *
+     * @param bytes
+     *            Array that contains elements to be added.
+     * @param index
+     *            Where to begin extracting elements.
+     *
+     * @return Number of bytes added. It may not insert every element when the buffer has not enough free space.
+     */
+    public final int push(byte[] bytes, int index) {
+        Objects.requireNonNull(bytes);
+
+        return push(bytes, index, bytes.length - index);
+    }
+
+    /**
+     * Adds elements to the end of the buffer. Can be called by any thread. The elements are added as one contiguous
+     * range, they will never be interleaved with elements pushed by other threads.
+     *
+     * @param bytes
+     *            Array that contains elements to be added.
+     * @param index
+     *            Where to begin extracting elements.
+     * @param length
+     *            How many elements to extract.
+     *
+     * @return Number of bytes added. It may not insert every element when the buffer has not enough free space.
+     */
+    public final int push(byte[] bytes, int index, int length) {
+        Objects.requireNonNull(bytes);
+
+        long tail;
+        int copying;
+
+        // Claims a range.
+        do {
+            tail = this.tail;
+            long free = buffer.length - (tail - head);
+            copying = (int) Math.min(length, free);
+
+            if (copying <= 0) {
+                return 0;
+            }
+        } while (!TAIL.compareAndSet(this, tail, tail + copying));
+
+        int offset = offsetOf(tail);
+        int firstHalfSize = Math.min(copying, buffer.length - offset);
+
+        System.arraycopy(bytes, index, buffer, offset, firstHalfSize);
+        System.arraycopy(bytes, index + firstHalfSize, buffer, 0, copying - firstHalfSize);
+
+        // Producers that claimed earlier ranges must commit first, otherwise the consumer would see their ranges
+        // before they are written.
+        while (committed != tail) {
+            Thread.yield();
+        }
+
+        // Publishes the bytes to the consumer.
+        COMMITTED.lazySet(this, tail + copying);
+
+        return copying;
+    }
+
+    /**
+     * Retrieves elements from the buffer. Must only be called by the consumer.
+     *
+     * @param length
+     *            How many elements to retrieve.
+     *
+     * @return Array of elements retrieved. Length may be less than requested if buffer doesn't have enough elements.
+     */
+    public final byte[] peek(int length) {
+        int sizeUsed = sizeUsed();
+
+        if (length > sizeUsed) {
+            length = sizeUsed;
+        }
+
+        byte[] bytes = new byte[length];
+
+        peek(bytes);
+
+        return bytes;
+    }
+
+    /**
+     * Retrieves elements from the buffer and stores them in another array. Must only be called by the consumer.
+     *
+     * @param bytes
+     *            Where elements will be stored. The size of the array indicates how many elements will be retrieved.
+     *
+     * @return Number of elements that were copied.
+     */
+    public final int peek(byte[] bytes) {
+        Objects.requireNonNull(bytes);
+
+        return peek(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Retrieves elements from the buffer and stores them in another array. Must only be called by the consumer.
+     *
+     * @param bytes
+     *            Where elements will be stored.
+     * @param index
+     *            Where to start placing elements in the given array.
+     * @param length
+     *            How many elements to copy.
+     *
+     * @return Number of elements that were copied.
+     */
+    public final int peek(byte[] bytes, int index, int length) {
+        Objects.requireNonNull(bytes);
+
+        long head = this.head;
+        int copying = (int) Math.min(length, available(head, length));
+
+        if (copying == 0) {
+            return 0;
+        }
+
+        int offset = offsetOf(head);
+        int firstHalfSize = Math.min(copying, buffer.length - offset);
+
+        System.arraycopy(buffer, offset, bytes, index, firstHalfSize);
+        System.arraycopy(buffer, 0, bytes, index + firstHalfSize, copying - firstHalfSize);
+
+        return copying;
+    }
+
+    /**
+     * Retrieves elements from the buffer with indirect access. Must only be called by the consumer.
+     *
+     * @param cb
+     *            The borrow method will be called at least once. It will be called if the buffer is empty.
+     */
+    public final void peek(ByteRingBuffer.PeekCallback cb) {
+        long head = this.head;
+        int size = (int) available(head, buffer.length);
+
+        if (size == 0) {
+            cb.borrow(ByteBuffer.wrap(buffer, 0, 0));
+            return;
+        }
+
+        int offset = offsetOf(head);
+        int firstHalfSize = Math.min(size, buffer.length - offset);
+
+        cb.borrow(ByteBuffer.wrap(buffer, offset, firstHalfSize));
+        if (firstHalfSize != size) {
+            cb.borrow(ByteBuffer.wrap(buffer, 0, size - firstHalfSize));
+        }
+    }
+
+    /**
+     * Removes elements from the buffer and returns them. Must only be called by the consumer.
+     *
+     * @param length
+     *            How many elements to remove.
+     *
+     * @return Array of removed elements. May not remove the same number of elements as requested if the buffer did not
+     *         have that many to begin with.
+     */
+    public final byte[] pop(int length) {
+        int sizeUsed = sizeUsed();
+
+        if (length > sizeUsed) {
+            length = sizeUsed;
+        }
+
+        byte[] bytes = new byte[length];
+
+        pop(bytes);
+
+        return bytes;
+    }
+
+    /**
+     * Moves elements from the buffer to the given array. Must only be called by the consumer.
+     *
+     * @param bytes
+     *            The destination array. Its size determines how many elements to remove.
+     *
+     * @return Number of elements removed. It may be less than the size of the given array if the buffer does not have
+     *         enough elements to fill the array.
+     */
+    public final int pop(byte[] bytes) {
+        return pop(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Moves elements from the buffer to the given array. Must only be called by the consumer.
+     *
+     * @param bytes
+     *            The destination array. Its size determines how many elements to remove.
+     * @param index
+     *            Where to begin placing elements in the array.
+     *
+     * @return Number of elements removed.
+     */
+    public final int pop(byte[] bytes, int index) {
+        return pop(bytes, index, bytes.length - index);
+    }
+
+    /**
+     * Moves elements from the buffer to the given array. Must only be called by the consumer.
+     *
+     * @param bytes
+     *            The destination array.
+     * @param index
+     *            Where to begin placing elements in the array.
+     * @param length
+     *            How many elements to remove.
+     *
+     * @return Number of elements removed. It may be less than the size of the provided length if the buffer does not
+     *         have enough elements to fill the array.
+     */
+    public final int pop(byte[] bytes, int index, int length) {
+        int read = peek(bytes, index, length);
+        drop(read);
+        return read;
+    }
+
+    /**
+     * Removes elements from the buffer. Must only be called by the consumer.
+     *
+     * @param elements
+     *            Number of elements to remove.
+     */
+    public final void drop(int elements) {
+        long head = this.head;
+        long toDrop = Math.min(elements, available(head, elements));
+
+        if (toDrop > 0) {
+            // Hands the space back to the producers.
+            HEAD.lazySet(this, head + toDrop);
+        }
+    }
+
+    /**
+     * Removes every element that producers have committed so far. Must only be called by the consumer.
+     */
+    public final void clear() {
+        HEAD.lazySet(this, committed);
+    }
+
+    /**
+     * How many bytes the consumer can read, looking at the commit counter only when the cached value is not enough.
+     *
+     * @param head
+     *            Current value of head.
+     * @param wanted
+     *            How many bytes the consumer would like to read.
+     *
+     * @return Number of bytes that can be read.
+     */
+    private final long available(long head, int wanted) {
+        long available = tailCache - head;
+
+        if (available < wanted) {
+            tailCache = committed;
+            available = tailCache - head;
+        }
+
+        return available;
+    }
+
+    /**
+     * @param counter
+     *            Value of head, tail or committed.
+     *
+     * @return Position in the array.
+     */
+    private final int offsetOf(long counter) {
+        if (mask >= 0) {
+            return (int) counter & mask;
+        } else {
+            return (int) (counter % buffer.length);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.daniel_araujo.byteringbuffer;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Parks waiting threads and unparks them when the buffer changes. Uses no CPU while waiting and no locks, so virtual
+ * threads that wait here release their carrier thread.
+ */
+public final class ParkingWaitStrategy implements WaitStrategy {
+    /**
+     * Threads that are waiting.
+     */
+    private final ConcurrentLinkedQueue<Thread> waiters = new ConcurrentLinkedQueue<>();
+
+    @Override
+    public final boolean await(Predicate predicate, long nanos) throws InterruptedException {
+        if (predicate.test()) {
+            return true;
+        }
+
+        long deadline = System.nanoTime() + nanos;
+        Thread thread = Thread.currentThread();
+
+        // Registers before checking again so that a change made in between is not missed.
+        waiters.add(thread);
+
+        try {
+            while (!predicate.test()) {
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+
+                if (nanos == Long.MAX_VALUE) {
+                    LockSupport.park(this);
+                } else {
+                    long remaining = deadline - System.nanoTime();
+
+                    if (remaining <= 0) {
+                        return false;
+                    }
+
+                    LockSupport.parkNanos(this, remaining);
+                }
+            }
+
+            return true;
+        } finally {
+            waiters.remove(thread);
+        }
+    }
+
+    @Override
+    public final void signalAll() {
+        Fences.full();
+
+        if (waiters.isEmpty()) {
+            return;
+        }
+
+        for (Thread thread : waiters) {
+            LockSupport.unpark(thread);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.daniel_araujo.byteringbuffer;
+
+/**
+ * Decides when and by how much an {@link ElasticByteRingBuffer} changes its capacity.
+ * <p>
+ * A policy may keep state, such as how long the buffer has been almost empty, so each buffer needs its own instance.
+ */
+public interface ResizePolicy {
+    /**
+     * Called when a push does not fit in the free space.
+     *
+     * @param capacity
+     *            Current capacity.
+     * @param required
+     *            Smallest capacity that fits every element plus the ones being pushed.
+     *
+     * @return New capacity. The buffer raises it to required if it is smaller and lowers it to the maximum capacity if
+     *         it is larger.
+     */
+    int grow(int capacity, int required);
+
+    /**
+     * Called after elements are removed, unless the buffer is already at its initial capacity.
+     *
+     * @param capacity
+     *            Current capacity.
+     * @param used
+     *            How many elements the buffer holds now.
+     *
+     * @return New capacity, or the current capacity to keep it. The buffer never goes below its initial capacity or
+     *         below the number of elements it holds.
+     */
+    int shrink(int capacity, int used);
+}
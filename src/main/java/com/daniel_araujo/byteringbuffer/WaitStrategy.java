@@ -0,0 +1,37 @@
+package com.daniel_araujo.byteringbuffer;
+
+/**
+ * Decides how a thread waits for a {@link BlockingByteRingBuffer} to have data or free space. Trades latency against
+ * CPU usage.
+ */
+public interface WaitStrategy {
+    /**
+     * Something a waiting thread is waiting for.
+     */
+    interface Predicate {
+        /**
+         * @return Whether the thread can stop waiting.
+         */
+        boolean test();
+    }
+
+    /**
+     * Blocks the calling thread until the predicate holds or the timeout expires.
+     *
+     * @param predicate
+     *            Checked before waiting and every time the thread wakes up.
+     * @param nanos
+     *            How long to wait at most. Long.MAX_VALUE waits forever.
+     *
+     * @return Whether the predicate holds. False if the timeout expired.
+     *
+     * @throws InterruptedException
+     *             If the thread is interrupted while waiting.
+     */
+    boolean await(Predicate predicate, long nanos) throws InterruptedException;
+
+    /**
+     * Wakes up waiting threads so they check their predicates again. Called after every change to the buffer.
+     */
+    void signalAll();
+}
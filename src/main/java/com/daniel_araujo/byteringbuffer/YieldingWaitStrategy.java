@@ -0,0 +1,31 @@
+package com.daniel_araujo.byteringbuffer;
+
+/**
+ * Checks the predicate in a loop and lets other threads run between checks. Latency stays low while leaving the core to
+ * other threads that need it, but the waiting thread still uses CPU when nothing else is runnable.
+ */
+public final class YieldingWaitStrategy implements WaitStrategy {
+    @Override
+    public final boolean await(Predicate predicate, long nanos) throws InterruptedException {
+        long deadline = System.nanoTime() + nanos;
+
+        while (!predicate.test()) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+
+            if (nanos != Long.MAX_VALUE && deadline - System.nanoTime() <= 0) {
+                return false;
+            }
+
+            Thread.yield();
+        }
+
+        return true;
+    }
+
+    @Override
+    public final void signalAll() {
+        // Waiting threads never stop looking.
+    }
+}
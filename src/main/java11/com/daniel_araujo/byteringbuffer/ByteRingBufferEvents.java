@@ -0,0 +1,117 @@
+package com.daniel_araujo.byteringbuffer;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Reports conditions that are worth seeing in a profiler as Java Flight Recorder events.
+ * <p>
+ * Each method creates an event and commits it only if the recording wants it. When the event is disabled the JIT
+ * compiler removes the allocation and the check is all that is left.
+ */
+final class ByteRingBufferEvents {
+    private ByteRingBufferEvents() {
+    }
+
+    static void full(Object buffer, int requested, int rejected) {
+        BufferFullEvent event = new BufferFullEvent();
+
+        if (event.shouldCommit()) {
+            event.bufferIdentity = System.identityHashCode(buffer);
+            event.bufferClass = buffer.getClass().getName();
+            event.requested = requested;
+            event.rejected = rejected;
+            event.commit();
+        }
+    }
+
+    static void overrun(Object buffer, int pushed, int lost) {
+        OverrunEvent event = new OverrunEvent();
+
+        if (event.shouldCommit()) {
+            event.bufferIdentity = System.identityHashCode(buffer);
+            event.bufferClass = buffer.getClass().getName();
+            event.pushed = pushed;
+            event.lost = lost;
+            event.commit();
+        }
+    }
+
+    static void empty(Object buffer, int requested) {
+        BufferEmptyEvent event = new BufferEmptyEvent();
+
+        if (event.shouldCommit()) {
+            event.bufferIdentity = System.identityHashCode(buffer);
+            event.bufferClass = buffer.getClass().getName();
+            event.requested = requested;
+            event.commit();
+        }
+    }
+
+    @Name("com.daniel_araujo.byteringbuffer.BufferFull")
+    @Label("Buffer Full")
+    @Category("Byte Ring Buffer")
+    @Description("A push could not add every byte because the buffer was full")
+    @StackTrace(true)
+    static final class BufferFullEvent extends Event {
+        @Label("Buffer Identity")
+        @Description("Identity hash code of the buffer")
+        int bufferIdentity;
+
+        @Label("Buffer Class")
+        String bufferClass;
+
+        @Label("Requested")
+        @DataAmount
+        int requested;
+
+        @Label("Rejected")
+        @DataAmount
+        int rejected;
+    }
+
+    @Name("com.daniel_araujo.byteringbuffer.Overrun")
+    @Label("Overrun")
+    @Category("Byte Ring Buffer")
+    @Description("An overrunning push discarded bytes that had not been read")
+    @StackTrace(true)
+    static final class OverrunEvent extends Event {
+        @Label("Buffer Identity")
+        @Description("Identity hash code of the buffer")
+        int bufferIdentity;
+
+        @Label("Buffer Class")
+        String bufferClass;
+
+        @Label("Pushed")
+        @DataAmount
+        int pushed;
+
+        @Label("Lost")
+        @DataAmount
+        int lost;
+    }
+
+    @Name("com.daniel_araujo.byteringbuffer.BufferEmpty")
+    @Label("Buffer Empty")
+    @Category("Byte Ring Buffer")
+    @Description("A consumer wanted to read but the buffer was empty")
+    @StackTrace(true)
+    static final class BufferEmptyEvent extends Event {
+        @Label("Buffer Identity")
+        @Description("Identity hash code of the buffer")
+        int bufferIdentity;
+
+        @Label("Buffer Class")
+        String bufferClass;
+
+        @Label("Requested")
+        @DataAmount
+        int requested;
+    }
+}
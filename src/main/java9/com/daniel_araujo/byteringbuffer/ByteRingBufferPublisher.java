@@ -0,0 +1,319 @@
+package com.daniel_araujo.byteringbuffer;
+
+import java.nio.ByteBuffer;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+/**
+ * Publishes the elements of a {@link ByteRingBuffer} to a single subscriber, which sees the buffer as a bounded queue
+ * of bytes.
+ * <p>
+ * Every item is one of the readable segments of the buffer, like the chunks lent to a
+ * {@link ByteRingBuffer.PeekCallback}. Items are read-only views of the array of the buffer and are only valid during
+ * {@link Flow.Subscriber#onNext(Object)}. Once onNext returns, the bytes are removed from the buffer. A subscriber that
+ * wants to keep them must copy them.
+ * <p>
+ * Only as many segments as the subscriber requested are published. When the buffer is empty the publisher waits with
+ * {@link ByteRingBuffer#awaitReadable(int, Executor)}, so no thread polls the buffer.
+ * <p>
+ * The buffer is not thread safe. The publisher synchronizes on the buffer whenever it touches it, and so must every
+ * other thread that uses the buffer. The lock is not held while the subscriber is called, so a subscriber may block or
+ * use the buffer itself without stalling producers or deadlocking. While the subscriber reads the segments, the buffer
+ * holds a mark so that they are not overwritten, and an {@link ByteRingBuffer#overrunPush(byte[])} made in the meantime
+ * only adds what fits. The publisher must be the only consumer of the buffer.
+ */
+public final class ByteRingBufferPublisher implements Flow.Publisher<ByteBuffer> {
+    /**
+     * Where elements come from. Also the lock.
+     */
+    private final ByteRingBuffer buffer;
+
+    /**
+     * Where publishing resumes once new elements arrive.
+     */
+    private final Executor executor;
+
+    /**
+     * The only subscription. Is null until a subscriber subscribes.
+     */
+    private Subscription subscription;
+
+    /**
+     * Whether the subscriber is told that the stream is over once the buffer is empty.
+     */
+    private volatile boolean completed;
+
+    /**
+     * @param buffer
+     *            Where elements come from.
+     * @param executor
+     *            Where publishing resumes once new elements arrive.
+     */
+    public ByteRingBufferPublisher(ByteRingBuffer buffer, Executor executor) {
+        this.buffer = Objects.requireNonNull(buffer);
+        this.executor = Objects.requireNonNull(executor);
+    }
+
+    /**
+     * Only one subscriber is accepted. Any other one is subscribed and immediately receives an
+     * {@link IllegalStateException}.
+     */
+    @Override
+    public final void subscribe(Flow.Subscriber<? super ByteBuffer> subscriber) {
+        Objects.requireNonNull(subscriber);
+
+        Subscription subscription = new Subscription(subscriber);
+        boolean accepted;
+
+        synchronized (buffer) {
+            accepted = this.subscription == null;
+
+            if (accepted) {
+                this.subscription = subscription;
+            }
+        }
+
+        if (accepted) {
+            subscriber.onSubscribe(subscription);
+        } else {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                }
+
+                @Override
+                public void cancel() {
+                }
+            });
+            subscriber.onError(new IllegalStateException("The publisher already has a subscriber."));
+        }
+    }
+
+    /**
+     * Tells the subscriber that no more elements will be pushed. It is completed after it receives the elements that
+     * are still in the buffer.
+     */
+    public final void complete() {
+        completed = true;
+
+        Subscription subscription;
+        synchronized (buffer) {
+            subscription = this.subscription;
+        }
+
+        if (subscription != null) {
+            subscription.drain();
+        }
+    }
+
+    /**
+     * Lends segments of the buffer to the subscriber while it has demand.
+     */
+    private final class Subscription implements Flow.Subscription, BiConsumer<Void, Throwable> {
+        private final Flow.Subscriber<? super ByteBuffer> subscriber;
+
+        /**
+         * How many segments the subscriber requested and has not received yet.
+         */
+        private final AtomicLong demand = new AtomicLong();
+
+        /**
+         * How many times drain was called while it was running. Only the call that brings it up from 0 publishes.
+         */
+        private final AtomicInteger work = new AtomicInteger();
+
+        /**
+         * Future returned by awaitReadable that did not complete yet. Is null when not waiting.
+         */
+        private CompletableFuture<Void> waiting;
+
+        /**
+         * Whether onComplete or onError was called or the subscription was cancelled.
+         */
+        private volatile boolean done;
+
+        /**
+         * Error that the next call to drain passes to onError.
+         */
+        private volatile Throwable error;
+
+        /**
+         * Segments taken from the buffer while holding the lock. They are handed to onNext after releasing it. Only
+         * used by the call to drain that publishes.
+         */
+        private final ByteBuffer[] segments = new ByteBuffer[2];
+
+        private int segmentCount;
+
+        /**
+         * How many bytes that were handed to onNext are still to be removed from the buffer.
+         */
+        private int published;
+
+        /**
+         * Takes as many segments as the subscriber wants.
+         */
+        private final ByteRingBuffer.PeekCallback collect = new ByteRingBuffer.PeekCallback() {
+            @Override
+            public void borrow(ByteBuffer chunk) {
+                if (chunk.hasRemaining() && segmentCount < demand.get()) {
+                    segments[segmentCount++] = chunk.asReadOnlyBuffer();
+                }
+            }
+        };
+
+        /**
+         * Removes the bytes that were published.
+         */
+        private final ByteRingBuffer.ConsumeCallback remove = new ByteRingBuffer.ConsumeCallback() {
+            @Override
+            public int borrow(ByteBuffer chunk) {
+                int length = Math.min(chunk.remaining(), published);
+
+                published -= length;
+
+                return length;
+            }
+        };
+
+        Subscription(Flow.Subscriber<? super ByteBuffer> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public final void request(long n) {
+            if (n <= 0) {
+                error = new IllegalArgumentException("Requested " + n + " items.");
+            } else {
+                long current;
+                do {
+                    current = demand.get();
+                } while (!demand.compareAndSet(current, current + n < 0 ? Long.MAX_VALUE : current + n));
+            }
+
+            drain();
+        }
+
+        @Override
+        public final void cancel() {
+            done = true;
+
+            synchronized (buffer) {
+                if (waiting != null) {
+                    // Lets go of the future, the executor and this subscription right away.
+                    waiting.cancel(false);
+                    waiting = null;
+                    buffer.pruneWaiters();
+                }
+            }
+        }
+
+        /**
+         * Called when the buffer has elements again or when the executor rejected the task that was going to say so.
+         */
+        @Override
+        public final void accept(Void result, Throwable throwable) {
+            synchronized (buffer) {
+                waiting = null;
+            }
+
+            if (done) {
+                return;
+            }
+
+            if (throwable != null) {
+                error = throwable;
+            }
+
+            drain();
+        }
+
+        /**
+         * Publishes as many segments as the subscriber wants. Calls made by onNext, or by other threads while this
+         * runs, only make the running call go around once more.
+         */
+        final void drain() {
+            if (work.getAndIncrement() != 0) {
+                return;
+            }
+
+            do {
+                publish();
+            } while (work.decrementAndGet() != 0);
+        }
+
+        private void publish() {
+            while (true) {
+                boolean finished = false;
+                Throwable failure = null;
+
+                synchronized (buffer) {
+                    if (done) {
+                        return;
+                    }
+
+                    if (error != null) {
+                        failure = error;
+                        done = true;
+                    } else if (buffer.sizeUsed() == 0) {
+                        if (completed) {
+                            finished = true;
+                            done = true;
+                        } else if (waiting == null && demand.get() > 0) {
+                            waiting = buffer.awaitReadable(1, executor);
+                            waiting.whenComplete(this);
+                        }
+                    } else if (demand.get() > 0) {
+                        // Nothing is overwritten while the buffer is marked.
+                        buffer.mark();
+                        buffer.peek(collect);
+                    }
+                }
+
+                if (failure != null) {
+                    subscriber.onError(failure);
+                    return;
+                }
+
+                if (finished) {
+                    subscriber.onComplete();
+                    return;
+                }
+
+                if (segmentCount == 0) {
+                    return;
+                }
+
+                emit();
+            }
+        }
+
+        /**
+         * Hands the collected segments to onNext outside the lock, then removes the ones that were published.
+         */
+        private void emit() {
+            for (int i = 0; i < segmentCount; i++) {
+                ByteBuffer segment = segments[i];
+                segments[i] = null;
+
+                if (!done) {
+                    demand.decrementAndGet();
+                    published += segment.remaining();
+                    subscriber.onNext(segment);
+                }
+            }
+
+            segmentCount = 0;
+
+            synchronized (buffer) {
+                buffer.pop(remove);
+                buffer.commitRead();
+            }
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.daniel_araujo.byteringbuffer;
+
+import java.nio.ByteBuffer;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.function.BiConsumer;
+
+/**
+ * Pushes every item it receives into a {@link ByteRingBuffer}. It never requests more items than the free space of the
+ * buffer can take, so a fast publisher is slowed down to the pace of whoever empties the buffer.
+ * <p>
+ * Items may not be larger than the item size given to the constructor. Each requested item reserves that many bytes of
+ * free space. When there is not enough free space for another item, the subscriber waits with
+ * {@link ByteRingBuffer#awaitWritable(int, Executor)}, so no thread polls the buffer. An item that is larger than the
+ * item size, or that does not fit because the buffer was filled by someone else, cancels the subscription.
+ * <p>
+ * The buffer is not thread safe. The subscriber synchronizes on the buffer whenever it touches it, and so must every
+ * other thread that uses the buffer.
+ */
+public final class ByteRingBufferSubscriber implements Flow.Subscriber<ByteBuffer> {
+    /**
+     * Where items are pushed. Also the lock.
+     */
+    private final ByteRingBuffer buffer;
+
+    /**
+     * The largest item that the publisher may send.
+     */
+    private final int itemSize;
+
+    /**
+     * Where requesting resumes once there is free space again.
+     */
+    private final Executor executor;
+
+    /**
+     * Completes when the publisher completes, fails or sends an item that does not fit.
+     */
+    private final CompletableFuture<Void> completion = new CompletableFuture<>();
+
+    /**
+     * Calls refill when there is free space again.
+     */
+    private final BiConsumer<Void, Throwable> resume = new BiConsumer<Void, Throwable>() {
+        @Override
+        public void accept(Void result, Throwable throwable) {
+            if (throwable != null) {
+                fail(throwable);
+            } else {
+                synchronized (buffer) {
+                    waiting = false;
+                }
+
+                refill();
+            }
+        }
+    };
+
+    /**
+     * Copies the item that is being pushed into the free space.
+     */
+    private final ByteRingBuffer.PushCallback copy = new ByteRingBuffer.PushCallback() {
+        @Override
+        public void borrow(ByteBuffer chunk) {
+            ByteBuffer part = item.duplicate();
+            part.limit(part.position() + Math.min(chunk.remaining(), part.remaining()));
+
+            chunk.put(part);
+            item.position(part.position());
+        }
+    };
+
+    /**
+     * Item that is being pushed. Only set during onNext.
+     */
+    private ByteBuffer item;
+
+    /**
+     * Is null until onSubscribe is called.
+     */
+    private Flow.Subscription subscription;
+
+    /**
+     * How many items were requested and have not arrived yet.
+     */
+    private long outstanding;
+
+    /**
+     * Whether awaitWritable has been called and its future did not complete yet.
+     */
+    private boolean waiting;
+
+    /**
+     * @param buffer
+     *            Where items are pushed.
+     * @param itemSize
+     *            The largest item that the publisher may send. Must not be larger than the capacity of the buffer.
+     * @param executor
+     *            Where requesting resumes once there is free space again.
+     *
+     * @throws IllegalArgumentException
+     *             If the item size is not positive or larger than the capacity.
+     */
+    public ByteRingBufferSubscriber(ByteRingBuffer buffer, int itemSize, Executor executor) {
+        this.buffer = Objects.requireNonNull(buffer);
+        this.executor = Objects.requireNonNull(executor);
+
+        if (itemSize <= 0 || itemSize > buffer.sizeTotal()) {
+            throw new IllegalArgumentException("Item size must be between 1 and " + buffer.sizeTotal() + ".");
+        }
+
+        this.itemSize = itemSize;
+    }
+
+    /**
+     * @return Future that completes when the publisher completes. It completes exceptionally if the publisher fails or
+     *         sends an item that does not fit.
+     */
+    public final CompletableFuture<Void> completion() {
+        return completion;
+    }
+
+    @Override
+    public final void onSubscribe(Flow.Subscription subscription) {
+        Objects.requireNonNull(subscription);
+
+        synchronized (buffer) {
+            if (this.subscription != null) {
+                subscription.cancel();
+                return;
+            }
+
+            this.subscription = subscription;
+        }
+
+        refill();
+    }
+
+    @Override
+    public final void onNext(ByteBuffer item) {
+        Objects.requireNonNull(item);
+
+        int length = item.remaining();
+        boolean fits;
+
+        synchronized (buffer) {
+            outstanding--;
+            fits = length <= itemSize && length <= buffer.sizeFree();
+
+            if (fits) {
+                this.item = item.duplicate();
+                buffer.push(copy);
+                this.item = null;
+            }
+        }
+
+        if (fits) {
+            refill();
+        } else {
+            subscription.cancel();
+            fail(new IllegalStateException("Item of " + length + " bytes does not fit in the buffer."));
+        }
+    }
+
+    @Override
+    public final void onError(Throwable throwable) {
+        fail(Objects.requireNonNull(throwable));
+    }
+
+    @Override
+    public final void onComplete() {
+        completion.complete(null);
+    }
+
+    private void fail(Throwable throwable) {
+        completion.completeExceptionally(throwable);
+    }
+
+    /**
+     * Requests as many items as the free space can take, or waits for free space if it can't take any.
+     */
+    private void refill() {
+        long request = 0;
+
+        synchronized (buffer) {
+            if (completion.isDone()) {
+                return;
+            }
+
+            long reserved = outstanding * itemSize;
+            long room = (buffer.sizeFree() - reserved) / itemSize;
+
+            if (room > 0) {
+                outstanding += room;
+                request = room;
+            } else if (outstanding == 0 && !waiting) {
+                waiting = true;
+                buffer.awaitWritable(itemSize, executor).whenComplete(resume);
+            }
+        }
+
+        if (request > 0) {
+            subscription.request(request);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.daniel_araujo.byteringbuffer;
+
+import java.lang.invoke.VarHandle;
+
+/**
+ * Memory fences for code that reads bytes while they may be overwritten and for code that wakes up waiting threads.
+ */
+final class Fences {
+    private Fences() {
+    }
+
+    /**
+     * Stores before the fence are not reordered with stores after it.
+     */
+    static void storeStore() {
+        VarHandle.storeStoreFence();
+    }
+
+    /**
+     * Loads before the fence are not reordered with loads after it.
+     */
+    static void loadLoad() {
+        VarHandle.loadLoadFence();
+    }
+
+    /**
+     * Loads and stores before the fence are not reordered with loads and stores after it. A wait strategy calls it
+     * between the change to the buffer and looking for waiters. A waiter registers itself and then checks the buffer,
+     * so either the waiter sees the change or the strategy sees the waiter.
+     */
+    static void full() {
+        VarHandle.fullFence();
+    }
+}
@@ -0,0 +1,140 @@
+package com.daniel_araujo.byteringbuffer;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+@RunWith(Parameterized.class)
+public final class BlockingByteRingBufferTest {
+    @Parameters(name = "{0}")
+    public static Collection<Object[]> strategies() {
+        return Arrays.asList(new Object[][] {
+                { new BusySpinWaitStrategy() },
+                { new YieldingWaitStrategy() },
+                { new ParkingWaitStrategy() },
+                { new LockingWaitStrategy() } });
+    }
+
+    private final WaitStrategy waitStrategy;
+
+    public BlockingByteRingBufferTest(WaitStrategy waitStrategy) {
+        this.waitStrategy = waitStrategy;
+    }
+
+    @Test
+    public final void push_addsWithoutWaiting() {
+        BlockingByteRingBuffer buffer = new BlockingByteRingBuffer(4, waitStrategy);
+
+        assertEquals(4, buffer.push(new byte[] { 1, 2, 3, 4, 5 }, 0, 5));
+        assertEquals(4, buffer.sizeUsed());
+    }
+
+    @Test
+    public final void pushFully_returnsPartialCountWhenTimeoutExpires() throws InterruptedException {
+        BlockingByteRingBuffer buffer = new BlockingByteRingBuffer(4, waitStrategy);
+
+        assertEquals(4, buffer.pushFully(new byte[] { 1, 2, 3, 4, 5 }, 0, 5, 10, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public final void popAtLeast_returnsZeroWhenTimeoutExpires() throws InterruptedException {
+        BlockingByteRingBuffer buffer = new BlockingByteRingBuffer(4, waitStrategy);
+        buffer.push(new byte[] { 1 }, 0, 1);
+
+        assertEquals(0, buffer.popAtLeast(new byte[4], 0, 2, 4, 10, TimeUnit.MILLISECONDS));
+        assertEquals(1, buffer.sizeUsed());
+    }
+
+    @Test
+    public final void popAtLeast_popsEverythingAvailableUpToLength() throws InterruptedException {
+        BlockingByteRingBuffer buffer = new BlockingByteRingBuffer(4, waitStrategy);
+        buffer.push(new byte[] { 1, 2, 3 }, 0, 3);
+
+        byte[] bytes = new byte[2];
+        assertEquals(2, buffer.popAtLeast(bytes, 0, 1, 2));
+        assertArrayEquals(new byte[] { 1, 2 }, bytes);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public final void popAtLeast_rejectsMinimumLargerThanCapacity() throws InterruptedException {
+        BlockingByteRingBuffer buffer = new BlockingByteRingBuffer(4, waitStrategy);
+
+        buffer.popAtLeast(new byte[8], 0, 5, 8);
+    }
+
+    @Test(expected = InterruptedException.class)
+    public final void popAtLeast_throwsWhenInterrupted() throws InterruptedException {
+        BlockingByteRingBuffer buffer = new BlockingByteRingBuffer(4, waitStrategy);
+
+        Thread.currentThread().interrupt();
+        buffer.popAtLeast(new byte[1], 0, 1, 1);
+    }
+
+    @Test(timeout = 10000)
+    public final void popAtLeast_returnsWhatIsLeftAfterClose() throws InterruptedException {
+        BlockingByteRingBuffer buffer = new BlockingByteRingBuffer(4, waitStrategy);
+        buffer.push(new byte[] { 1 }, 0, 1);
+        buffer.close();
+
+        byte[] bytes = new byte[4];
+        assertEquals(1, buffer.popAtLeast(bytes, 0, 3, 4));
+        assertEquals(0, buffer.popAtLeast(bytes, 0, 3, 4));
+        assertTrue(buffer.isClosed());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public final void push_rejectsBytesAfterClose() {
+        BlockingByteRingBuffer buffer = new BlockingByteRingBuffer(4, waitStrategy);
+        buffer.close();
+
+        buffer.push(new byte[] { 1 }, 0, 1);
+    }
+
+    @Test(timeout = 10000)
+    public final void pushFullyAndPopAtLeast_transferEveryByteBetweenThreads() throws InterruptedException {
+        // A thread that busy spins never lets the other one run when there is only one processor.
+        assumeTrue(!(waitStrategy instanceof BusySpinWaitStrategy) || Runtime.getRuntime().availableProcessors() > 1);
+
+        final BlockingByteRingBuffer buffer = new BlockingByteRingBuffer(16, waitStrategy);
+        final int total = 100000;
+
+        Thread producer = new Thread() {
+            @Override
+            public void run() {
+                byte[] chunk = new byte[7];
+
+                try {
+                    for (int i = 0; i < total; i += chunk.length) {
+                        for (int j = 0; j < chunk.length; j++) {
+                            chunk[j] = (byte) (i + j);
+                        }
+
+                        buffer.pushFully(chunk, 0, Math.min(chunk.length, total - i));
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+
+        producer.start();
+
+        byte[] received = new byte[5];
+        int count = 0;
+        while (count < total) {
+            int removed = buffer.popAtLeast(received, 0, 1, received.length);
+
+            for (int i = 0; i < removed; i++) {
+                assertEquals((byte) count++, received[i]);
+            }
+        }
+
+        producer.join();
+    }
+}
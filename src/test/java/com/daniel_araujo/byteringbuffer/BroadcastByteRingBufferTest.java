@@ -0,0 +1,304 @@
+package com.daniel_araujo.byteringbuffer;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public final class BroadcastByteRingBufferTest {
+    @Test
+    public final void reader_seesOnlyBytesPushedAfterItWasCreated() {
+        BroadcastByteRingBuffer buffer = new BroadcastByteRingBuffer(4, BroadcastByteRingBuffer.Policy.OVERWRITE);
+
+        buffer.push(new byte[] { 1, 2 });
+        BroadcastByteRingBuffer.Reader reader = buffer.newReader();
+        buffer.push(new byte[] { 3 });
+
+        assertEquals(1, reader.sizeUsed());
+        assertArrayEquals(new byte[] { 3 }, reader.pop(4));
+    }
+
+    @Test
+    public final void readers_consumeIndependently() {
+        BroadcastByteRingBuffer buffer = new BroadcastByteRingBuffer(4,
+                BroadcastByteRingBuffer.Policy.WAIT_FOR_SLOWEST_READER);
+        BroadcastByteRingBuffer.Reader first = buffer.newReader();
+        BroadcastByteRingBuffer.Reader second = buffer.newReader();
+
+        buffer.push(new byte[] { 1, 2, 3 });
+
+        assertArrayEquals(new byte[] { 1, 2 }, first.pop(2));
+        assertArrayEquals(new byte[] { 1, 2, 3 }, second.peek(3));
+        assertArrayEquals(new byte[] { 3 }, first.pop(3));
+        assertEquals(3, second.sizeUsed());
+    }
+
+    @Test
+    public final void push_waitsForSlowestReader() {
+        BroadcastByteRingBuffer buffer = new BroadcastByteRingBuffer(4,
+                BroadcastByteRingBuffer.Policy.WAIT_FOR_SLOWEST_READER);
+        BroadcastByteRingBuffer.Reader fast = buffer.newReader();
+        BroadcastByteRingBuffer.Reader slow = buffer.newReader();
+
+        assertEquals(4, buffer.push(new byte[] { 1, 2, 3, 4 }));
+        fast.drop(4);
+        slow.drop(1);
+
+        assertEquals(1, buffer.push(new byte[] { 5, 6 }));
+        assertArrayEquals(new byte[] { 2, 3, 4, 5 }, slow.peek(4));
+        assertArrayEquals(new byte[] { 5 }, fast.peek(4));
+        assertEquals(0, slow.lost());
+    }
+
+    @Test
+    public final void push_isNoLongerHeldBackByClosedReader() {
+        BroadcastByteRingBuffer buffer = new BroadcastByteRingBuffer(4,
+                BroadcastByteRingBuffer.Policy.WAIT_FOR_SLOWEST_READER);
+        BroadcastByteRingBuffer.Reader reader = buffer.newReader();
+        BroadcastByteRingBuffer.Reader closed = buffer.newReader();
+
+        buffer.push(new byte[] { 1, 2, 3, 4 });
+        reader.drop(4);
+        closed.close();
+
+        assertEquals(4, buffer.push(new byte[] { 5, 6, 7, 8 }));
+        assertArrayEquals(new byte[] { 5, 6, 7, 8 }, reader.pop(4));
+    }
+
+    @Test
+    public final void push_overwritesAndReaderCountsLostBytes() {
+        BroadcastByteRingBuffer buffer = new BroadcastByteRingBuffer(4, BroadcastByteRingBuffer.Policy.OVERWRITE);
+        BroadcastByteRingBuffer.Reader reader = buffer.newReader();
+
+        buffer.push(new byte[] { 1, 2, 3 });
+        assertEquals(3, buffer.push(new byte[] { 4, 5, 6 }));
+
+        assertEquals(4, reader.sizeUsed());
+        assertEquals(2, reader.lost());
+        assertArrayEquals(new byte[] { 3, 4, 5, 6 }, reader.pop(4));
+    }
+
+    @Test
+    public final void push_keepsLastBytesWhenPushIsLargerThanCapacity() {
+        BroadcastByteRingBuffer buffer = new BroadcastByteRingBuffer(4, BroadcastByteRingBuffer.Policy.OVERWRITE);
+        BroadcastByteRingBuffer.Reader reader = buffer.newReader();
+
+        buffer.push(new byte[] { 1 });
+        buffer.push(new byte[] { 2, 3, 4, 5, 6, 7 });
+
+        assertArrayEquals(new byte[] { 4, 5, 6, 7 }, reader.pop(4));
+        assertEquals(3, reader.lost());
+    }
+
+    @Test
+    public final void peek_cb_callsFunctionTwiceWhenDataWraps() {
+        BroadcastByteRingBuffer buffer = new BroadcastByteRingBuffer(4, BroadcastByteRingBuffer.Policy.OVERWRITE);
+        BroadcastByteRingBuffer.Reader reader = buffer.newReader();
+
+        buffer.push(new byte[] { 1, 2, 3 });
+        reader.drop(2);
+        buffer.push(new byte[] { 4, 5 });
+
+        PeekCallbackTracker peekCallback = new PeekCallbackTracker();
+        assertTrue(reader.peek(peekCallback));
+
+        assertEquals(2, peekCallback.calls.size());
+        assertArrayEquals(new byte[] { 3, 4 }, peekCallback.calls.get(0));
+        assertArrayEquals(new byte[] { 5 }, peekCallback.calls.get(1));
+    }
+
+    @Test
+    public final void peek_cb_reportsBytesOverwrittenWhileBorrowed() {
+        final BroadcastByteRingBuffer buffer = new BroadcastByteRingBuffer(4,
+                BroadcastByteRingBuffer.Policy.OVERWRITE);
+        BroadcastByteRingBuffer.Reader reader = buffer.newReader();
+
+        buffer.push(new byte[] { 1, 2 });
+
+        boolean intact = reader.peek(new ByteRingBuffer.PeekCallback() {
+            @Override
+            public void borrow(ByteBuffer chunk) {
+                buffer.push(new byte[] { 3, 4, 5 });
+            }
+        });
+
+        assertFalse(intact);
+    }
+
+    @Test
+    public final void peek_cb_chunksAreReadOnly() {
+        BroadcastByteRingBuffer buffer = new BroadcastByteRingBuffer(4, BroadcastByteRingBuffer.Policy.OVERWRITE);
+        BroadcastByteRingBuffer.Reader reader = buffer.newReader();
+
+        buffer.push(new byte[] { 1 });
+
+        reader.peek(new ByteRingBuffer.PeekCallback() {
+            @Override
+            public void borrow(ByteBuffer chunk) {
+                assertTrue(chunk.isReadOnly());
+            }
+        });
+    }
+
+    @Test
+    public final void readers_receiveEveryByteFromAnotherThread() throws InterruptedException {
+        final BroadcastByteRingBuffer buffer = new BroadcastByteRingBuffer(64,
+                BroadcastByteRingBuffer.Policy.WAIT_FOR_SLOWEST_READER);
+        final BroadcastByteRingBuffer.Reader first = buffer.newReader();
+        final BroadcastByteRingBuffer.Reader second = buffer.newReader();
+        final int total = 20000;
+
+        Thread writer = new Thread() {
+            @Override
+            public void run() {
+                byte[] bytes = new byte[7];
+
+                for (int i = 0; i < total;) {
+                    int length = Math.min(bytes.length, total - i);
+
+                    for (int j = 0; j < length; j++) {
+                        bytes[j] = (byte) (i + j);
+                    }
+
+                    int pushed = buffer.push(bytes, 0, length);
+                    if (pushed == 0) {
+                        Thread.yield();
+                    }
+
+                    i += pushed;
+                }
+            }
+        };
+
+        writer.start();
+
+        byte[] received = new byte[5];
+        int firstCount = 0;
+        int secondCount = 0;
+        while (firstCount < total || secondCount < total) {
+            int popped = first.pop(received, 0, received.length);
+            for (int i = 0; i < popped; i++) {
+                assertEquals((byte) firstCount++, received[i]);
+            }
+
+            int poppedSecond = second.pop(received, 0, received.length);
+            for (int i = 0; i < poppedSecond; i++) {
+                assertEquals((byte) secondCount++, received[i]);
+            }
+
+            if (popped == 0 && poppedSecond == 0) {
+                Thread.yield();
+            }
+        }
+
+        writer.join();
+    }
+
+    @Test
+    public final void overwrite_readerFromAnotherThreadSeesContiguousBytesOrLosesThem() throws InterruptedException {
+        final BroadcastByteRingBuffer buffer = new BroadcastByteRingBuffer(64,
+                BroadcastByteRingBuffer.Policy.OVERWRITE);
+        final BroadcastByteRingBuffer.Reader reader = buffer.newReader();
+        final int total = 200000;
+
+        Thread writer = new Thread() {
+            @Override
+            public void run() {
+                // Each byte is its position in the stream, so a torn read shows up as a gap.
+                byte[] bytes = new byte[23];
+
+                for (int i = 0; i < total; i += bytes.length) {
+                    for (int j = 0; j < bytes.length; j++) {
+                        bytes[j] = (byte) (i + j);
+                    }
+
+                    buffer.push(bytes);
+                }
+            }
+        };
+
+        writer.start();
+
+        byte[] received = new byte[48];
+        long popped = 0;
+        try {
+            while (popped + reader.lost() < total) {
+                int count = reader.pop(received, 0, received.length);
+                // Bytes lost while catching up come before the ones that were popped.
+                long position = popped + reader.lost();
+
+                for (int i = 0; i < count; i++) {
+                    assertEquals((byte) (position + i), received[i]);
+                }
+
+                popped += count;
+            }
+        } finally {
+            writer.join();
+        }
+
+        assertTrue(popped > 0);
+    }
+
+    @Test
+    public final void newReader_joiningWhileWriterRunsSeesContiguousBytes() throws InterruptedException {
+        final BroadcastByteRingBuffer buffer = new BroadcastByteRingBuffer(16,
+                BroadcastByteRingBuffer.Policy.WAIT_FOR_SLOWEST_READER);
+        final AtomicBoolean stop = new AtomicBoolean();
+
+        Thread writer = new Thread() {
+            @Override
+            public void run() {
+                // Each byte is its position in the stream, so an overwritten byte shows up as a gap.
+                byte[] bytes = new byte[5];
+                long position = 0;
+
+                while (!stop.get()) {
+                    for (int j = 0; j < bytes.length; j++) {
+                        bytes[j] = (byte) (position + j);
+                    }
+
+                    int pushed = buffer.push(bytes);
+                    if (pushed == 0) {
+                        Thread.yield();
+                    }
+
+                    position += pushed;
+                }
+            }
+        };
+
+        writer.start();
+
+        try {
+            byte[] received = new byte[3];
+
+            for (int i = 0; i < 200; i++) {
+                BroadcastByteRingBuffer.Reader reader = buffer.newReader();
+                int count = 0;
+                byte expected = 0;
+
+                while (count < 40) {
+                    int popped = reader.pop(received, 0, received.length);
+
+                    for (int j = 0; j < popped; j++) {
+                        if (count++ > 0) {
+                            assertEquals(expected, received[j]);
+                        }
+
+                        expected = (byte) (received[j] + 1);
+                    }
+
+                    if (popped == 0) {
+                        Thread.yield();
+                    }
+                }
+
+                reader.close();
+            }
+        } finally {
+            stop.set(true);
+            writer.join();
+        }
+    }
+}
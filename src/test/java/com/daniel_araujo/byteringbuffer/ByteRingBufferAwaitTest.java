@@ -0,0 +1,239 @@
+package com.daniel_araujo.byteringbuffer;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+public final class ByteRingBufferAwaitTest {
+    @Test
+    public final void awaitReadable_completesOnExecutorWhenEnoughElementsArePushed() {
+        ByteRingBuffer buffer = new ByteRingBuffer(8);
+        QueueExecutor executor = new QueueExecutor();
+
+        CompletableFuture<Void> future = buffer.awaitReadable(3, executor);
+
+        buffer.push(new byte[] { 1, 2 });
+        assertEquals(0, executor.size());
+
+        buffer.push(new byte[] { 3 });
+        assertEquals(1, executor.size());
+        assertFalse(future.isDone());
+
+        executor.runAll();
+        assertTrue(future.isDone());
+    }
+
+    @Test
+    public final void awaitReadable_completesWhenAlreadySatisfied() {
+        ByteRingBuffer buffer = new ByteRingBuffer(8);
+        QueueExecutor executor = new QueueExecutor();
+        buffer.push(new byte[] { 1, 2, 3 });
+
+        CompletableFuture<Void> future = buffer.awaitReadable(2, executor);
+
+        assertFalse(future.isDone());
+        executor.runAll();
+        assertTrue(future.isDone());
+    }
+
+    @Test
+    public final void awaitReadable_completesAfterOverrunPush() {
+        ByteRingBuffer buffer = new ByteRingBuffer(4);
+        QueueExecutor executor = new QueueExecutor();
+
+        CompletableFuture<Void> future = buffer.awaitReadable(4, executor);
+        buffer.overrunPush(new byte[] { 1, 2, 3, 4, 5, 6, 7, 8, 9 });
+
+        executor.runAll();
+        assertTrue(future.isDone());
+    }
+
+    @Test
+    public final void awaitReadable_completesAfterReset() {
+        ByteRingBuffer buffer = new ByteRingBuffer(4);
+        QueueExecutor executor = new QueueExecutor();
+        buffer.push(new byte[] { 1, 2, 3 });
+        buffer.mark();
+        buffer.drop(3);
+
+        CompletableFuture<Void> future = buffer.awaitReadable(3, executor);
+        buffer.reset();
+
+        executor.runAll();
+        assertTrue(future.isDone());
+    }
+
+    @Test
+    public final void awaitWritable_completesOnExecutorWhenEnoughSpaceIsFreed() {
+        ByteRingBuffer buffer = new ByteRingBuffer(4);
+        QueueExecutor executor = new QueueExecutor();
+        buffer.push(new byte[] { 1, 2, 3, 4 });
+
+        CompletableFuture<Void> future = buffer.awaitWritable(2, executor);
+
+        buffer.pop(new byte[1]);
+        assertEquals(0, executor.size());
+
+        buffer.drop(1);
+        executor.runAll();
+        assertTrue(future.isDone());
+    }
+
+    @Test
+    public final void awaitWritable_completesAfterClear() {
+        ByteRingBuffer buffer = new ByteRingBuffer(4);
+        QueueExecutor executor = new QueueExecutor();
+        buffer.push(new byte[] { 1, 2, 3, 4 });
+
+        CompletableFuture<Void> future = buffer.awaitWritable(4, executor);
+        buffer.clear();
+
+        executor.runAll();
+        assertTrue(future.isDone());
+    }
+
+    @Test
+    public final void awaitWritable_waitsForCommitReadWhileMarked() {
+        ByteRingBuffer buffer = new ByteRingBuffer(4);
+        QueueExecutor executor = new QueueExecutor();
+        buffer.push(new byte[] { 1, 2, 3, 4 });
+        buffer.mark();
+
+        CompletableFuture<Void> future = buffer.awaitWritable(4, executor);
+        buffer.drop(4);
+        assertEquals(0, executor.size());
+
+        buffer.commitRead();
+        executor.runAll();
+        assertTrue(future.isDone());
+    }
+
+    @Test
+    public final void awaitWritable_completesOnlyTheFuturesThatCanProceed() {
+        ByteRingBuffer buffer = new ByteRingBuffer(4);
+        QueueExecutor executor = new QueueExecutor();
+        buffer.push(new byte[] { 1, 2, 3, 4 });
+
+        CompletableFuture<Void> one = buffer.awaitWritable(1, executor);
+        CompletableFuture<Void> three = buffer.awaitWritable(3, executor);
+
+        buffer.drop(2);
+        executor.runAll();
+        assertTrue(one.isDone());
+        assertFalse(three.isDone());
+
+        buffer.drop(1);
+        executor.runAll();
+        assertTrue(three.isDone());
+    }
+
+    @Test
+    public final void awaitReadable_cancelledFutureIsNotCompleted() {
+        ByteRingBuffer buffer = new ByteRingBuffer(4);
+        QueueExecutor executor = new QueueExecutor();
+
+        CompletableFuture<Void> future = buffer.awaitReadable(1, executor);
+        future.cancel(false);
+
+        buffer.push(new byte[] { 1 });
+        assertEquals(0, executor.size());
+        assertTrue(future.isCancelled());
+    }
+
+    @Test
+    public final void awaitReadable_cancelledFuturesDoNotPileUp() {
+        ByteRingBufferWaiters waiters = new ByteRingBufferWaiters();
+        QueueExecutor executor = new QueueExecutor();
+
+        for (int i = 0; i < 1000; i++) {
+            waiters.awaitReadable(1, executor).cancel(false);
+            waiters.awaitWritable(1, executor).cancel(false);
+        }
+
+        assertTrue(waiters.pending() <= 64);
+    }
+
+    @Test
+    public final void awaitReadable_pruningKeepsFuturesThatStillWait() {
+        ByteRingBufferWaiters waiters = new ByteRingBufferWaiters();
+        QueueExecutor executor = new QueueExecutor();
+        CompletableFuture<Void> future = waiters.awaitReadable(3, executor);
+
+        for (int i = 0; i < 100; i++) {
+            waiters.awaitReadable(1, executor).cancel(false);
+        }
+
+        waiters.changed(2, 0);
+        assertEquals(0, executor.size());
+
+        waiters.changed(3, 0);
+        executor.runAll();
+        assertTrue(future.isDone());
+        assertEquals(0, waiters.pending());
+    }
+
+    @Test
+    public final void awaitReadable_completesExceptionallyWhenExecutorRejects() {
+        ByteRingBuffer buffer = new ByteRingBuffer(4);
+
+        CompletableFuture<Void> future = buffer.awaitReadable(1, new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                throw new RejectedExecutionException();
+            }
+        });
+
+        buffer.push(new byte[] { 1 });
+        assertTrue(future.isCompletedExceptionally());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public final void awaitReadable_rejectsMoreThanCapacity() {
+        ByteRingBuffer buffer = new ByteRingBuffer(4);
+
+        buffer.awaitReadable(5, new QueueExecutor());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public final void awaitWritable_rejectsNegative() {
+        ByteRingBuffer buffer = new ByteRingBuffer(4);
+
+        buffer.awaitWritable(-1, new QueueExecutor());
+    }
+
+    @Test
+    public final void awaitReadable_defaultExecutorCompletesFuture() throws Exception {
+        ByteRingBuffer buffer = new ByteRingBuffer(4);
+
+        CompletableFuture<Void> future = buffer.awaitReadable(2);
+        buffer.push(new byte[] { 1, 2 });
+
+        future.get();
+    }
+
+    /**
+     * Keeps tasks until the test runs them.
+     */
+    private static final class QueueExecutor implements Executor {
+        private final Queue<Runnable> tasks = new ArrayDeque<>();
+
+        @Override
+        public void execute(Runnable command) {
+            tasks.add(command);
+        }
+
+        public int size() {
+            return tasks.size();
+        }
+
+        public void runAll() {
+            while (!tasks.isEmpty()) {
+                tasks.remove().run();
+            }
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.daniel_araujo.byteringbuffer;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+public final class ByteRingBufferChannelAdapterTest {
+    @Test
+    public final void readableChannel_readsAcrossTheEndOfTheBuffer() throws IOException {
+        ByteRingBuffer buffer = new ByteRingBuffer(4);
+        buffer.push(new byte[] { 0, 0, 1, 2 });
+        buffer.drop(2);
+        buffer.push(new byte[] { 3, 4 });
+        ReadableByteChannel channel = new ByteRingBufferReadableChannel(buffer);
+
+        ByteBuffer dst = ByteBuffer.allocateDirect(3);
+        assertEquals(3, channel.read(dst));
+        assertEquals(1, buffer.sizeUsed());
+
+        dst.flip();
+        assertEquals(1, dst.get());
+        assertEquals(2, dst.get());
+        assertEquals(3, dst.get());
+    }
+
+    @Test
+    public final void readableChannel_returnsZeroWhenEmpty() throws IOException {
+        ReadableByteChannel channel = new ByteRingBufferReadableChannel(new ByteRingBuffer(4));
+
+        assertEquals(0, channel.read(ByteBuffer.allocate(4)));
+    }
+
+    @Test(expected = ClosedChannelException.class)
+    public final void readableChannel_throwsAfterClose() throws IOException {
+        ReadableByteChannel channel = new ByteRingBufferReadableChannel(new ByteRingBuffer(4));
+        channel.close();
+
+        assertFalse(channel.isOpen());
+        channel.read(ByteBuffer.allocate(4));
+    }
+
+    @Test
+    public final void readableChannel_waitsAndEndsAfterProducerCloses() throws IOException {
+        BlockingByteRingBuffer buffer = new BlockingByteRingBuffer(4, new ParkingWaitStrategy());
+        buffer.push(new byte[] { 0, 0, 1 }, 0, 3);
+        buffer.drop(2);
+        buffer.push(new byte[] { 2, 3, 4 }, 0, 3);
+        buffer.close();
+        ReadableByteChannel channel = new ByteRingBufferReadableChannel(buffer);
+
+        ByteBuffer dst = ByteBuffer.allocate(8);
+        assertEquals(4, channel.read(dst));
+        assertEquals(-1, channel.read(dst));
+        assertArrayEquals(new byte[] { 1, 2, 3, 4, 0, 0, 0, 0 }, dst.array());
+    }
+
+    @Test
+    public final void writableChannel_addsWhatFits() throws IOException {
+        ByteRingBuffer buffer = new ByteRingBuffer(4);
+        buffer.push(new byte[] { 0, 0, 0 });
+        buffer.drop(2);
+        WritableByteChannel channel = new ByteRingBufferWritableChannel(buffer);
+
+        ByteBuffer src = ByteBuffer.wrap(new byte[] { 1, 2, 3, 4, 5 });
+        assertEquals(3, channel.write(src));
+        assertEquals(3, src.position());
+        assertEquals(5, src.limit());
+        assertArrayEquals(new byte[] { 0, 1, 2, 3 }, buffer.peek(4));
+
+        assertEquals(0, channel.write(src));
+    }
+
+    @Test
+    public final void writableChannel_blockingWritesDirectSource() throws IOException {
+        BlockingByteRingBuffer buffer = new BlockingByteRingBuffer(8, new ParkingWaitStrategy());
+        WritableByteChannel channel = new ByteRingBufferWritableChannel(buffer);
+
+        ByteBuffer src = ByteBuffer.allocateDirect(3);
+        src.put(new byte[] { 1, 2, 3 });
+        src.flip();
+
+        assertEquals(3, channel.write(src));
+        assertFalse(src.hasRemaining());
+
+        channel.close();
+        assertTrue(buffer.isClosed());
+
+        byte[] bytes = new byte[3];
+        buffer.pop(bytes, 0, 3);
+        assertArrayEquals(new byte[] { 1, 2, 3 }, bytes);
+    }
+
+    @Test(expected = ClosedChannelException.class)
+    public final void writableChannel_throwsAfterClose() throws IOException {
+        WritableByteChannel channel = new ByteRingBufferWritableChannel(new ByteRingBuffer(4));
+        channel.close();
+
+        channel.write(ByteBuffer.allocate(1));
+    }
+}
@@ -0,0 +1,118 @@
+package com.daniel_araujo.byteringbuffer;
+
+import static org.junit.Assert.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Pipe;
+
+public final class ByteRingBufferChannelTest {
+    private Pipe pipe;
+
+    @Before
+    public final void openPipe() throws IOException {
+        pipe = Pipe.open();
+        pipe.source().configureBlocking(false);
+        pipe.sink().configureBlocking(false);
+    }
+
+    @After
+    public final void closePipe() throws IOException {
+        pipe.source().close();
+        pipe.sink().close();
+    }
+
+    @Test
+    public final void writeTo_writesAndRemovesBothParts() throws IOException {
+        ByteRingBuffer buffer = new ByteRingBuffer(4);
+
+        buffer.overrunPush(new byte[] { 1, 2, 3, 4, 5 });
+
+        assertEquals(4, buffer.writeTo(pipe.sink()));
+        assertEquals(0, buffer.sizeUsed());
+
+        assertArrayEquals(new byte[] { 2, 3, 4, 5 }, readPipe(4));
+    }
+
+    @Test
+    public final void writeTo_returns0WhenEmpty() throws IOException {
+        ByteRingBuffer buffer = new ByteRingBuffer(4);
+
+        assertEquals(0, buffer.writeTo(pipe.sink()));
+    }
+
+    @Test
+    public final void readFrom_fillsBothFreeParts() throws IOException {
+        ByteRingBuffer buffer = new ByteRingBuffer(4);
+
+        buffer.push(new byte[] { 1, 2, 3 });
+        buffer.drop(2);
+        writePipe(new byte[] { 4, 5, 6, 7 });
+
+        assertEquals(3, buffer.readFrom(pipe.source()));
+        assertEquals(4, buffer.sizeUsed());
+
+        assertArrayEquals(new byte[] { 3, 4, 5, 6 }, buffer.peek(4));
+    }
+
+    @Test
+    public final void readFrom_reportsPartialProgress() throws IOException {
+        ByteRingBuffer buffer = new ByteRingBuffer(4);
+
+        assertEquals(0, buffer.readFrom(pipe.source()));
+
+        writePipe(new byte[] { 1, 2 });
+
+        assertEquals(2, buffer.readFrom(pipe.source()));
+        assertArrayEquals(new byte[] { 1, 2 }, buffer.peek(2));
+    }
+
+    @Test
+    public final void readFrom_returns0WhenFull() throws IOException {
+        ByteRingBuffer buffer = new ByteRingBuffer(2);
+
+        buffer.push(new byte[] { 1, 2 });
+        writePipe(new byte[] { 3 });
+
+        assertEquals(0, buffer.readFrom(pipe.source()));
+    }
+
+    @Test
+    public final void readFrom_returnsMinus1AtEndOfStream() throws IOException {
+        ByteRingBuffer buffer = new ByteRingBuffer(2);
+
+        pipe.sink().close();
+
+        assertEquals(-1, buffer.readFrom(pipe.source()));
+    }
+
+    @Test
+    public final void readFrom_updatesMirror() throws IOException {
+        ByteRingBuffer buffer = new ByteRingBuffer(4, 2);
+
+        buffer.push(new byte[] { 1, 2, 3 });
+        buffer.drop(2);
+        writePipe(new byte[] { 4, 5, 6 });
+        buffer.readFrom(pipe.source());
+
+        ByteBuffer chunk = buffer.peekContiguous(4);
+        byte[] result = new byte[chunk.remaining()];
+        chunk.get(result);
+
+        assertArrayEquals(new byte[] { 3, 4, 5, 6 }, result);
+    }
+
+    private void writePipe(byte[] bytes) throws IOException {
+        pipe.sink().write(ByteBuffer.wrap(bytes));
+    }
+
+    private byte[] readPipe(int length) throws IOException {
+        ByteBuffer result = ByteBuffer.allocate(length);
+        while (result.hasRemaining()) {
+            pipe.source().read(result);
+        }
+        return result.array();
+    }
+}
@@ -0,0 +1,94 @@
+package com.daniel_araujo.byteringbuffer;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+public final class ByteRingBufferConsumeCallbackTest {
+    @Test
+    public final void pop_removesEverythingWhenCallbackConsumesEverything() {
+        ByteRingBuffer buffer = new ByteRingBuffer(4);
+        buffer.push(new byte[] { 1, 2, 3 });
+
+        ConsumeCallbackTracker cb = new ConsumeCallbackTracker(Integer.MAX_VALUE);
+
+        assertEquals(3, buffer.pop(cb));
+        assertEquals(0, buffer.sizeUsed());
+        assertEquals(1, cb.calls.size());
+        assertArrayEquals(new byte[] { 1, 2, 3 }, cb.calls.get(0));
+    }
+
+    @Test
+    public final void pop_callsFunctionTwiceWhenBufferIsPartitioned() {
+        ByteRingBuffer buffer = new ByteRingBuffer(4);
+        buffer.overrunPush(new byte[] { 1, 2, 3, 4, 5 });
+
+        ConsumeCallbackTracker cb = new ConsumeCallbackTracker(Integer.MAX_VALUE);
+
+        assertEquals(4, buffer.pop(cb));
+        assertEquals(2, cb.calls.size());
+        assertArrayEquals(new byte[] { 2, 3, 4 }, cb.calls.get(0));
+        assertArrayEquals(new byte[] { 5 }, cb.calls.get(1));
+    }
+
+    @Test
+    public final void pop_removesOnlyWhatWasConsumedAndStops() {
+        ByteRingBuffer buffer = new ByteRingBuffer(4);
+        buffer.overrunPush(new byte[] { 1, 2, 3, 4, 5 });
+
+        ConsumeCallbackTracker cb = new ConsumeCallbackTracker(2);
+
+        assertEquals(2, buffer.pop(cb));
+        assertEquals(1, cb.calls.size());
+        assertArrayEquals(new byte[] { 4, 5 }, buffer.peek(4));
+    }
+
+    @Test
+    public final void pop_callsFunctionWhenBufferIsEmpty() {
+        ByteRingBuffer buffer = new ByteRingBuffer(4);
+
+        ConsumeCallbackTracker cb = new ConsumeCallbackTracker(Integer.MAX_VALUE);
+
+        assertEquals(0, buffer.pop(cb));
+        assertEquals(1, cb.calls.size());
+        assertEquals(0, cb.calls.get(0).length);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public final void pop_rejectsConsumingMoreThanTheChunk() {
+        ByteRingBuffer buffer = new ByteRingBuffer(4);
+        buffer.push(new byte[] { 1 });
+
+        buffer.pop(new ByteRingBuffer.ConsumeCallback() {
+            @Override
+            public int borrow(ByteBuffer chunk) {
+                return 2;
+            }
+        });
+    }
+
+    /**
+     * Records every chunk and consumes up to a limit from each one.
+     */
+    private static final class ConsumeCallbackTracker implements ByteRingBuffer.ConsumeCallback {
+        final List<byte[]> calls = new ArrayList<>();
+
+        private final int limit;
+
+        ConsumeCallbackTracker(int limit) {
+            this.limit = limit;
+        }
+
+        @Override
+        public int borrow(ByteBuffer chunk) {
+            byte[] arr = new byte[chunk.remaining()];
+            chunk.get(arr);
+
+            calls.add(arr);
+
+            return Math.min(arr.length, limit);
+        }
+    }
+}
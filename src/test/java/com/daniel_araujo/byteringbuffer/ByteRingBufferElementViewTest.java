@@ -0,0 +1,452 @@
+package com.daniel_araujo.byteringbuffer;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Tests the int, long, float and double views. Elements are passed around as the bits that the view stores so that
+ * every view can run the same tests.
+ */
+@RunWith(Parameterized.class)
+public final class ByteRingBufferElementViewTest {
+    @Parameters(name = "{0}")
+    public static Collection<Object[]> types() {
+        return Arrays.asList(new Object[][] {
+                { new Type("int", 4, 0x01020304, -5) {
+                    @Override
+                    View view(ByteRingBuffer buffer, ByteOrder order) {
+                        final ByteRingBuffer.IntView view = order == null ? buffer.intView()
+                                : buffer.intView(order);
+
+                        return new View(view.order(), view.sizeTotal()) {
+                            @Override
+                            int push(long... bits) {
+                                return view.push(ints(bits));
+                            }
+
+                            @Override
+                            void overrunPush(long... bits) {
+                                view.overrunPush(ints(bits));
+                            }
+
+                            @Override
+                            long[] peek(int length) {
+                                return bits(view.peek(length));
+                            }
+
+                            @Override
+                            long[] pop(int length) {
+                                return bits(view.pop(length));
+                            }
+
+                            @Override
+                            void drop(int elements) {
+                                view.drop(elements);
+                            }
+
+                            @Override
+                            int sizeUsed() {
+                                return view.sizeUsed();
+                            }
+
+                            @Override
+                            int sizeFree() {
+                                return view.sizeFree();
+                            }
+
+                            private int[] ints(long[] bits) {
+                                int[] ints = new int[bits.length];
+                                for (int i = 0; i < bits.length; i++) {
+                                    ints[i] = (int) bits[i];
+                                }
+                                return ints;
+                            }
+
+                            private long[] bits(int[] ints) {
+                                long[] bits = new long[ints.length];
+                                for (int i = 0; i < ints.length; i++) {
+                                    bits[i] = ints[i];
+                                }
+                                return bits;
+                            }
+                        };
+                    }
+                } },
+                { new Type("long", 8, 0x0102030405060708L, -5L) {
+                    @Override
+                    View view(ByteRingBuffer buffer, ByteOrder order) {
+                        final ByteRingBuffer.LongView view = order == null ? buffer.longView()
+                                : buffer.longView(order);
+
+                        return new View(view.order(), view.sizeTotal()) {
+                            @Override
+                            int push(long... bits) {
+                                return view.push(bits);
+                            }
+
+                            @Override
+                            void overrunPush(long... bits) {
+                                view.overrunPush(bits);
+                            }
+
+                            @Override
+                            long[] peek(int length) {
+                                return view.peek(length);
+                            }
+
+                            @Override
+                            long[] pop(int length) {
+                                return view.pop(length);
+                            }
+
+                            @Override
+                            void drop(int elements) {
+                                view.drop(elements);
+                            }
+
+                            @Override
+                            int sizeUsed() {
+                                return view.sizeUsed();
+                            }
+
+                            @Override
+                            int sizeFree() {
+                                return view.sizeFree();
+                            }
+                        };
+                    }
+                } },
+                { new Type("float", 4, Float.floatToRawIntBits(1.5f), Float.floatToRawIntBits(-0.25f)) {
+                    @Override
+                    View view(ByteRingBuffer buffer, ByteOrder order) {
+                        final ByteRingBuffer.FloatView view = order == null ? buffer.floatView()
+                                : buffer.floatView(order);
+
+                        return new View(view.order(), view.sizeTotal()) {
+                            @Override
+                            int push(long... bits) {
+                                return view.push(floats(bits));
+                            }
+
+                            @Override
+                            void overrunPush(long... bits) {
+                                view.overrunPush(floats(bits));
+                            }
+
+                            @Override
+                            long[] peek(int length) {
+                                return bits(view.peek(length));
+                            }
+
+                            @Override
+                            long[] pop(int length) {
+                                return bits(view.pop(length));
+                            }
+
+                            @Override
+                            void drop(int elements) {
+                                view.drop(elements);
+                            }
+
+                            @Override
+                            int sizeUsed() {
+                                return view.sizeUsed();
+                            }
+
+                            @Override
+                            int sizeFree() {
+                                return view.sizeFree();
+                            }
+
+                            private float[] floats(long[] bits) {
+                                float[] floats = new float[bits.length];
+                                for (int i = 0; i < bits.length; i++) {
+                                    floats[i] = Float.intBitsToFloat((int) bits[i]);
+                                }
+                                return floats;
+                            }
+
+                            private long[] bits(float[] floats) {
+                                long[] bits = new long[floats.length];
+                                for (int i = 0; i < floats.length; i++) {
+                                    bits[i] = Float.floatToRawIntBits(floats[i]);
+                                }
+                                return bits;
+                            }
+                        };
+                    }
+                } },
+                { new Type("double", 8, Double.doubleToRawLongBits(1.5), Double.doubleToRawLongBits(-0.25)) {
+                    @Override
+                    View view(ByteRingBuffer buffer, ByteOrder order) {
+                        final ByteRingBuffer.DoubleView view = order == null ? buffer.doubleView()
+                                : buffer.doubleView(order);
+
+                        return new View(view.order(), view.sizeTotal()) {
+                            @Override
+                            int push(long... bits) {
+                                return view.push(doubles(bits));
+                            }
+
+                            @Override
+                            void overrunPush(long... bits) {
+                                view.overrunPush(doubles(bits));
+                            }
+
+                            @Override
+                            long[] peek(int length) {
+                                return bits(view.peek(length));
+                            }
+
+                            @Override
+                            long[] pop(int length) {
+                                return bits(view.pop(length));
+                            }
+
+                            @Override
+                            void drop(int elements) {
+                                view.drop(elements);
+                            }
+
+                            @Override
+                            int sizeUsed() {
+                                return view.sizeUsed();
+                            }
+
+                            @Override
+                            int sizeFree() {
+                                return view.sizeFree();
+                            }
+
+                            private double[] doubles(long[] bits) {
+                                double[] doubles = new double[bits.length];
+                                for (int i = 0; i < bits.length; i++) {
+                                    doubles[i] = Double.longBitsToDouble(bits[i]);
+                                }
+                                return doubles;
+                            }
+
+                            private long[] bits(double[] doubles) {
+                                long[] bits = new long[doubles.length];
+                                for (int i = 0; i < doubles.length; i++) {
+                                    bits[i] = Double.doubleToRawLongBits(doubles[i]);
+                                }
+                                return bits;
+                            }
+                        };
+                    }
+                } } });
+    }
+
+    private final Type type;
+
+    private final int width;
+
+    private final long a;
+
+    private final long b;
+
+    public ByteRingBufferElementViewTest(Type type) {
+        this.type = type;
+        this.width = type.width;
+        this.a = type.a;
+        this.b = type.b;
+    }
+
+    @Test
+    public final void push_addsOneElementAsItsWidthInBytes() {
+        ByteRingBuffer buffer = new ByteRingBuffer(width * 2);
+
+        assertEquals(1, type.view(buffer).push(a));
+
+        assertEquals(width, buffer.sizeUsed());
+    }
+
+    @Test
+    public final void push_cannotAddIfThereIsNotEnoughSpaceForAWholeElement() {
+        ByteRingBuffer buffer = new ByteRingBuffer(width * 2);
+
+        buffer.push(new byte[width + 1]);
+
+        assertEquals(0, type.view(buffer).push(a));
+        assertEquals(width + 1, buffer.sizeUsed());
+    }
+
+    @Test
+    public final void push_splitsElementAcrossTheEndOfTheBuffer() {
+        ByteRingBuffer buffer = new ByteRingBuffer(width * 2 + 1);
+
+        buffer.push(new byte[width + 1]);
+        buffer.drop(width + 1);
+
+        assertEquals(2, type.view(buffer).push(a, b, a));
+
+        assertArrayEquals(new long[] { a, b }, type.view(buffer).pop(2));
+        assertEquals(0, buffer.sizeUsed());
+    }
+
+    @Test
+    public final void order_isBigEndianByDefault() {
+        ByteRingBuffer buffer = new ByteRingBuffer(width);
+
+        View view = type.view(buffer);
+        assertEquals(ByteOrder.BIG_ENDIAN, view.order);
+
+        view.push(a);
+
+        assertArrayEquals(bytes(a, ByteOrder.BIG_ENDIAN), buffer.peek(width));
+    }
+
+    @Test
+    public final void order_littleEndianPlacesLeastSignificantByteFirst() {
+        ByteRingBuffer buffer = new ByteRingBuffer(width);
+        View view = type.view(buffer, ByteOrder.LITTLE_ENDIAN);
+
+        view.push(a);
+
+        assertArrayEquals(bytes(a, ByteOrder.LITTLE_ENDIAN), buffer.peek(width));
+        assertArrayEquals(new long[] { a }, view.peek(1));
+    }
+
+    @Test
+    public final void overrunPush_overwritesOldestElements() {
+        ByteRingBuffer buffer = new ByteRingBuffer(width * 2);
+
+        type.view(buffer).overrunPush(a, b, a);
+
+        assertEquals(2, type.view(buffer).sizeUsed());
+        assertArrayEquals(new long[] { b, a }, type.view(buffer).peek(2));
+    }
+
+    @Test
+    public final void overrunPush_overwritesBytesWithElements() {
+        ByteRingBuffer buffer = new ByteRingBuffer(width + 1);
+
+        buffer.push((byte) 1);
+        type.view(buffer).overrunPush(a, b);
+
+        assertEquals(width + 1, buffer.sizeUsed());
+
+        byte[] expected = new byte[width + 1];
+        System.arraycopy(bytes(a, ByteOrder.BIG_ENDIAN), width - 1, expected, 0, 1);
+        System.arraycopy(bytes(b, ByteOrder.BIG_ENDIAN), 0, expected, 1, width);
+        assertArrayEquals(expected, buffer.peek(width + 1));
+    }
+
+    @Test
+    public final void overrunPush_doesNotOverwriteMarkedElements() {
+        ByteRingBuffer buffer = new ByteRingBuffer(width * 2);
+
+        type.view(buffer).push(a);
+        buffer.mark();
+
+        type.view(buffer).overrunPush(b, b);
+
+        assertArrayEquals(new long[] { a, b }, type.view(buffer).peek(2));
+    }
+
+    @Test
+    public final void drop_removesOnlyEntireElements() {
+        ByteRingBuffer buffer = new ByteRingBuffer(width * 2);
+
+        buffer.push(new byte[width + 1]);
+        type.view(buffer).drop(2);
+
+        assertEquals(1, buffer.sizeUsed());
+    }
+
+    @Test
+    public final void sizes_onlyCountCompleteElements() {
+        ByteRingBuffer buffer = new ByteRingBuffer(width * 2 + 1);
+
+        buffer.push((byte) 1);
+
+        View view = type.view(buffer);
+        assertEquals(2, view.sizeTotal);
+        assertEquals(0, view.sizeUsed());
+        assertEquals(2, view.sizeFree());
+    }
+
+    /**
+     * @return The bytes of an element, taken from the lowest bytes of its bits.
+     */
+    private byte[] bytes(long bits, ByteOrder order) {
+        byte[] all = ByteBuffer.allocate(8).order(order).putLong(bits).array();
+        int from = order == ByteOrder.BIG_ENDIAN ? 8 - width : 0;
+
+        return Arrays.copyOfRange(all, from, from + width);
+    }
+
+    /**
+     * One of the views under test.
+     */
+    abstract static class Type {
+        private final String name;
+
+        final int width;
+
+        /**
+         * Bits of two different elements.
+         */
+        final long a;
+
+        final long b;
+
+        Type(String name, int width, long a, long b) {
+            this.name = name;
+            this.width = width;
+            this.a = a;
+            this.b = b;
+        }
+
+        final View view(ByteRingBuffer buffer) {
+            return view(buffer, null);
+        }
+
+        /**
+         * @param order
+         *            Is null to create the view without giving a byte order.
+         */
+        abstract View view(ByteRingBuffer buffer, ByteOrder order);
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    /**
+     * Calls a view with the bits of its elements.
+     */
+    abstract static class View {
+        final ByteOrder order;
+
+        final int sizeTotal;
+
+        View(ByteOrder order, int sizeTotal) {
+            this.order = order;
+            this.sizeTotal = sizeTotal;
+        }
+
+        abstract int push(long... bits);
+
+        abstract void overrunPush(long... bits);
+
+        abstract long[] peek(int length);
+
+        abstract long[] pop(int length);
+
+        abstract void drop(int elements);
+
+        abstract int sizeUsed();
+
+        abstract int sizeFree();
+    }
+}
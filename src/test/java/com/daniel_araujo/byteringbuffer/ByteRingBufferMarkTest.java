@@ -0,0 +1,140 @@
+package com.daniel_araujo.byteringbuffer;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+public final class ByteRingBufferMarkTest {
+    @Test
+    public final void reset_bringsBackPoppedElements() {
+        ByteRingBuffer buffer = new ByteRingBuffer(4);
+        buffer.push(new byte[] { 1, 2, 3 });
+
+        buffer.mark();
+        assertArrayEquals(new byte[] { 1, 2 }, buffer.pop(2));
+        buffer.reset();
+
+        assertEquals(3, buffer.sizeUsed());
+        assertEquals(0, buffer.readPosition());
+        assertArrayEquals(new byte[] { 1, 2, 3 }, buffer.pop(3));
+    }
+
+    @Test
+    public final void reset_bringsBackElementsThatWrap() {
+        ByteRingBuffer buffer = new ByteRingBuffer(4);
+        buffer.overrunPush(new byte[] { 1, 2, 3, 4, 5, 6 });
+
+        buffer.mark();
+        buffer.pop(3);
+        buffer.drop(1);
+        buffer.reset();
+
+        assertArrayEquals(new byte[] { 3, 4, 5, 6 }, buffer.peek(4));
+    }
+
+    @Test
+    public final void reset_keepsMark() {
+        ByteRingBuffer buffer = new ByteRingBuffer(4);
+        buffer.push(new byte[] { 1, 2 });
+
+        buffer.mark();
+        buffer.pop(1);
+        buffer.reset();
+        buffer.pop(2);
+        buffer.reset();
+
+        assertTrue(buffer.isMarked());
+        assertArrayEquals(new byte[] { 1, 2 }, buffer.peek(2));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public final void reset_failsWithoutMark() {
+        ByteRingBuffer buffer = new ByteRingBuffer(4);
+
+        buffer.reset();
+    }
+
+    @Test
+    public final void push_doesNotOverwriteElementsHeldByMark() {
+        ByteRingBuffer buffer = new ByteRingBuffer(4);
+        buffer.push(new byte[] { 1, 2, 3 });
+
+        buffer.mark();
+        buffer.pop(3);
+
+        assertEquals(1, buffer.sizeFree());
+        assertEquals(1, buffer.push(new byte[] { 4, 5 }));
+
+        buffer.reset();
+        assertArrayEquals(new byte[] { 1, 2, 3, 4 }, buffer.peek(4));
+    }
+
+    @Test
+    public final void push_fillsSpaceBeforeHeldElementsWhenTheyWrap() {
+        ByteRingBuffer buffer = new ByteRingBuffer(4);
+        buffer.push(new byte[] { 1, 2, 3 });
+        buffer.drop(2);
+
+        buffer.mark();
+        buffer.pop(1);
+
+        assertEquals(3, buffer.push(new byte[] { 4, 5, 6, 7 }));
+
+        buffer.reset();
+        assertArrayEquals(new byte[] { 3, 4, 5, 6 }, buffer.peek(4));
+    }
+
+    @Test
+    public final void overrunPush_onlyAddsWhatFitsWhileMarked() {
+        ByteRingBuffer buffer = new ByteRingBuffer(4);
+        buffer.push(new byte[] { 1, 2, 3 });
+
+        buffer.mark();
+        buffer.pop(1);
+        buffer.overrunPush(new byte[] { 4, 5 });
+        buffer.shortView().overrunPush(new short[] { 6 });
+
+        buffer.reset();
+        assertArrayEquals(new byte[] { 1, 2, 3, 4 }, buffer.peek(4));
+    }
+
+    @Test
+    public final void overrunTransferTo_onlyAddsWhatFitsWhileDestinationIsMarked() {
+        ByteRingBuffer source = new ByteRingBuffer(4);
+        ByteRingBuffer destination = new ByteRingBuffer(4);
+        source.push(new byte[] { 5, 6 });
+        destination.push(new byte[] { 1, 2, 3 });
+
+        destination.mark();
+
+        assertEquals(1, source.overrunTransferTo(destination, 2));
+        assertArrayEquals(new byte[] { 1, 2, 3, 5 }, destination.peek(4));
+    }
+
+    @Test
+    public final void commitRead_releasesSpace() {
+        ByteRingBuffer buffer = new ByteRingBuffer(4);
+        buffer.push(new byte[] { 1, 2, 3 });
+
+        buffer.mark();
+        buffer.pop(2);
+        buffer.commitRead();
+
+        assertFalse(buffer.isMarked());
+        assertEquals(3, buffer.sizeFree());
+        buffer.overrunPush(new byte[] { 4, 5, 6, 7 });
+        assertArrayEquals(new byte[] { 4, 5, 6, 7 }, buffer.peek(4));
+    }
+
+    @Test
+    public final void clear_forgetsMark() {
+        ByteRingBuffer buffer = new ByteRingBuffer(4);
+        buffer.push(new byte[] { 1, 2, 3 });
+
+        buffer.mark();
+        buffer.pop(1);
+        buffer.clear();
+
+        assertFalse(buffer.isMarked());
+        assertEquals(4, buffer.sizeFree());
+    }
+}
@@ -0,0 +1,229 @@
+package com.daniel_araujo.byteringbuffer;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+import java.lang.management.ManagementFactory;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+public final class ByteRingBufferMetricsTest {
+    @Test
+    public final void metrics_isNullUntilEnabled() {
+        ByteRingBuffer buffer = new ByteRingBuffer(4);
+
+        assertNull(buffer.metrics());
+
+        ByteRingBufferMetrics metrics = buffer.enableMetrics();
+
+        assertSame(metrics, buffer.metrics());
+        assertSame(metrics, buffer.enableMetrics());
+    }
+
+    @Test
+    public final void enableMetrics_startsHighWaterMarkAtCurrentSize() {
+        ByteRingBuffer buffer = new ByteRingBuffer(4);
+        buffer.push(new byte[] { 1, 2 });
+
+        assertEquals(2, buffer.enableMetrics().getHighWaterMark());
+    }
+
+    @Test
+    public final void push_countsAddedAndRejectedBytes() {
+        ByteRingBuffer buffer = new ByteRingBuffer(4);
+        ByteRingBufferMetrics metrics = buffer.enableMetrics();
+
+        buffer.push(new byte[] { 1, 2, 3 });
+        buffer.push(new byte[] { 4, 5, 6 });
+
+        assertEquals(4, metrics.getBytesPushed());
+        assertEquals(2, metrics.getBytesRejected());
+        assertEquals(4, metrics.getHighWaterMark());
+    }
+
+    @Test
+    public final void overrunPush_countsDiscardedBytes() {
+        ByteRingBuffer buffer = new ByteRingBuffer(4);
+        ByteRingBufferMetrics metrics = buffer.enableMetrics();
+
+        buffer.push(new byte[] { 1, 2, 3 });
+        buffer.overrunPush(new byte[] { 4, 5 });
+
+        assertEquals(5, metrics.getBytesPushed());
+        assertEquals(1, metrics.getBytesOverrun());
+        assertEquals(0, metrics.getBytesRejected());
+    }
+
+    @Test
+    public final void overrunPush_countsEveryByteLostWhenPushIsLargerThanCapacity() {
+        ByteRingBuffer buffer = new ByteRingBuffer(4);
+        ByteRingBufferMetrics metrics = buffer.enableMetrics();
+
+        buffer.push(new byte[] { 1, 2 });
+        buffer.shortView().overrunPush(new short[] { 3, 4, 5 });
+
+        assertEquals(8, metrics.getBytesPushed());
+        assertEquals(4, metrics.getBytesOverrun());
+        assertEquals(4, metrics.getHighWaterMark());
+    }
+
+    @Test
+    public final void popAndDrop_areCountedSeparately() {
+        ByteRingBuffer buffer = new ByteRingBuffer(8);
+        ByteRingBufferMetrics metrics = buffer.enableMetrics();
+
+        buffer.push(new byte[] { 1, 2, 3, 4, 5, 6, 7, 8 });
+        buffer.pop(3);
+        buffer.drop(1);
+        buffer.intView().pop(1);
+        buffer.clear();
+
+        assertEquals(7, metrics.getBytesPopped());
+        assertEquals(1, metrics.getBytesDropped());
+    }
+
+    @Test
+    public final void clear_countsRemovedBytesAsDropped() {
+        ByteRingBuffer buffer = new ByteRingBuffer(4);
+        ByteRingBufferMetrics metrics = buffer.enableMetrics();
+
+        buffer.push(new byte[] { 1, 2, 3 });
+        buffer.clear();
+
+        assertEquals(3, metrics.getBytesDropped());
+    }
+
+    @Test
+    public final void reset_doesNotCountBytesThatWereBroughtBack() {
+        ByteRingBuffer buffer = new ByteRingBuffer(4);
+        ByteRingBufferMetrics metrics = buffer.enableMetrics();
+        buffer.push(new byte[] { 1, 2, 3, 4 });
+
+        buffer.mark();
+        buffer.pop(2);
+        buffer.drop(1);
+        buffer.reset();
+        buffer.pop(2);
+        buffer.drop(1);
+        buffer.reset();
+
+        assertEquals(0, metrics.getBytesPopped());
+        assertEquals(0, metrics.getBytesDropped());
+    }
+
+    @Test
+    public final void commitRead_countsBytesRemovedSinceTheMark() {
+        ByteRingBuffer buffer = new ByteRingBuffer(4);
+        ByteRingBufferMetrics metrics = buffer.enableMetrics();
+        buffer.push(new byte[] { 1, 2, 3, 4 });
+
+        buffer.mark();
+        buffer.pop(2);
+        buffer.reset();
+        buffer.pop(2);
+        buffer.drop(1);
+
+        assertEquals(0, metrics.getBytesPopped());
+
+        buffer.commitRead();
+
+        assertEquals(2, metrics.getBytesPopped());
+        assertEquals(1, metrics.getBytesDropped());
+    }
+
+    @Test
+    public final void viewPush_countsRejectedBytes() {
+        ByteRingBuffer buffer = new ByteRingBuffer(6);
+        ByteRingBufferMetrics metrics = buffer.enableMetrics();
+
+        buffer.shortView().push(new short[] { 1, 2, 3, 4 });
+
+        assertEquals(6, metrics.getBytesPushed());
+        assertEquals(2, metrics.getBytesRejected());
+    }
+
+    @Test
+    public final void resetHighWaterMark_startsFromSizeAfterNextOperation() {
+        ByteRingBuffer buffer = new ByteRingBuffer(4);
+        ByteRingBufferMetrics metrics = buffer.enableMetrics();
+
+        buffer.push(new byte[] { 1, 2, 3, 4 });
+        buffer.drop(3);
+        metrics.resetHighWaterMark();
+
+        assertEquals(4, metrics.getHighWaterMark());
+
+        buffer.push(new byte[] { 5 });
+
+        assertEquals(2, metrics.getHighWaterMark());
+    }
+
+    @Test
+    public final void resetHighWaterMark_isCarriedOutByPopsAndDrops() {
+        ByteRingBuffer buffer = new ByteRingBuffer(4);
+        ByteRingBufferMetrics metrics = buffer.enableMetrics();
+
+        buffer.push(new byte[] { 1, 2, 3, 4 });
+        metrics.resetHighWaterMark();
+        buffer.pop(1);
+
+        assertEquals(3, metrics.getHighWaterMark());
+
+        metrics.resetHighWaterMark();
+        buffer.drop(1);
+
+        assertEquals(2, metrics.getHighWaterMark());
+    }
+
+    @Test
+    public final void resetHighWaterMark_canBeCalledFromAnotherThread() throws InterruptedException {
+        ByteRingBuffer buffer = new ByteRingBuffer(4);
+        final ByteRingBufferMetrics metrics = buffer.enableMetrics();
+
+        buffer.push(new byte[] { 1, 2, 3, 4 });
+        buffer.drop(4);
+
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                metrics.resetHighWaterMark();
+            }
+        });
+        thread.start();
+        thread.join();
+
+        buffer.push(new byte[] { 1 });
+
+        assertEquals(1, metrics.getHighWaterMark());
+    }
+
+    @Test
+    public final void snapshot_doesNotChangeAfterwards() {
+        ByteRingBuffer buffer = new ByteRingBuffer(4);
+        ByteRingBufferMetrics metrics = buffer.enableMetrics();
+
+        buffer.push(new byte[] { 1, 2 });
+        ByteRingBufferMetrics.Snapshot snapshot = metrics.snapshot();
+        buffer.pop(2);
+
+        assertEquals(2, snapshot.getBytesPushed());
+        assertEquals(0, snapshot.getBytesPopped());
+        assertEquals(2, snapshot.getHighWaterMark());
+    }
+
+    @Test
+    public final void metrics_canBeRegisteredAsMBean() throws Exception {
+        ByteRingBuffer buffer = new ByteRingBuffer(4);
+        ByteRingBufferMetrics metrics = buffer.enableMetrics();
+        buffer.push(new byte[] { 1, 2, 3, 4, 5 });
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName("com.daniel_araujo.byteringbuffer:type=ByteRingBuffer,name=test");
+        server.registerMBean(metrics, name);
+
+        try {
+            assertEquals(1L, server.getAttribute(name, "BytesRejected"));
+        } finally {
+            server.unregisterMBean(name);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.daniel_araujo.byteringbuffer;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+import java.nio.ByteBuffer;
+
+public final class ByteRingBufferPeekContiguousTest {
+    @Test
+    public final void returnsRequestedElementsWhenTheyDoNotWrap() {
+        ByteRingBuffer buffer = new ByteRingBuffer(4);
+
+        buffer.push(new byte[] { 1, 2, 3 });
+
+        assertArrayEquals(new byte[] { 1, 2 }, toArray(buffer.peekContiguous(2)));
+    }
+
+    @Test
+    public final void returnsOnlyContiguousElementsWithoutWindow() {
+        ByteRingBuffer buffer = new ByteRingBuffer(4);
+
+        buffer.overrunPush(new byte[] { 1, 2, 3, 4, 5 });
+
+        assertArrayEquals(new byte[] { 2, 3, 4 }, toArray(buffer.peekContiguous(4)));
+    }
+
+    @Test
+    public final void returnsElementsThatWrapWhenWithinWindow() {
+        ByteRingBuffer buffer = new ByteRingBuffer(4, 2);
+
+        buffer.overrunPush(new byte[] { 1, 2, 3, 4, 5, 6 });
+
+        assertArrayEquals(new byte[] { 3, 4, 5, 6 }, toArray(buffer.peekContiguous(4)));
+    }
+
+    @Test
+    public final void mirrorIsKeptUpToDateByPush() {
+        ByteRingBuffer buffer = new ByteRingBuffer(4, 3);
+
+        buffer.push(new byte[] { 1, 2, 3, 4 });
+        buffer.drop(3);
+        buffer.push(new byte[] { 5, 6, 7 });
+
+        assertArrayEquals(new byte[] { 4, 5, 6, 7 }, toArray(buffer.peekContiguous(4)));
+
+        buffer.drop(2);
+        buffer.push(new byte[] { 8, 9 });
+
+        assertArrayEquals(new byte[] { 6, 7, 8, 9 }, toArray(buffer.peekContiguous(4)));
+    }
+
+    @Test
+    public final void returnsNoMoreThanStoredElements() {
+        ByteRingBuffer buffer = new ByteRingBuffer(4, 4);
+
+        buffer.push(new byte[] { 1, 2 });
+
+        assertArrayEquals(new byte[] { 1, 2 }, toArray(buffer.peekContiguous(4)));
+        assertEquals(0, buffer.peekContiguous(0).remaining());
+    }
+
+    @Test
+    public final void sharesMemoryWithBuffer() {
+        ByteRingBuffer buffer = new ByteRingBuffer(4);
+
+        buffer.push(new byte[] { 1, 2 });
+        ByteBuffer chunk = buffer.peekContiguous(2);
+        buffer.drop(2);
+        buffer.push(new byte[] { 3, 4 });
+        buffer.overrunPush(new byte[] { 5, 6 });
+
+        assertEquals(5, chunk.get(0));
+    }
+
+    @Test
+    public final void windowDoesNotChangeCapacity() {
+        ByteRingBuffer buffer = new ByteRingBuffer(4, 4);
+
+        assertEquals(4, buffer.sizeTotal());
+        assertEquals(4, buffer.push(new byte[] { 1, 2, 3, 4, 5 }));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public final void windowCannotBeLargerThanCapacity() {
+        new ByteRingBuffer(4, 5);
+    }
+
+    private static byte[] toArray(ByteBuffer chunk) {
+        byte[] arr = new byte[chunk.remaining()];
+        chunk.get(arr);
+        return arr;
+    }
+}
@@ -166,6 +166,19 @@ public final class ByteRingBufferPeekTest {
         assertEquals(total, buffer.peek(result));
     }
 
+    @Test
+    public final void bugfix_peekReportsMoreElementsThanItCopiedWhenPartitioned() {
+        ByteRingBuffer buffer = new ByteRingBuffer(4);
+
+        buffer.push(new byte[] { 0, 0, 1, 2 });
+        buffer.drop(2);
+        buffer.push(new byte[] { 3 });
+
+        byte[] result = new byte[5];
+        assertEquals(3, buffer.peek(result));
+        assertArrayEquals(new byte[] { 1, 2, 3, 0, 0 }, result);
+    }
+
     @Test
     public final void length_returnsArrayOfElements() {
         ByteRingBuffer buffer = new ByteRingBuffer(4);
@@ -219,4 +232,95 @@ public final class ByteRingBufferPeekTest {
         assertArrayEquals(new byte[] { 1, 2 }, buffer.peek(2));
         assertArrayEquals(new byte[] { 1 }, buffer.peek(1));
     }
+
+    @Test
+    public final void skip_copiesOnlyTheRequestedWindow() {
+        ByteRingBuffer buffer = new ByteRingBuffer(6);
+
+        buffer.push(new byte[] { 1, 2, 3, 4, 5, 6 });
+
+        byte[] bytes = new byte[3];
+        assertEquals(2, buffer.peek(2, bytes, 1, 2));
+        assertArrayEquals(new byte[] { 0, 3, 4 }, bytes);
+        assertEquals(6, buffer.sizeUsed());
+    }
+
+    @Test
+    public final void skip_copiesAcrossTheEnd() {
+        ByteRingBuffer buffer = new ByteRingBuffer(4);
+
+        buffer.overrunPush(new byte[] { 1, 2, 3, 4, 5, 6 });
+
+        byte[] bytes = new byte[2];
+        assertEquals(2, buffer.peek(1, bytes, 0, 2));
+        assertArrayEquals(new byte[] { 4, 5 }, bytes);
+    }
+
+    @Test
+    public final void skip_startsAfterTheEndOfWrappedElements() {
+        ByteRingBuffer buffer = new ByteRingBuffer(4);
+
+        buffer.overrunPush(new byte[] { 1, 2, 3, 4, 5, 6 });
+
+        byte[] bytes = new byte[4];
+        assertEquals(1, buffer.peek(3, bytes, 0, 4));
+        assertEquals(6, bytes[0]);
+    }
+
+    @Test
+    public final void skip_returnsZeroWhenSkippingEverything() {
+        ByteRingBuffer buffer = new ByteRingBuffer(4);
+
+        buffer.push(new byte[] { 1, 2 });
+
+        assertEquals(0, buffer.peek(2, new byte[1], 0, 1));
+        assertEquals(0, buffer.peek(5, new byte[1], 0, 1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public final void skip_rejectsNegativeValues() {
+        ByteRingBuffer buffer = new ByteRingBuffer(4);
+
+        buffer.peek(-1, new byte[1], 0, 1);
+    }
+
+    @Test
+    public final void skip_cb_borrowsOnlyTheRequestedWindow() {
+        ByteRingBuffer buffer = new ByteRingBuffer(6);
+
+        buffer.push(new byte[] { 1, 2, 3, 4, 5, 6 });
+
+        PeekCallbackTracker peekCallback = new PeekCallbackTracker();
+        buffer.peek(2, 3, peekCallback);
+
+        assertEquals(1, peekCallback.calls.size());
+        assertArrayEquals(new byte[] { 3, 4, 5 }, peekCallback.calls.get(0));
+    }
+
+    @Test
+    public final void skip_cb_callsFunctionTwiceWhenWindowWraps() {
+        ByteRingBuffer buffer = new ByteRingBuffer(4);
+
+        buffer.overrunPush(new byte[] { 1, 2, 3, 4, 5, 6 });
+
+        PeekCallbackTracker peekCallback = new PeekCallbackTracker();
+        buffer.peek(1, 2, peekCallback);
+
+        assertEquals(2, peekCallback.calls.size());
+        assertArrayEquals(new byte[] { 4 }, peekCallback.calls.get(0));
+        assertArrayEquals(new byte[] { 5 }, peekCallback.calls.get(1));
+    }
+
+    @Test
+    public final void skip_cb_borrowsEmptyChunkWhenSkippingEverything() {
+        ByteRingBuffer buffer = new ByteRingBuffer(4);
+
+        buffer.push(new byte[] { 1, 2 });
+
+        PeekCallbackTracker peekCallback = new PeekCallbackTracker();
+        buffer.peek(3, 2, peekCallback);
+
+        assertEquals(1, peekCallback.calls.size());
+        assertArrayEquals(new byte[] {}, peekCallback.calls.get(0));
+    }
 }
@@ -0,0 +1,152 @@
+package com.daniel_araujo.byteringbuffer;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+import java.nio.ByteOrder;
+
+public final class ByteRingBufferPositionTest {
+    @Test
+    public final void positions_startAtZero() {
+        ByteRingBuffer buffer = new ByteRingBuffer(4);
+
+        assertEquals(0, buffer.readPosition());
+        assertEquals(0, buffer.writePosition());
+    }
+
+    @Test
+    public final void positions_followPushAndPop() {
+        ByteRingBuffer buffer = new ByteRingBuffer(4);
+
+        buffer.push(new byte[] { 1, 2, 3 });
+        buffer.pop(2);
+        buffer.push(new byte[] { 4, 5, 6 });
+
+        assertEquals(2, buffer.readPosition());
+        assertEquals(6, buffer.writePosition());
+    }
+
+    @Test
+    public final void positions_followOverrunPush() {
+        ByteRingBuffer buffer = new ByteRingBuffer(4);
+
+        buffer.overrunPush(new byte[] { 1, 2, 3 });
+        buffer.overrunPush(new byte[] { 4, 5, 6 });
+
+        assertEquals(2, buffer.readPosition());
+        assertEquals(6, buffer.writePosition());
+    }
+
+    @Test
+    public final void positions_followOverrunPushLargerThanCapacity() {
+        ByteRingBuffer buffer = new ByteRingBuffer(4);
+
+        buffer.push(new byte[] { 1 });
+        buffer.shortView().overrunPush(new short[] { 1, 2, 3 });
+
+        assertEquals(3, buffer.readPosition());
+        assertEquals(7, buffer.writePosition());
+    }
+
+    @Test
+    public final void clear_keepsPositionsIncreasing() {
+        ByteRingBuffer buffer = new ByteRingBuffer(4);
+
+        buffer.push(new byte[] { 1, 2, 3 });
+        buffer.clear();
+
+        assertEquals(3, buffer.readPosition());
+        assertEquals(3, buffer.writePosition());
+
+        buffer.push(new byte[] { 4 });
+        assertEquals(4, buffer.getByte(3));
+    }
+
+    @Test
+    public final void peekAt_retrievesElementsAcrossTheEnd() {
+        ByteRingBuffer buffer = new ByteRingBuffer(4);
+        buffer.overrunPush(new byte[] { 1, 2, 3, 4, 5, 6 });
+
+        byte[] bytes = new byte[3];
+
+        assertEquals(3, buffer.peekAt(3, bytes, 0, 3));
+        assertArrayEquals(new byte[] { 4, 5, 6 }, bytes);
+    }
+
+    @Test
+    public final void peekAt_stopsAtWritePosition() {
+        ByteRingBuffer buffer = new ByteRingBuffer(4);
+        buffer.push(new byte[] { 1, 2, 3 });
+
+        byte[] bytes = new byte[4];
+
+        assertEquals(1, buffer.peekAt(2, bytes, 0, 4));
+        assertEquals(0, buffer.peekAt(3, bytes, 0, 4));
+        assertEquals(3, bytes[0]);
+    }
+
+    @Test
+    public final void peekAt_failsWhenPositionWasOverwritten() {
+        ByteRingBuffer buffer = new ByteRingBuffer(4);
+        buffer.overrunPush(new byte[] { 1, 2, 3, 4, 5, 6 });
+
+        try {
+            buffer.peekAt(1, new byte[1], 0, 1);
+            fail();
+        } catch (EvictedPositionException e) {
+            assertEquals(1, e.position());
+            assertEquals(2, e.oldestPosition());
+        }
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public final void peekAt_failsWhenPositionWasNotWrittenYet() {
+        ByteRingBuffer buffer = new ByteRingBuffer(4);
+        buffer.push(new byte[] { 1 });
+
+        buffer.peekAt(2, new byte[1], 0, 1);
+    }
+
+    @Test
+    public final void getByte_retrievesElementAtPosition() {
+        ByteRingBuffer buffer = new ByteRingBuffer(4);
+        buffer.push(new byte[] { 1, 2, 3 });
+        buffer.drop(1);
+
+        assertEquals(2, buffer.getByte(1));
+        assertEquals(3, buffer.getByte(2));
+    }
+
+    @Test(expected = EvictedPositionException.class)
+    public final void getByte_failsWhenPositionWasDropped() {
+        ByteRingBuffer buffer = new ByteRingBuffer(4);
+        buffer.push(new byte[] { 1, 2, 3 });
+        buffer.drop(1);
+
+        buffer.getByte(0);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public final void getByte_failsAtWritePosition() {
+        ByteRingBuffer buffer = new ByteRingBuffer(4);
+        buffer.push(new byte[] { 1 });
+
+        buffer.getByte(1);
+    }
+
+    @Test
+    public final void getShort_readsAcrossTheEnd() {
+        ByteRingBuffer buffer = new ByteRingBuffer(4);
+        buffer.overrunPush(new byte[] { 0, 0, 0, 0x12, 0x34 });
+
+        assertEquals(0x1234, buffer.getShort(3));
+        assertEquals(0x3412, buffer.getShort(3, ByteOrder.LITTLE_ENDIAN));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public final void getShort_failsWhenSecondByteIsMissing() {
+        ByteRingBuffer buffer = new ByteRingBuffer(4);
+        buffer.push(new byte[] { 1 });
+
+        buffer.getShort(0);
+    }
+}
@@ -0,0 +1,44 @@
+package com.daniel_araujo.byteringbuffer;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+public final class ByteRingBufferPowerOfTwoTest {
+    @Test
+    public final void roundsCapacityUpToPowerOfTwo() {
+        assertEquals(1, ByteRingBuffer.withPowerOfTwoCapacity(0).sizeTotal());
+        assertEquals(1, ByteRingBuffer.withPowerOfTwoCapacity(1).sizeTotal());
+        assertEquals(4, ByteRingBuffer.withPowerOfTwoCapacity(3).sizeTotal());
+        assertEquals(4, ByteRingBuffer.withPowerOfTwoCapacity(4).sizeTotal());
+        assertEquals(8, ByteRingBuffer.withPowerOfTwoCapacity(5).sizeTotal());
+        assertEquals(1024, ByteRingBuffer.withPowerOfTwoCapacity(1000).sizeTotal());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public final void rejectsCapacityThatCannotBeRounded() {
+        ByteRingBuffer.withPowerOfTwoCapacity((1 << 30) + 1);
+    }
+
+    @Test
+    public final void wrapsAroundTheEnd() {
+        ByteRingBuffer buffer = ByteRingBuffer.withPowerOfTwoCapacity(4);
+
+        buffer.push(new byte[] { 1, 2, 3 });
+        buffer.drop(2);
+        assertEquals(3, buffer.push(new byte[] { 4, 5, 6, 7 }));
+
+        assertArrayEquals(new byte[] { 3, 4, 5, 6 }, buffer.pop(4));
+    }
+
+    @Test
+    public final void overrunPushWrapsAroundTheEnd() {
+        ByteRingBuffer buffer = ByteRingBuffer.withPowerOfTwoCapacity(4);
+
+        for (byte i = 1; i <= 10; i++) {
+            buffer.overrunPush(i);
+        }
+
+        assertEquals(4, buffer.sizeUsed());
+        assertArrayEquals(new byte[] { 7, 8, 9, 10 }, buffer.peek(4));
+    }
+}
@@ -0,0 +1,103 @@
+package com.daniel_araujo.byteringbuffer;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+public final class ByteRingBufferPushCallbackTest {
+    /**
+     * Writes bytes from a source array into each chunk it receives.
+     */
+    private static final class Writer implements ByteRingBuffer.PushCallback {
+        public final List<Integer> chunkSizes = new ArrayList<>();
+
+        private final byte[] source;
+
+        private int index;
+
+        Writer(byte... source) {
+            this.source = source;
+        }
+
+        @Override
+        public void borrow(ByteBuffer chunk) {
+            chunkSizes.add(chunk.remaining());
+
+            int writing = Math.min(chunk.remaining(), source.length - index);
+            chunk.put(source, index, writing);
+            index += writing;
+        }
+    }
+
+    @Test
+    public final void addsWhatCallbackWrites() {
+        ByteRingBuffer buffer = new ByteRingBuffer(4);
+
+        Writer writer = new Writer(new byte[] { 1, 2, 3 });
+        assertEquals(3, buffer.push(writer));
+
+        assertEquals(1, writer.chunkSizes.size());
+        assertEquals(4, (int) writer.chunkSizes.get(0));
+        assertArrayEquals(new byte[] { 1, 2, 3 }, buffer.peek(3));
+    }
+
+    @Test
+    public final void callsFunctionIfBufferIsFull() {
+        ByteRingBuffer buffer = new ByteRingBuffer(2);
+
+        buffer.push(new byte[] { 1, 2 });
+
+        Writer writer = new Writer(new byte[] { 3 });
+        assertEquals(0, buffer.push(writer));
+
+        assertEquals(1, writer.chunkSizes.size());
+        assertEquals(0, (int) writer.chunkSizes.get(0));
+    }
+
+    @Test
+    public final void callsFunctionTwiceWhenFreeSpaceWrapsAndFirstChunkIsFilled() {
+        ByteRingBuffer buffer = new ByteRingBuffer(4);
+
+        buffer.push(new byte[] { 1, 2, 3 });
+        buffer.drop(2);
+
+        Writer writer = new Writer(new byte[] { 4, 5, 6, 7 });
+        assertEquals(3, buffer.push(writer));
+
+        assertEquals(2, writer.chunkSizes.size());
+        assertEquals(1, (int) writer.chunkSizes.get(0));
+        assertEquals(2, (int) writer.chunkSizes.get(1));
+        assertArrayEquals(new byte[] { 3, 4, 5, 6 }, buffer.peek(4));
+    }
+
+    @Test
+    public final void doesNotCallFunctionAgainWhenFirstChunkIsNotFilled() {
+        ByteRingBuffer buffer = new ByteRingBuffer(4);
+
+        buffer.push(new byte[] { 1, 2 });
+        buffer.drop(1);
+
+        Writer writer = new Writer(new byte[] { 3 });
+        assertEquals(1, buffer.push(writer));
+
+        assertEquals(1, writer.chunkSizes.size());
+        assertArrayEquals(new byte[] { 2, 3 }, buffer.peek(2));
+    }
+
+    @Test
+    public final void keepsMirrorUpToDate() {
+        ByteRingBuffer buffer = new ByteRingBuffer(4, 2);
+
+        buffer.push(new byte[] { 1, 2, 3 });
+        buffer.drop(2);
+        buffer.push(new Writer(new byte[] { 4, 5, 6 }));
+
+        ByteBuffer chunk = buffer.peekContiguous(4);
+        byte[] result = new byte[chunk.remaining()];
+        chunk.get(result);
+
+        assertArrayEquals(new byte[] { 3, 4, 5, 6 }, result);
+    }
+}
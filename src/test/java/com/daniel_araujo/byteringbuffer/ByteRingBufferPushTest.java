@@ -142,4 +142,18 @@ public class ByteRingBufferPushTest {
 
         assertArrayEquals(new byte[] { 1, 2, 3 }, buffer.peek(3));
     }
+
+    @Test
+    public final void bugfix_pushCrashesWhenFreeSpaceIsBetweenEndAndStart() {
+        ByteRingBuffer buffer = new ByteRingBuffer(4);
+
+        buffer.push(new byte[] { 1, 2, 3 });
+        buffer.drop(2);
+        buffer.push(new byte[] { 4, 5 });
+
+        assertEquals(1, buffer.push(new byte[] { 6, 7 }));
+        assertEquals(4, buffer.sizeUsed());
+
+        assertArrayEquals(new byte[] { 3, 4, 5, 6 }, buffer.peek(4));
+    }
 }
@@ -2,6 +2,7 @@ package com.daniel_araujo.byteringbuffer;
 
 import static org.junit.Assert.*;
 import org.junit.Test;
+import java.nio.ByteOrder;
 
 public class ByteRingBufferShortViewTest {
     @Test
@@ -282,4 +283,67 @@ public class ByteRingBufferShortViewTest {
 
         assertEquals(1, buffer.shortView().sizeUsed());
     }
+
+    @Test
+    public final void order_isBigEndianByDefault() {
+        ByteRingBuffer buffer = new ByteRingBuffer(4);
+
+        assertEquals(ByteOrder.BIG_ENDIAN, buffer.shortView().order());
+
+        buffer.shortView().push((short) 0x0102);
+
+        assertArrayEquals(new byte[] { 1, 2 }, buffer.peek(2));
+    }
+
+    @Test
+    public final void order_littleEndianPlacesLeastSignificantByteFirst() {
+        ByteRingBuffer buffer = new ByteRingBuffer(4);
+        ByteRingBuffer.ShortView view = buffer.shortView(ByteOrder.LITTLE_ENDIAN);
+
+        assertEquals(ByteOrder.LITTLE_ENDIAN, view.order());
+
+        view.push((short) 0x0102, (short) -2);
+
+        assertArrayEquals(new byte[] { 2, 1, -2, -1 }, buffer.peek(4));
+        assertArrayEquals(new short[] { 0x0102, -2 }, view.pop(2));
+    }
+
+    @Test
+    public final void push_splitsShortAcrossTheEndOfTheBuffer() {
+        ByteRingBuffer buffer = new ByteRingBuffer(5);
+
+        buffer.push(new byte[] { 1, 2, 3, 4 });
+        buffer.drop(4);
+
+        assertEquals(2, buffer.shortView().push((short) 0x0506, (short) 0x0708, (short) 0x090A));
+
+        assertArrayEquals(new byte[] { 5, 6, 7, 8 }, buffer.peek(4));
+        assertArrayEquals(new short[] { 0x0506, 0x0708 }, buffer.shortView().pop(2));
+    }
+
+    @Test
+    public final void overrunPush_splitsShortAcrossTheEndOfTheBuffer() {
+        ByteRingBuffer buffer = new ByteRingBuffer(5);
+        ByteRingBuffer.ShortView view = buffer.shortView(ByteOrder.LITTLE_ENDIAN);
+
+        view.overrunPush((short) 1, (short) 2, (short) 3, (short) 4);
+
+        assertEquals(5, buffer.sizeUsed());
+        assertArrayEquals(new byte[] { 0, 3, 0, 4, 0 }, buffer.peek(5));
+
+        buffer.drop(1);
+
+        assertArrayEquals(new short[] { 3, 4 }, view.peek(2));
+    }
+
+    @Test
+    public final void peek_readsShortsThatWrapAroundTheEnd() {
+        ByteRingBuffer buffer = new ByteRingBuffer(3);
+
+        buffer.push((byte) 0);
+        buffer.drop(1);
+        buffer.shortView().push((short) -300);
+
+        assertArrayEquals(new short[] { -300 }, buffer.shortView().peek(1));
+    }
 }
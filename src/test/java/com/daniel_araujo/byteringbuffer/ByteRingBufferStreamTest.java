@@ -0,0 +1,235 @@
+package com.daniel_araujo.byteringbuffer;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+public final class ByteRingBufferStreamTest {
+    @Test
+    public final void inputStream_readsBulkAcrossTheEndOfTheBuffer() throws IOException {
+        ByteRingBuffer buffer = new ByteRingBuffer(4);
+        buffer.push(new byte[] { 0, 0, 1, 2 });
+        buffer.drop(2);
+        buffer.push(new byte[] { 3, 4 });
+        InputStream in = new ByteRingBufferInputStream(buffer);
+
+        byte[] bytes = new byte[6];
+        assertEquals(4, in.read(bytes, 1, 5));
+        assertArrayEquals(new byte[] { 0, 1, 2, 3, 4, 0 }, bytes);
+        assertEquals(0, buffer.sizeUsed());
+    }
+
+    @Test
+    public final void inputStream_readsSingleBytesAsUnsigned() throws IOException {
+        ByteRingBuffer buffer = new ByteRingBuffer(4);
+        buffer.push(new byte[] { -1, 7 });
+        InputStream in = new ByteRingBufferInputStream(buffer);
+
+        assertEquals(255, in.read());
+        assertEquals(7, in.read());
+    }
+
+    @Test
+    public final void inputStream_endsWhenBufferIsEmpty() throws IOException {
+        ByteRingBuffer buffer = new ByteRingBuffer(4);
+        InputStream in = new ByteRingBufferInputStream(buffer);
+
+        assertEquals(-1, in.read(new byte[4], 0, 4));
+        assertEquals(-1, in.read());
+        assertEquals(0, in.read(new byte[4], 0, 0));
+
+        buffer.push(new byte[] { 1 });
+        assertEquals(1, in.read(new byte[4], 0, 4));
+    }
+
+    @Test
+    public final void inputStream_worksWithDataInputStream() throws IOException {
+        ByteRingBuffer buffer = new ByteRingBuffer(8);
+        buffer.push(new byte[] { 0, 0, 1, 2, 3 });
+        buffer.drop(2);
+        buffer.push(new byte[] { 4, 5, 6 });
+        DataInputStream in = new DataInputStream(new ByteRingBufferInputStream(buffer));
+
+        byte[] bytes = new byte[4];
+        in.readFully(bytes);
+        assertArrayEquals(new byte[] { 1, 2, 3, 4 }, bytes);
+
+        try {
+            in.readFully(new byte[3]);
+            fail();
+        } catch (EOFException e) {
+            assertEquals(0, buffer.sizeUsed());
+        }
+    }
+
+    @Test
+    public final void inputStream_worksWithInputStreamReader() throws IOException {
+        ByteRingBuffer buffer = new ByteRingBuffer(16);
+        buffer.push("line\nnext".getBytes(StandardCharsets.UTF_8));
+        BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new ByteRingBufferInputStream(buffer), StandardCharsets.UTF_8));
+
+        assertEquals("line", reader.readLine());
+        assertEquals("next", reader.readLine());
+        assertNull(reader.readLine());
+    }
+
+    @Test
+    public final void inputStream_availableIsSizeUsed() throws IOException {
+        ByteRingBuffer buffer = new ByteRingBuffer(4);
+        buffer.push(new byte[] { 1, 2, 3 });
+
+        assertEquals(3, new ByteRingBufferInputStream(buffer).available());
+    }
+
+    @Test
+    public final void inputStream_skipDropsOnlyWhatIsThere() throws IOException {
+        ByteRingBuffer buffer = new ByteRingBuffer(4);
+        buffer.push(new byte[] { 1, 2, 3 });
+        InputStream in = new ByteRingBufferInputStream(buffer);
+
+        assertEquals(2, in.skip(2));
+        assertEquals(1, in.skip(5));
+        assertEquals(0, in.skip(5));
+        assertEquals(0, buffer.sizeUsed());
+    }
+
+    @Test
+    public final void inputStream_transferToWritesBothHalves() throws IOException {
+        ByteRingBuffer buffer = new ByteRingBuffer(4);
+        buffer.push(new byte[] { 0, 0, 0, 1 });
+        buffer.drop(3);
+        buffer.push(new byte[] { 2, 3 });
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertEquals(3, new ByteRingBufferInputStream(buffer).transferTo(out));
+        assertArrayEquals(new byte[] { 1, 2, 3 }, out.toByteArray());
+        assertEquals(0, buffer.sizeUsed());
+    }
+
+    @Test
+    public final void inputStream_transferToKeepsBytesThatWereNotWritten() {
+        ByteRingBuffer buffer = new ByteRingBuffer(4);
+        buffer.push(new byte[] { 0, 0, 0, 1 });
+        buffer.drop(3);
+        buffer.push(new byte[] { 2, 3 });
+
+        try {
+            new ByteRingBufferInputStream(buffer).transferTo(new OutputStream() {
+                private int calls;
+
+                @Override
+                public void write(int b) {
+                }
+
+                @Override
+                public void write(byte[] bytes, int index, int length) throws IOException {
+                    if (calls++ > 0) {
+                        throw new IOException();
+                    }
+                }
+            });
+            fail();
+        } catch (IOException e) {
+            assertEquals(2, buffer.sizeUsed());
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public final void inputStream_throwsAfterClose() throws IOException {
+        InputStream in = new ByteRingBufferInputStream(new ByteRingBuffer(4));
+        in.close();
+
+        in.read();
+    }
+
+    @Test
+    public final void outputStream_addsBytes() throws IOException {
+        ByteRingBuffer buffer = new ByteRingBuffer(4);
+        OutputStream out = new ByteRingBufferOutputStream(buffer);
+
+        out.write(9);
+        out.write(new byte[] { 0, 1, 2, 0 }, 1, 2);
+
+        assertArrayEquals(new byte[] { 9, 1, 2 }, buffer.peek(3));
+    }
+
+    @Test
+    public final void outputStream_addsNothingWhenBytesDoNotFit() throws IOException {
+        ByteRingBuffer buffer = new ByteRingBuffer(4);
+        buffer.push(new byte[] { 1, 2 });
+        OutputStream out = new ByteRingBufferOutputStream(buffer);
+
+        try {
+            out.write(new byte[] { 3, 4, 5 });
+            fail();
+        } catch (IOException e) {
+            assertEquals(2, buffer.sizeUsed());
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public final void outputStream_throwsAfterClose() throws IOException {
+        OutputStream out = new ByteRingBufferOutputStream(new ByteRingBuffer(4));
+        out.close();
+
+        out.write(1);
+    }
+
+    @Test(timeout = 10000)
+    public final void blockingStreams_actLikeAPipe() throws Exception {
+        BlockingByteRingBuffer buffer = new BlockingByteRingBuffer(16, new ParkingWaitStrategy());
+        final OutputStream out = new ByteRingBufferOutputStream(buffer);
+        ByteRingBufferInputStream in = new ByteRingBufferInputStream(buffer);
+        final int total = 10000;
+
+        Thread producer = new Thread() {
+            @Override
+            public void run() {
+                try {
+                    byte[] chunk = new byte[100];
+
+                    for (int i = 0; i < total; i += chunk.length) {
+                        for (int j = 0; j < chunk.length; j++) {
+                            chunk[j] = (byte) (i + j);
+                        }
+
+                        out.write(chunk);
+                    }
+
+                    out.close();
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        };
+
+        producer.start();
+
+        ByteArrayOutputStream received = new ByteArrayOutputStream();
+        byte[] first = new byte[37];
+        int read = in.read(first);
+        assertTrue(read > 0);
+        received.write(first, 0, read);
+        in.transferTo(received);
+
+        producer.join();
+
+        byte[] bytes = received.toByteArray();
+        assertEquals(total, bytes.length);
+
+        for (int i = 0; i < total; i++) {
+            assertEquals((byte) i, bytes[i]);
+        }
+
+        assertEquals(-1, in.read());
+    }
+}
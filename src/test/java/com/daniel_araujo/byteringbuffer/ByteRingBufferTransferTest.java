@@ -0,0 +1,113 @@
+package com.daniel_araujo.byteringbuffer;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+public final class ByteRingBufferTransferTest {
+    @Test
+    public final void transferTo_movesElements() {
+        ByteRingBuffer source = new ByteRingBuffer(4);
+        ByteRingBuffer destination = new ByteRingBuffer(4);
+
+        source.push(new byte[] { 1, 2, 3 });
+
+        assertEquals(2, source.transferTo(destination, 2));
+        assertArrayEquals(new byte[] { 3 }, source.peek(4));
+        assertArrayEquals(new byte[] { 1, 2 }, destination.peek(4));
+    }
+
+    @Test
+    public final void transferTo_movesElementsWhenBothSidesWrap() {
+        ByteRingBuffer source = new ByteRingBuffer(5);
+        ByteRingBuffer destination = new ByteRingBuffer(4);
+
+        source.overrunPush(new byte[] { 0, 0, 0, 1, 2, 3, 4, 5 });
+        destination.push(new byte[] { 9, 9, 9 });
+        destination.drop(2);
+
+        assertEquals(3, destination.sizeFree());
+        assertEquals(3, source.transferTo(destination, 5));
+        assertArrayEquals(new byte[] { 4, 5 }, source.peek(5));
+        assertArrayEquals(new byte[] { 9, 1, 2, 3 }, destination.peek(4));
+    }
+
+    @Test
+    public final void transferTo_movesNothingWhenSourceIsEmpty() {
+        ByteRingBuffer source = new ByteRingBuffer(4);
+        ByteRingBuffer destination = new ByteRingBuffer(4);
+
+        assertEquals(0, source.transferTo(destination, 4));
+        assertEquals(0, destination.sizeUsed());
+    }
+
+    @Test
+    public final void transferTo_updatesPositionsOfBothBuffers() {
+        ByteRingBuffer source = new ByteRingBuffer(4);
+        ByteRingBuffer destination = new ByteRingBuffer(4);
+
+        source.push(new byte[] { 1, 2, 3 });
+        source.transferTo(destination, 3);
+
+        assertEquals(3, source.readPosition());
+        assertEquals(3, destination.writePosition());
+    }
+
+    @Test
+    public final void transferTo_keepsMirrorOfDestinationUpToDate() {
+        ByteRingBuffer source = new ByteRingBuffer(4);
+        ByteRingBuffer destination = new ByteRingBuffer(4, 2);
+
+        destination.push(new byte[] { 9, 9, 9 });
+        destination.drop(3);
+        source.push(new byte[] { 1, 2, 3 });
+        source.transferTo(destination, 3);
+
+        assertEquals(3, destination.peekContiguous(3).remaining());
+        assertEquals(3, destination.peekContiguous(3).get(2));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public final void transferTo_rejectsSameBuffer() {
+        ByteRingBuffer buffer = new ByteRingBuffer(4);
+
+        buffer.transferTo(buffer, 1);
+    }
+
+    @Test
+    public final void overrunTransferTo_overwritesOldestElementsOfDestination() {
+        ByteRingBuffer source = new ByteRingBuffer(4);
+        ByteRingBuffer destination = new ByteRingBuffer(4);
+
+        destination.push(new byte[] { 7, 8, 9 });
+        source.push(new byte[] { 1, 2, 3 });
+
+        assertEquals(3, source.overrunTransferTo(destination, 3));
+        assertEquals(0, source.sizeUsed());
+        assertArrayEquals(new byte[] { 9, 1, 2, 3 }, destination.peek(4));
+    }
+
+    @Test
+    public final void overrunTransferTo_keepsLastElementsWhenMovingMoreThanDestinationCapacity() {
+        ByteRingBuffer source = new ByteRingBuffer(6);
+        ByteRingBuffer destination = new ByteRingBuffer(4);
+
+        source.overrunPush(new byte[] { 0, 0, 0, 1, 2, 3, 4, 5, 6 });
+        destination.push(new byte[] { 9 });
+
+        assertEquals(6, source.overrunTransferTo(destination, 6));
+        assertArrayEquals(new byte[] { 3, 4, 5, 6 }, destination.peek(4));
+        assertEquals(7, destination.writePosition());
+        assertEquals(3, destination.readPosition());
+    }
+
+    @Test
+    public final void overrunTransferTo_removesElementsWhenDestinationHasNoCapacity() {
+        ByteRingBuffer source = new ByteRingBuffer(4);
+        ByteRingBuffer destination = new ByteRingBuffer(0);
+
+        source.push(new byte[] { 1, 2 });
+
+        assertEquals(2, source.overrunTransferTo(destination, 4));
+        assertEquals(0, source.sizeUsed());
+    }
+}
@@ -0,0 +1,166 @@
+package com.daniel_araujo.byteringbuffer;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Pipe;
+
+public final class DirectByteRingBufferTest {
+    @Test
+    public final void constructor_usesRemainingBytesOfGivenBuffer() {
+        ByteBuffer storage = ByteBuffer.allocateDirect(8);
+        storage.position(2);
+        storage.limit(6);
+
+        DirectByteRingBuffer buffer = new DirectByteRingBuffer(storage);
+
+        assertEquals(4, buffer.sizeTotal());
+        assertEquals(4, buffer.push(new byte[] { 1, 2, 3, 4, 5 }));
+        storage.clear();
+        assertEquals(0, storage.get(1));
+        assertEquals(1, storage.get(2));
+        assertEquals(4, storage.get(5));
+        assertEquals(0, storage.get(6));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public final void constructor_rejectsHeapBuffers() {
+        new DirectByteRingBuffer(ByteBuffer.allocate(4));
+    }
+
+    @Test
+    public final void push_addsUpToCapacity() {
+        DirectByteRingBuffer buffer = new DirectByteRingBuffer(4);
+
+        assertEquals(3, buffer.push(new byte[] { 1, 2, 3 }));
+        assertEquals(1, buffer.push(new byte[] { 4, 5 }));
+
+        assertArrayEquals(new byte[] { 1, 2, 3, 4 }, buffer.peek(4));
+    }
+
+    @Test
+    public final void push_wrapsAroundTheEnd() {
+        DirectByteRingBuffer buffer = new DirectByteRingBuffer(4);
+
+        buffer.push(new byte[] { 1, 2, 3 });
+        buffer.drop(2);
+        assertEquals(3, buffer.push(new byte[] { 4, 5, 6 }));
+
+        assertArrayEquals(new byte[] { 3, 4, 5, 6 }, buffer.pop(4));
+        assertEquals(0, buffer.sizeUsed());
+    }
+
+    @Test
+    public final void overrunPush_overwritesOldestElements() {
+        DirectByteRingBuffer buffer = new DirectByteRingBuffer(4);
+
+        buffer.push(new byte[] { 1, 2, 3 });
+        buffer.overrunPush(new byte[] { 4, 5 });
+
+        assertEquals(4, buffer.sizeUsed());
+        assertArrayEquals(new byte[] { 2, 3, 4, 5 }, buffer.peek(4));
+    }
+
+    @Test
+    public final void overrunPush_keepsOnlyTheLastElementsOfALongArray() {
+        DirectByteRingBuffer buffer = new DirectByteRingBuffer(4);
+
+        buffer.push((byte) 1);
+        buffer.overrunPush(new byte[] { 2, 3, 4, 5, 6, 7, 8 });
+
+        assertEquals(4, buffer.sizeUsed());
+        assertArrayEquals(new byte[] { 5, 6, 7, 8 }, buffer.peek(4));
+    }
+
+    @Test
+    public final void peek_bytebuffer_writesStartingFromPositionWithoutMovingIt() {
+        DirectByteRingBuffer buffer = new DirectByteRingBuffer(5);
+
+        buffer.push(new byte[] { 1, 2, 3 });
+        ByteBuffer result = ByteBuffer.allocate(3);
+        result.position(1);
+
+        assertEquals(2, buffer.peek(result));
+        assertEquals(1, result.position());
+        assertArrayEquals(new byte[] { 0, 1, 2 }, result.array());
+    }
+
+    @Test
+    public final void peek_cb_handsOutDirectChunks() {
+        DirectByteRingBuffer buffer = new DirectByteRingBuffer(4);
+
+        buffer.overrunPush(new byte[] { 1, 2, 3, 4, 5 });
+
+        final boolean[] direct = { true };
+        PeekCallbackTracker peekCallback = new PeekCallbackTracker() {
+            @Override
+            public void borrow(ByteBuffer chunk) {
+                direct[0] &= chunk.isDirect();
+                super.borrow(chunk);
+            }
+        };
+        buffer.peek(peekCallback);
+
+        assertTrue(direct[0]);
+        assertEquals(2, peekCallback.calls.size());
+        assertArrayEquals(new byte[] { 2, 3, 4 }, peekCallback.calls.get(0));
+        assertArrayEquals(new byte[] { 5 }, peekCallback.calls.get(1));
+    }
+
+    @Test
+    public final void peek_cb_callsFunctionIfBufferIsEmpty() {
+        DirectByteRingBuffer buffer = new DirectByteRingBuffer(4);
+
+        PeekCallbackTracker peekCallback = new PeekCallbackTracker();
+        buffer.peek(peekCallback);
+
+        assertEquals(1, peekCallback.calls.size());
+        assertEquals(0, peekCallback.calls.get(0).length);
+    }
+
+    @Test
+    public final void peek_cb_chunksThatWereConsumedDoNotAffectLaterCalls() {
+        DirectByteRingBuffer buffer = new DirectByteRingBuffer(4);
+
+        buffer.overrunPush(new byte[] { 1, 2, 3, 4, 5 });
+        buffer.peek(new PeekCallbackTracker());
+        buffer.drop(1);
+        buffer.push(new byte[] { 6 });
+
+        assertArrayEquals(new byte[] { 3, 4, 5, 6 }, buffer.peek(4));
+    }
+
+    @Test
+    public final void drop_doesNotRemoveMoreThanItHas() {
+        DirectByteRingBuffer buffer = new DirectByteRingBuffer(4);
+
+        buffer.push(new byte[] { 1, 2 });
+        buffer.drop(3);
+
+        assertEquals(0, buffer.sizeUsed());
+        assertEquals(4, buffer.push(new byte[] { 1, 2, 3, 4 }));
+    }
+
+    @Test
+    public final void writeTo_and_readFrom_moveBothParts() throws IOException {
+        DirectByteRingBuffer source = new DirectByteRingBuffer(4);
+        DirectByteRingBuffer destination = new DirectByteRingBuffer(4);
+        Pipe pipe = Pipe.open();
+
+        try {
+            source.overrunPush(new byte[] { 1, 2, 3, 4, 5 });
+            destination.push(new byte[] { 1, 2, 3 });
+            destination.drop(3);
+
+            assertEquals(4, source.writeTo(pipe.sink()));
+            assertEquals(0, source.sizeUsed());
+
+            assertEquals(4, destination.readFrom(pipe.source()));
+            assertArrayEquals(new byte[] { 2, 3, 4, 5 }, destination.peek(4));
+        } finally {
+            pipe.sink().close();
+            pipe.source().close();
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.daniel_araujo.byteringbuffer;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+import java.util.concurrent.TimeUnit;
+
+public final class ElasticByteRingBufferTest {
+    @Test
+    public final void push_growsGeometricallyWhenBytesDoNotFit() {
+        ElasticByteRingBuffer buffer = new ElasticByteRingBuffer(4, 64);
+
+        assertEquals(5, buffer.push(new byte[] { 1, 2, 3, 4, 5 }));
+        assertEquals(8, buffer.sizeTotal());
+
+        assertEquals(12, buffer.push(new byte[12]));
+        assertEquals(32, buffer.sizeTotal());
+    }
+
+    @Test
+    public final void push_doesNotGrowWhenBytesFit() {
+        ElasticByteRingBuffer buffer = new ElasticByteRingBuffer(4, 64);
+
+        buffer.push(new byte[] { 1, 2, 3, 4 });
+
+        assertEquals(4, buffer.sizeTotal());
+    }
+
+    @Test
+    public final void push_truncatesAtMaximumCapacity() {
+        ElasticByteRingBuffer buffer = new ElasticByteRingBuffer(4, 10);
+
+        assertEquals(10, buffer.push(new byte[16]));
+        assertEquals(10, buffer.sizeTotal());
+        assertEquals(0, buffer.push(new byte[1]));
+    }
+
+    @Test
+    public final void overrunPush_overwritesOnlyAtMaximumCapacity() {
+        ElasticByteRingBuffer buffer = new ElasticByteRingBuffer(2, 4);
+
+        buffer.overrunPush(new byte[] { 1, 2, 3 }, 0, 3);
+        assertEquals(3, buffer.sizeUsed());
+
+        buffer.overrunPush(new byte[] { 4, 5 }, 0, 2);
+        assertEquals(4, buffer.sizeUsed());
+
+        byte[] result = new byte[4];
+        buffer.peek(result, 0, 4);
+        assertArrayEquals(new byte[] { 2, 3, 4, 5 }, result);
+    }
+
+    @Test
+    public final void push_doesNotGrowWhenRangeIsInvalid() {
+        ElasticByteRingBuffer buffer = new ElasticByteRingBuffer(4, 64);
+
+        try {
+            buffer.push(new byte[8], 4, 8);
+            fail();
+        } catch (IndexOutOfBoundsException e) {
+            assertEquals(4, buffer.sizeTotal());
+        }
+
+        try {
+            buffer.overrunPush(new byte[8], -1, 8);
+            fail();
+        } catch (IndexOutOfBoundsException e) {
+            assertEquals(4, buffer.sizeTotal());
+        }
+    }
+
+    @Test
+    public final void pop_doesNotAskPolicyAtInitialCapacity() {
+        final int[] calls = new int[1];
+        ElasticByteRingBuffer buffer = new ElasticByteRingBuffer(4, 64, new ResizePolicy() {
+            @Override
+            public int grow(int capacity, int required) {
+                return required;
+            }
+
+            @Override
+            public int shrink(int capacity, int used) {
+                calls[0]++;
+                return capacity;
+            }
+        });
+        buffer.push(new byte[] { 1, 2 });
+
+        buffer.pop(new byte[2], 0, 2);
+
+        assertEquals(0, calls[0]);
+    }
+
+    @Test
+    public final void push_unwrapsElementsWhenGrowing() {
+        ElasticByteRingBuffer buffer = new ElasticByteRingBuffer(4, 64);
+        buffer.push(new byte[] { 0, 0, 1, 2 });
+        buffer.drop(2);
+        buffer.push(new byte[] { 3, 4 });
+
+        buffer.push(new byte[] { 5 });
+
+        PeekCallbackTracker peekCallback = new PeekCallbackTracker();
+        buffer.peek(peekCallback);
+        assertEquals(1, peekCallback.calls.size());
+        assertArrayEquals(new byte[] { 1, 2, 3, 4, 5 }, peekCallback.calls.get(0));
+    }
+
+    @Test
+    public final void pop_shrinksAfterIdlePeriodOfLowOccupancy() {
+        ElasticByteRingBuffer buffer = new ElasticByteRingBuffer(4, 64,
+                new GeometricResizePolicy(2, 0.25, 0, TimeUnit.SECONDS));
+        buffer.push(new byte[32]);
+        assertEquals(32, buffer.sizeTotal());
+
+        byte[] bytes = new byte[32];
+        buffer.pop(bytes, 0, 30);
+        assertEquals(32, buffer.sizeTotal());
+
+        buffer.pop(bytes, 0, 1);
+        assertEquals(16, buffer.sizeTotal());
+        assertEquals(1, buffer.sizeUsed());
+    }
+
+    @Test
+    public final void trim_neverShrinksBelowInitialCapacity() {
+        ElasticByteRingBuffer buffer = new ElasticByteRingBuffer(8, 64, new ResizePolicy() {
+            @Override
+            public int grow(int capacity, int required) {
+                return required;
+            }
+
+            @Override
+            public int shrink(int capacity, int used) {
+                return 0;
+            }
+        });
+        buffer.push(new byte[20]);
+        assertEquals(20, buffer.sizeTotal());
+
+        buffer.drop(15);
+        assertEquals(8, buffer.sizeTotal());
+        assertEquals(5, buffer.sizeUsed());
+    }
+
+    @Test
+    public final void trim_keepsElementsInOrder() {
+        ElasticByteRingBuffer buffer = new ElasticByteRingBuffer(2, 64, new ResizePolicy() {
+            @Override
+            public int grow(int capacity, int required) {
+                return required;
+            }
+
+            @Override
+            public int shrink(int capacity, int used) {
+                return used;
+            }
+        });
+        buffer.push(new byte[] { 1, 2, 3, 4, 5, 6 });
+
+        buffer.drop(3);
+        assertEquals(3, buffer.sizeTotal());
+
+        byte[] result = new byte[3];
+        buffer.pop(result, 0, 3);
+        assertArrayEquals(new byte[] { 4, 5, 6 }, result);
+    }
+
+    @Test
+    public final void geometricResizePolicy_waitsForIdlePeriod() {
+        GeometricResizePolicy policy = new GeometricResizePolicy(2, 0.5, 1, TimeUnit.HOURS);
+
+        assertEquals(64, policy.shrink(64, 0));
+        assertEquals(64, policy.shrink(64, 0));
+    }
+
+    @Test
+    public final void geometricResizePolicy_growsByFactor() {
+        GeometricResizePolicy policy = new GeometricResizePolicy(4, 0.25, 1, TimeUnit.SECONDS);
+
+        assertEquals(64, policy.grow(4, 17));
+        assertEquals(1, policy.grow(0, 1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public final void constructor_rejectsInitialCapacityLargerThanMaximum() {
+        new ElasticByteRingBuffer(8, 4);
+    }
+}
@@ -0,0 +1,38 @@
+package com.daniel_araujo.byteringbuffer;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+
+public final class FencesTest {
+    /**
+     * The tests run with the Java 9 version of Fences in front of the base one, so the base one is loaded on its own
+     * from the main classes.
+     */
+    @Test
+    public final void baseVersion_callsEveryFence() throws Exception {
+        URL classes = ByteRingBuffer.class.getProtectionDomain().getCodeSource().getLocation();
+
+        try (URLClassLoader loader = new URLClassLoader(new URL[] { classes }, null)) {
+            Class<?> fences = loader.loadClass(Fences.class.getName());
+
+            // Only the base version keeps method handles to the fences of Unsafe.
+            assertNotNull(fences.getDeclaredField("FULL_FENCE"));
+
+            for (String name : new String[] { "storeStore", "loadLoad", "full" }) {
+                Method fence = fences.getDeclaredMethod(name);
+                fence.setAccessible(true);
+                fence.invoke(null);
+            }
+        }
+    }
+
+    @Test
+    public final void currentVersion_callsEveryFence() {
+        Fences.storeStore();
+        Fences.loadLoad();
+        Fences.full();
+    }
+}
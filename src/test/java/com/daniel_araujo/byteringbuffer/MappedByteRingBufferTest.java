@@ -0,0 +1,184 @@
+package com.daniel_araujo.byteringbuffer;
+
+import static org.junit.Assert.*;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public final class MappedByteRingBufferTest {
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public final void constructor_createsEmptyBuffer() throws IOException {
+        try (MappedByteRingBuffer buffer = new MappedByteRingBuffer(path(), 4)) {
+            assertEquals(0, buffer.sizeUsed());
+            assertEquals(4, buffer.sizeTotal());
+        }
+    }
+
+    @Test
+    public final void constructor_restoresElementsOfExistingFile() throws IOException {
+        Path path = path();
+
+        try (MappedByteRingBuffer buffer = new MappedByteRingBuffer(path, 4)) {
+            buffer.push(new byte[] { 1, 2, 3 });
+            buffer.drop(2);
+            buffer.push(new byte[] { 4, 5, 6 });
+        }
+
+        try (MappedByteRingBuffer buffer = new MappedByteRingBuffer(path, 4)) {
+            assertEquals(4, buffer.sizeUsed());
+            assertArrayEquals(new byte[] { 3, 4, 5, 6 }, buffer.peek(4));
+        }
+    }
+
+    @Test
+    public final void constructor_restoresStateAfterOverrunPushAndClear() throws IOException {
+        Path path = path();
+
+        try (MappedByteRingBuffer buffer = new MappedByteRingBuffer(path, 4)) {
+            buffer.overrunPush(new byte[] { 1, 2, 3, 4, 5, 6 });
+        }
+
+        try (MappedByteRingBuffer buffer = new MappedByteRingBuffer(path, 4)) {
+            assertArrayEquals(new byte[] { 3, 4, 5, 6 }, buffer.pop(4));
+            buffer.push((byte) 7);
+            buffer.clear();
+        }
+
+        try (MappedByteRingBuffer buffer = new MappedByteRingBuffer(path, 4)) {
+            assertEquals(0, buffer.sizeUsed());
+        }
+    }
+
+    @Test
+    public final void constructor_fallsBackToPreviousStateWhenLatestSlotIsTorn() throws IOException {
+        Path path = path();
+
+        try (MappedByteRingBuffer buffer = new MappedByteRingBuffer(path, 4)) {
+            buffer.push(new byte[] { 1, 2 });
+            buffer.push(new byte[] { 3 });
+        }
+
+        // The empty state, the first push and the second push were recorded. The second push went to the second
+        // slot. Damages its size.
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            file.seek(8 + 24 + 12);
+            file.writeInt(1);
+        }
+
+        try (MappedByteRingBuffer buffer = new MappedByteRingBuffer(path, 4)) {
+            assertEquals(2, buffer.sizeUsed());
+            assertArrayEquals(new byte[] { 1, 2 }, buffer.peek(2));
+        }
+    }
+
+    @Test
+    public final void constructor_formatsEmptyFileAndLeavesNoTemporaryFile() throws IOException {
+        Path path = path();
+        Files.createFile(path);
+
+        try (MappedByteRingBuffer buffer = new MappedByteRingBuffer(path, 4)) {
+            buffer.push(new byte[] { 1 });
+        }
+
+        try (MappedByteRingBuffer buffer = new MappedByteRingBuffer(path, 4)) {
+            assertArrayEquals(new byte[] { 1 }, buffer.peek(4));
+        }
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(path.getParent())) {
+            for (Path file : files) {
+                assertEquals(path, file);
+            }
+        }
+    }
+
+    @Test
+    public final void constructor_opensFileThatWasNeverWrittenTo() throws IOException {
+        Path path = path();
+
+        // A crash right after creating the buffer leaves only what create wrote.
+        new MappedByteRingBuffer(path, 4);
+
+        try (MappedByteRingBuffer buffer = new MappedByteRingBuffer(path, 4)) {
+            assertEquals(0, buffer.sizeUsed());
+            assertEquals(4, buffer.push(new byte[] { 1, 2, 3, 4 }));
+        }
+    }
+
+    @Test
+    public final void close_rejectsFurtherOperations() throws IOException {
+        MappedByteRingBuffer buffer = new MappedByteRingBuffer(path(), 4);
+        buffer.push(new byte[] { 1, 2 });
+        buffer.close();
+
+        try {
+            buffer.push(new byte[] { 3 });
+            fail();
+        } catch (IllegalStateException e) {
+        }
+
+        try {
+            buffer.pop(1);
+            fail();
+        } catch (IllegalStateException e) {
+        }
+
+        try {
+            buffer.force();
+            fail();
+        } catch (IllegalStateException e) {
+        }
+
+        assertEquals(2, buffer.sizeUsed());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public final void constructor_rejectsDifferentCapacity() throws IOException {
+        Path path = path();
+
+        new MappedByteRingBuffer(path, 4).close();
+        new MappedByteRingBuffer(path, 8).close();
+    }
+
+    @Test(expected = IOException.class)
+    public final void constructor_rejectsFilesThatAreNotRingBuffers() throws IOException {
+        Path path = path();
+        Files.write(path, new byte[] { 1, 2, 3, 4, 5, 6, 7, 8, 9 });
+
+        new MappedByteRingBuffer(path, 4).close();
+    }
+
+    @Test
+    public final void push_addsUpToCapacity() throws IOException {
+        try (MappedByteRingBuffer buffer = new MappedByteRingBuffer(path(), 4)) {
+            assertEquals(4, buffer.push(new byte[] { 1, 2, 3, 4, 5 }));
+            buffer.force();
+            assertArrayEquals(new byte[] { 1, 2, 3, 4 }, buffer.peek(4));
+        }
+    }
+
+    @Test
+    public final void peek_cb_callsFunctionTwiceWhenBufferIsPartitioned() throws IOException {
+        try (MappedByteRingBuffer buffer = new MappedByteRingBuffer(path(), 4)) {
+            buffer.overrunPush(new byte[] { 1, 2, 3, 4, 5 });
+
+            PeekCallbackTracker peekCallback = new PeekCallbackTracker();
+            buffer.peek(peekCallback);
+
+            assertEquals(2, peekCallback.calls.size());
+            assertArrayEquals(new byte[] { 2, 3, 4 }, peekCallback.calls.get(0));
+            assertArrayEquals(new byte[] { 5 }, peekCallback.calls.get(1));
+        }
+    }
+
+    private Path path() throws IOException {
+        return folder.newFolder().toPath().resolve("ring");
+    }
+}
@@ -0,0 +1,159 @@
+package com.daniel_araujo.byteringbuffer;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+import java.util.ArrayList;
+import java.util.List;
+
+public final class MpscByteRingBufferTest {
+    @Test
+    public final void push_addsUpToCapacity() {
+        MpscByteRingBuffer buffer = new MpscByteRingBuffer(4);
+
+        assertEquals(4, buffer.push(new byte[] { 1, 2, 3, 4, 5 }));
+        assertEquals(4, buffer.sizeUsed());
+        assertEquals(0, buffer.sizeFree());
+    }
+
+    @Test
+    public final void push_addsAfterConsumerMakesRoom() {
+        MpscByteRingBuffer buffer = new MpscByteRingBuffer(4);
+
+        buffer.push(new byte[] { 1, 2, 3, 4 });
+        assertEquals(0, buffer.push((byte) 5));
+
+        buffer.drop(2);
+        assertEquals(2, buffer.push(new byte[] { 5, 6, 7 }));
+
+        assertArrayEquals(new byte[] { 3, 4, 5, 6 }, buffer.peek(4));
+    }
+
+    @Test
+    public final void pop_removesElementsAcrossTheEndOfTheArray() {
+        MpscByteRingBuffer buffer = new MpscByteRingBuffer(4);
+
+        buffer.push(new byte[] { 1, 2, 3 });
+        buffer.drop(2);
+        buffer.push(new byte[] { 4, 5, 6 });
+
+        byte[] result = new byte[5];
+        assertEquals(4, buffer.pop(result));
+        assertArrayEquals(new byte[] { 3, 4, 5, 6, 0 }, result);
+        assertEquals(0, buffer.sizeUsed());
+    }
+
+    @Test
+    public final void peek_doesNotRemoveElements() {
+        MpscByteRingBuffer buffer = new MpscByteRingBuffer(4);
+
+        buffer.push(new byte[] { 1, 2, 3 });
+
+        assertArrayEquals(new byte[] { 1, 2 }, buffer.peek(2));
+        assertEquals(3, buffer.sizeUsed());
+    }
+
+    @Test
+    public final void peek_cb_callsFunctionIfBufferIsEmpty() {
+        MpscByteRingBuffer buffer = new MpscByteRingBuffer(4);
+
+        PeekCallbackTracker peekCallback = new PeekCallbackTracker();
+        buffer.peek(peekCallback);
+
+        assertEquals(1, peekCallback.calls.size());
+        assertEquals(0, peekCallback.calls.get(0).length);
+    }
+
+    @Test
+    public final void peek_cb_callsFunctionTwiceWhenBufferIsPartitioned() {
+        MpscByteRingBuffer buffer = new MpscByteRingBuffer(4);
+
+        buffer.push(new byte[] { 1, 2, 3, 4 });
+        buffer.drop(1);
+        buffer.push((byte) 5);
+
+        PeekCallbackTracker peekCallback = new PeekCallbackTracker();
+        buffer.peek(peekCallback);
+
+        assertEquals(2, peekCallback.calls.size());
+        assertArrayEquals(new byte[] { 2, 3, 4 }, peekCallback.calls.get(0));
+        assertArrayEquals(new byte[] { 5 }, peekCallback.calls.get(1));
+    }
+
+    @Test
+    public final void clear_removesEveryElement() {
+        MpscByteRingBuffer buffer = new MpscByteRingBuffer(4);
+
+        buffer.push(new byte[] { 1, 2, 3 });
+        buffer.clear();
+
+        assertEquals(0, buffer.sizeUsed());
+        assertEquals(4, buffer.push(new byte[] { 1, 2, 3, 4 }));
+    }
+
+    @Test
+    public final void sizeFree_excludesClaimedRanges() {
+        MpscByteRingBuffer buffer = new MpscByteRingBuffer(4);
+
+        buffer.push(new byte[] { 1, 2, 3 });
+        buffer.drop(1);
+
+        assertEquals(2, buffer.sizeFree());
+    }
+
+    @Test
+    public final void bytesOfEachProducerArriveInOrder() throws InterruptedException {
+        final MpscByteRingBuffer buffer = new MpscByteRingBuffer(64);
+        final int producers = 4;
+        final int perProducer = 200000;
+
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            final int id = p;
+            Thread thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    // Each byte holds the producer in the upper bits and a sequence number in the lower bits.
+                    byte[] chunk = new byte[3];
+                    int sent = 0;
+                    while (sent < perProducer) {
+                        int length = Math.min(chunk.length, perProducer - sent);
+                        for (int i = 0; i < length; i++) {
+                            chunk[i] = (byte) (id << 6 | (sent + i) & 0x3F);
+                        }
+
+                        int pushed = buffer.push(chunk, 0, length);
+                        sent += pushed;
+                        if (pushed == 0) {
+                            Thread.yield();
+                        }
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+
+        int[] expected = new int[producers];
+        byte[] chunk = new byte[16];
+        int received = 0;
+        while (received < producers * perProducer) {
+            int popped = buffer.pop(chunk);
+            for (int i = 0; i < popped; i++) {
+                int id = (chunk[i] & 0xFF) >> 6;
+                assertEquals(expected[id] & 0x3F, chunk[i] & 0x3F);
+                expected[id]++;
+            }
+
+            received += popped;
+            if (popped == 0) {
+                Thread.yield();
+            }
+        }
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(0, buffer.sizeUsed());
+    }
+}
@@ -0,0 +1,136 @@
+package com.daniel_araujo.byteringbuffer;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+public final class SpscByteRingBufferTest {
+    @Test
+    public final void push_addsUpToCapacity() {
+        SpscByteRingBuffer buffer = new SpscByteRingBuffer(4);
+
+        assertEquals(4, buffer.push(new byte[] { 1, 2, 3, 4, 5 }));
+        assertEquals(4, buffer.sizeUsed());
+        assertEquals(0, buffer.sizeFree());
+    }
+
+    @Test
+    public final void push_addsAfterConsumerMakesRoom() {
+        SpscByteRingBuffer buffer = new SpscByteRingBuffer(4);
+
+        buffer.push(new byte[] { 1, 2, 3, 4 });
+        assertEquals(0, buffer.push((byte) 5));
+
+        buffer.drop(2);
+        assertEquals(2, buffer.push(new byte[] { 5, 6, 7 }));
+
+        assertArrayEquals(new byte[] { 3, 4, 5, 6 }, buffer.peek(4));
+    }
+
+    @Test
+    public final void pop_removesElementsAcrossTheEndOfTheArray() {
+        SpscByteRingBuffer buffer = new SpscByteRingBuffer(4);
+
+        buffer.push(new byte[] { 1, 2, 3 });
+        buffer.drop(2);
+        buffer.push(new byte[] { 4, 5, 6 });
+
+        byte[] result = new byte[5];
+        assertEquals(4, buffer.pop(result));
+        assertArrayEquals(new byte[] { 3, 4, 5, 6, 0 }, result);
+        assertEquals(0, buffer.sizeUsed());
+    }
+
+    @Test
+    public final void peek_doesNotRemoveElements() {
+        SpscByteRingBuffer buffer = new SpscByteRingBuffer(4);
+
+        buffer.push(new byte[] { 1, 2, 3 });
+
+        assertArrayEquals(new byte[] { 1, 2 }, buffer.peek(2));
+        assertEquals(3, buffer.sizeUsed());
+    }
+
+    @Test
+    public final void peek_cb_callsFunctionIfBufferIsEmpty() {
+        SpscByteRingBuffer buffer = new SpscByteRingBuffer(4);
+
+        PeekCallbackTracker peekCallback = new PeekCallbackTracker();
+        buffer.peek(peekCallback);
+
+        assertEquals(1, peekCallback.calls.size());
+        assertEquals(0, peekCallback.calls.get(0).length);
+    }
+
+    @Test
+    public final void peek_cb_callsFunctionTwiceWhenBufferIsPartitioned() {
+        SpscByteRingBuffer buffer = new SpscByteRingBuffer(4);
+
+        buffer.push(new byte[] { 1, 2, 3, 4 });
+        buffer.drop(1);
+        buffer.push((byte) 5);
+
+        PeekCallbackTracker peekCallback = new PeekCallbackTracker();
+        buffer.peek(peekCallback);
+
+        assertEquals(2, peekCallback.calls.size());
+        assertArrayEquals(new byte[] { 2, 3, 4 }, peekCallback.calls.get(0));
+        assertArrayEquals(new byte[] { 5 }, peekCallback.calls.get(1));
+    }
+
+    @Test
+    public final void clear_removesEveryElement() {
+        SpscByteRingBuffer buffer = new SpscByteRingBuffer(4);
+
+        buffer.push(new byte[] { 1, 2, 3 });
+        buffer.clear();
+
+        assertEquals(0, buffer.sizeUsed());
+        assertEquals(4, buffer.push(new byte[] { 1, 2, 3, 4 }));
+    }
+
+    @Test
+    public final void producerAndConsumerThreadsSeeEveryByteInOrder() throws InterruptedException {
+        final SpscByteRingBuffer buffer = new SpscByteRingBuffer(7);
+        final int total = 1000000;
+
+        Thread producer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                byte[] chunk = new byte[5];
+                int sent = 0;
+                while (sent < total) {
+                    int length = Math.min(chunk.length, total - sent);
+                    for (int i = 0; i < length; i++) {
+                        chunk[i] = (byte) (sent + i);
+                    }
+
+                    int pushed = buffer.push(chunk, 0, length);
+                    sent += pushed;
+                    if (pushed == 0) {
+                        Thread.yield();
+                    }
+                }
+            }
+        });
+
+        producer.start();
+
+        byte[] chunk = new byte[3];
+        int received = 0;
+        while (received < total) {
+            int popped = buffer.pop(chunk);
+            for (int i = 0; i < popped; i++) {
+                assertEquals((byte) (received + i), chunk[i]);
+            }
+
+            received += popped;
+            if (popped == 0) {
+                Thread.yield();
+            }
+        }
+
+        producer.join();
+
+        assertEquals(0, buffer.sizeUsed());
+    }
+}
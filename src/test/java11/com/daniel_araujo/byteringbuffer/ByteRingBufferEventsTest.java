@@ -0,0 +1,116 @@
+package com.daniel_araujo.byteringbuffer;
+
+import static org.junit.Assert.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+public final class ByteRingBufferEventsTest {
+    private Recording recording;
+
+    @Before
+    public final void startRecording() {
+        recording = new Recording();
+        recording.enable("com.daniel_araujo.byteringbuffer.BufferFull");
+        recording.enable("com.daniel_araujo.byteringbuffer.Overrun");
+        recording.enable("com.daniel_araujo.byteringbuffer.BufferEmpty");
+        recording.start();
+    }
+
+    @After
+    public final void closeRecording() {
+        recording.close();
+    }
+
+    @Test
+    public final void push_emitsFullEventWithRejectedBytes() throws IOException {
+        ByteRingBuffer buffer = new ByteRingBuffer(4);
+
+        buffer.push(new byte[] { 1, 2, 3, 4, 5, 6 });
+
+        List<RecordedEvent> events = events("com.daniel_araujo.byteringbuffer.BufferFull");
+        assertEquals(1, events.size());
+        assertEquals(6, events.get(0).getInt("requested"));
+        assertEquals(2, events.get(0).getInt("rejected"));
+        assertEquals(System.identityHashCode(buffer), events.get(0).getInt("bufferIdentity"));
+    }
+
+    @Test
+    public final void pop_emitsEmptyEvent() throws IOException {
+        ByteRingBuffer buffer = new ByteRingBuffer(4);
+
+        buffer.pop(new byte[3]);
+
+        List<RecordedEvent> events = events("com.daniel_araujo.byteringbuffer.BufferEmpty");
+        assertEquals(1, events.size());
+        assertEquals(3, events.get(0).getInt("requested"));
+    }
+
+    @Test
+    public final void overrunPush_emitsOneEventWhenItWrapsAround() throws IOException {
+        ByteRingBuffer buffer = new ByteRingBuffer(4);
+        buffer.push(new byte[] { 1, 2, 3, 4 });
+        buffer.drop(2);
+        buffer.push(new byte[] { 5, 6 });
+
+        buffer.overrunPush(new byte[] { 7, 8, 9 });
+
+        List<RecordedEvent> events = events("com.daniel_araujo.byteringbuffer.Overrun");
+        assertEquals(1, events.size());
+        assertEquals(3, events.get(0).getInt("pushed"));
+        assertEquals(3, events.get(0).getInt("lost"));
+        assertArrayEquals(new byte[] { 6, 7, 8, 9 }, buffer.peek(4));
+    }
+
+    @Test
+    public final void overrunPush_emitsOneEventWhenItOverwritesItself() throws IOException {
+        ByteRingBuffer buffer = new ByteRingBuffer(4);
+        buffer.push(new byte[] { 1, 2 });
+
+        buffer.overrunPush(new byte[] { 3, 4, 5, 6, 7, 8 });
+
+        List<RecordedEvent> events = events("com.daniel_araujo.byteringbuffer.Overrun");
+        assertEquals(1, events.size());
+        assertEquals(6, events.get(0).getInt("pushed"));
+        assertEquals(4, events.get(0).getInt("lost"));
+    }
+
+    @Test
+    public final void overrunPush_emitsNothingWhenNothingIsLost() throws IOException {
+        ByteRingBuffer buffer = new ByteRingBuffer(4);
+
+        buffer.overrunPush(new byte[] { 1, 2, 3, 4 });
+
+        assertTrue(events("com.daniel_araujo.byteringbuffer.Overrun").isEmpty());
+    }
+
+    /**
+     * Stops the recording and reads the events it collected.
+     */
+    private List<RecordedEvent> events(String name) throws IOException {
+        recording.stop();
+
+        Path file = Files.createTempFile("byteringbuffer", ".jfr");
+        try {
+            recording.dump(file);
+
+            List<RecordedEvent> events = new ArrayList<>();
+            for (RecordedEvent event : RecordingFile.readAllEvents(file)) {
+                if (event.getEventType().getName().equals(name)) {
+                    events.add(event);
+                }
+            }
+            return events;
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
@@ -0,0 +1,380 @@
+package com.daniel_araujo.byteringbuffer;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+
+public final class ByteRingBufferFlowTest {
+    @Test
+    public final void publisher_emitsOneSegmentPerRequest() {
+        ByteRingBuffer buffer = new ByteRingBuffer(4);
+        buffer.push(new byte[] { 0, 0, 1, 2 });
+        buffer.drop(2);
+        buffer.push(new byte[] { 3, 4 });
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+
+        new ByteRingBufferPublisher(buffer, new QueueExecutor()).subscribe(subscriber);
+
+        subscriber.subscription.request(1);
+        assertEquals(1, subscriber.items.size());
+        assertArrayEquals(new byte[] { 1, 2 }, subscriber.items.get(0));
+        assertEquals(2, buffer.sizeUsed());
+
+        subscriber.subscription.request(1);
+        assertEquals(2, subscriber.items.size());
+        assertArrayEquals(new byte[] { 3, 4 }, subscriber.items.get(1));
+        assertEquals(0, buffer.sizeUsed());
+    }
+
+    @Test
+    public final void publisher_resumesOnExecutorWhenElementsArePushed() {
+        ByteRingBuffer buffer = new ByteRingBuffer(4);
+        QueueExecutor executor = new QueueExecutor();
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+
+        new ByteRingBufferPublisher(buffer, executor).subscribe(subscriber);
+        subscriber.subscription.request(Long.MAX_VALUE);
+        assertEquals(0, subscriber.items.size());
+
+        buffer.push(new byte[] { 1, 2, 3 });
+        assertEquals(0, subscriber.items.size());
+
+        executor.runAll();
+        assertEquals(1, subscriber.items.size());
+        assertArrayEquals(new byte[] { 1, 2, 3 }, subscriber.items.get(0));
+    }
+
+    @Test
+    public final void publisher_completesAfterBufferIsEmptied() {
+        ByteRingBuffer buffer = new ByteRingBuffer(4);
+        buffer.push(new byte[] { 1 });
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        ByteRingBufferPublisher publisher = new ByteRingBufferPublisher(buffer, new QueueExecutor());
+
+        publisher.subscribe(subscriber);
+        publisher.complete();
+        assertFalse(subscriber.completed);
+
+        subscriber.subscription.request(1);
+        assertEquals(1, subscriber.items.size());
+        assertTrue(subscriber.completed);
+    }
+
+    @Test
+    public final void publisher_stopsAfterCancel() {
+        ByteRingBuffer buffer = new ByteRingBuffer(4);
+        QueueExecutor executor = new QueueExecutor();
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+
+        new ByteRingBufferPublisher(buffer, executor).subscribe(subscriber);
+        subscriber.subscription.request(1);
+        subscriber.subscription.cancel();
+
+        buffer.push(new byte[] { 1 });
+        executor.runAll();
+        assertEquals(0, subscriber.items.size());
+        assertEquals(1, buffer.sizeUsed());
+    }
+
+    @Test
+    public final void publisher_doesNotHoldTheLockDuringOnNext() {
+        final ByteRingBuffer buffer = new ByteRingBuffer(4);
+        buffer.push(new byte[] { 1, 2 });
+        final boolean[] pushed = new boolean[1];
+        RecordingSubscriber subscriber = new RecordingSubscriber() {
+            @Override
+            public void onNext(ByteBuffer item) {
+                Thread producer = new Thread() {
+                    @Override
+                    public void run() {
+                        synchronized (buffer) {
+                            buffer.push(new byte[] { 3 });
+                        }
+                    }
+                };
+
+                producer.start();
+
+                try {
+                    producer.join(10000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+
+                pushed[0] = !producer.isAlive();
+                super.onNext(item);
+            }
+        };
+
+        new ByteRingBufferPublisher(buffer, new QueueExecutor()).subscribe(subscriber);
+        subscriber.subscription.request(1);
+
+        assertTrue(pushed[0]);
+        assertArrayEquals(new byte[] { 1, 2 }, subscriber.items.get(0));
+        assertArrayEquals(new byte[] { 3 }, buffer.peek(4));
+    }
+
+    @Test
+    public final void publisher_segmentsAreNotOverwrittenDuringOnNext() {
+        final ByteRingBuffer buffer = new ByteRingBuffer(4);
+        buffer.push(new byte[] { 1, 2 });
+        RecordingSubscriber subscriber = new RecordingSubscriber() {
+            @Override
+            public void onNext(ByteBuffer item) {
+                synchronized (buffer) {
+                    buffer.overrunPush(new byte[] { 3, 4, 5, 6 });
+                }
+
+                super.onNext(item);
+            }
+        };
+
+        new ByteRingBufferPublisher(buffer, new QueueExecutor()).subscribe(subscriber);
+        subscriber.subscription.request(1);
+
+        assertArrayEquals(new byte[] { 1, 2 }, subscriber.items.get(0));
+        assertArrayEquals(new byte[] { 3, 4 }, buffer.peek(4));
+    }
+
+    @Test
+    public final void publisher_cancelLetsGoOfPendingWaiter() throws InterruptedException {
+        ByteRingBuffer buffer = new ByteRingBuffer(4);
+        WeakReference<QueueExecutor> executor = subscribeAndCancelWhileWaiting(buffer);
+
+        for (int i = 0; i < 10 && executor.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+
+        // Only the buffer is left, so the executor must not be reachable from it.
+        assertNull(executor.get());
+        buffer.push(new byte[] { 1 });
+    }
+
+    @Test
+    public final void publisher_rejectsNonPositiveRequest() {
+        ByteRingBuffer buffer = new ByteRingBuffer(4);
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+
+        new ByteRingBufferPublisher(buffer, new QueueExecutor()).subscribe(subscriber);
+        subscriber.subscription.request(0);
+
+        assertTrue(subscriber.error instanceof IllegalArgumentException);
+    }
+
+    @Test
+    public final void publisher_rejectsSecondSubscriber() {
+        ByteRingBufferPublisher publisher = new ByteRingBufferPublisher(new ByteRingBuffer(4), new QueueExecutor());
+        RecordingSubscriber first = new RecordingSubscriber();
+        RecordingSubscriber second = new RecordingSubscriber();
+
+        publisher.subscribe(first);
+        publisher.subscribe(second);
+
+        assertNull(first.error);
+        assertTrue(second.error instanceof IllegalStateException);
+    }
+
+    @Test
+    public final void subscriber_requestsOnlyWhatFitsInFreeSpace() {
+        ByteRingBuffer buffer = new ByteRingBuffer(10);
+        ByteRingBufferSubscriber subscriber = new ByteRingBufferSubscriber(buffer, 3, new QueueExecutor());
+        RecordingSubscription subscription = new RecordingSubscription();
+
+        subscriber.onSubscribe(subscription);
+        assertEquals(3, subscription.requested);
+
+        subscriber.onNext(ByteBuffer.wrap(new byte[] { 1, 2, 3 }));
+        subscriber.onNext(ByteBuffer.wrap(new byte[] { 4, 5, 6 }));
+        assertEquals(3, subscription.requested);
+
+        // Only 1 byte of the last item is used, which leaves room for one more.
+        subscriber.onNext(ByteBuffer.wrap(new byte[] { 7 }));
+        assertEquals(4, subscription.requested);
+        assertEquals(7, buffer.sizeUsed());
+        assertArrayEquals(new byte[] { 1, 2, 3, 4, 5, 6, 7 }, buffer.peek(7));
+    }
+
+    @Test
+    public final void subscriber_resumesOnExecutorWhenSpaceIsFreed() {
+        ByteRingBuffer buffer = new ByteRingBuffer(4);
+        QueueExecutor executor = new QueueExecutor();
+        ByteRingBufferSubscriber subscriber = new ByteRingBufferSubscriber(buffer, 4, executor);
+        RecordingSubscription subscription = new RecordingSubscription();
+
+        subscriber.onSubscribe(subscription);
+        subscriber.onNext(ByteBuffer.wrap(new byte[] { 1, 2, 3, 4 }));
+        assertEquals(1, subscription.requested);
+
+        buffer.drop(4);
+        assertEquals(1, subscription.requested);
+
+        executor.runAll();
+        assertEquals(2, subscription.requested);
+    }
+
+    @Test
+    public final void subscriber_copiesItemAcrossTheEndOfTheBuffer() {
+        ByteRingBuffer buffer = new ByteRingBuffer(4);
+        buffer.push(new byte[] { 0, 0, 0 });
+        buffer.drop(3);
+        ByteRingBufferSubscriber subscriber = new ByteRingBufferSubscriber(buffer, 3, new QueueExecutor());
+        RecordingSubscription subscription = new RecordingSubscription();
+
+        subscriber.onSubscribe(subscription);
+        ByteBuffer item = ByteBuffer.wrap(new byte[] { 1, 2, 3 });
+        subscriber.onNext(item);
+
+        assertArrayEquals(new byte[] { 1, 2, 3 }, buffer.peek(3));
+        assertEquals(0, item.position());
+    }
+
+    @Test
+    public final void subscriber_cancelsWhenItemDoesNotFit() {
+        ByteRingBuffer buffer = new ByteRingBuffer(4);
+        ByteRingBufferSubscriber subscriber = new ByteRingBufferSubscriber(buffer, 2, new QueueExecutor());
+        RecordingSubscription subscription = new RecordingSubscription();
+
+        subscriber.onSubscribe(subscription);
+        subscriber.onNext(ByteBuffer.wrap(new byte[] { 1, 2, 3 }));
+
+        assertTrue(subscription.cancelled);
+        assertTrue(subscriber.completion().isCompletedExceptionally());
+        assertEquals(0, buffer.sizeUsed());
+    }
+
+    @Test
+    public final void subscriber_completesWithPublisher() {
+        ByteRingBufferSubscriber subscriber = new ByteRingBufferSubscriber(new ByteRingBuffer(4), 2,
+                new QueueExecutor());
+
+        subscriber.onSubscribe(new RecordingSubscription());
+        subscriber.onComplete();
+
+        assertTrue(subscriber.completion().isDone());
+        assertFalse(subscriber.completion().isCompletedExceptionally());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public final void subscriber_rejectsItemSizeLargerThanCapacity() {
+        new ByteRingBufferSubscriber(new ByteRingBuffer(4), 5, new QueueExecutor());
+    }
+
+    @Test
+    public final void publisherToSubscriber_movesEveryByteBetweenBuffers() {
+        ByteRingBuffer source = new ByteRingBuffer(8);
+        ByteRingBuffer destination = new ByteRingBuffer(64);
+        QueueExecutor executor = new QueueExecutor();
+        ByteRingBufferPublisher publisher = new ByteRingBufferPublisher(source, executor);
+        ByteRingBufferSubscriber subscriber = new ByteRingBufferSubscriber(destination, 8, executor);
+
+        publisher.subscribe(subscriber);
+
+        for (int i = 0; i < 40; i += 5) {
+            source.push(new byte[] { (byte) i, (byte) (i + 1), (byte) (i + 2), (byte) (i + 3), (byte) (i + 4) });
+            executor.runAll();
+        }
+
+        publisher.complete();
+        executor.runAll();
+
+        assertTrue(subscriber.completion().isDone());
+        assertEquals(40, destination.sizeUsed());
+
+        for (int i = 0; i < 40; i++) {
+            assertEquals((byte) i, destination.pop(1)[0]);
+        }
+    }
+
+    private static WeakReference<QueueExecutor> subscribeAndCancelWhileWaiting(ByteRingBuffer buffer) {
+        QueueExecutor executor = new QueueExecutor();
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+
+        new ByteRingBufferPublisher(buffer, executor).subscribe(subscriber);
+        subscriber.subscription.request(1);
+        subscriber.subscription.cancel();
+
+        return new WeakReference<>(executor);
+    }
+
+    /**
+     * Keeps tasks until the test runs them.
+     */
+    private static final class QueueExecutor implements Executor {
+        private final Queue<Runnable> tasks = new ArrayDeque<>();
+
+        @Override
+        public void execute(Runnable command) {
+            tasks.add(command);
+        }
+
+        public void runAll() {
+            while (!tasks.isEmpty()) {
+                tasks.remove().run();
+            }
+        }
+    }
+
+    /**
+     * Copies every item it receives.
+     */
+    private static class RecordingSubscriber implements Flow.Subscriber<ByteBuffer> {
+        Flow.Subscription subscription;
+
+        final List<byte[]> items = new ArrayList<>();
+
+        Throwable error;
+
+        boolean completed;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(ByteBuffer item) {
+            assertTrue(item.isReadOnly());
+
+            byte[] bytes = new byte[item.remaining()];
+            item.get(bytes);
+            items.add(bytes);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+        }
+    }
+
+    /**
+     * Counts requested items.
+     */
+    private static final class RecordingSubscription implements Flow.Subscription {
+        long requested;
+
+        boolean cancelled;
+
+        @Override
+        public void request(long n) {
+            requested += n;
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+    }
+}